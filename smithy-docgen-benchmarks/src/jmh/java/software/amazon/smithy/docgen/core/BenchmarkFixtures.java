@@ -0,0 +1,122 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+
+/**
+ * Shared setup for the documentation generation benchmarks.
+ */
+public final class BenchmarkFixtures {
+    /**
+     * The service defined in the test project's model.
+     */
+    public static final ShapeId DOCUMENTED_SERVICE = ShapeId.from("com.example#DocumentedService");
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * Loads the test project's model, which exercises every trait that the
+     * generator handles.
+     *
+     * @return returns the assembled model.
+     */
+    public static Model documentedServiceModel() {
+        return Model.assembler(BenchmarkFixtures.class.getClassLoader())
+                .addImport(BenchmarkFixtures.class.getResource("/main.smithy"))
+                .discoverModels(BenchmarkFixtures.class.getClassLoader())
+                .assemble()
+                .unwrap();
+    }
+
+    /**
+     * Creates plugin settings that never shell out to sphinx-build.
+     *
+     * @param service The service to document.
+     * @param format The format to generate.
+     * @return returns plugin settings for the docgen plugin.
+     */
+    public static ObjectNode pluginSettings(ShapeId service, String format) {
+        return Node.objectNodeBuilder()
+                .withMember("service", service.toString())
+                .withMember("format", format)
+                .withMember("integrations", Node.objectNode()
+                        .withMember("sphinx", Node.objectNode().withMember("autoBuild", Node.from(false))))
+                .build();
+    }
+
+    /**
+     * Creates a generation context for benchmarking individual generators.
+     *
+     * <p>Integrations are discovered and their interceptors are dispatched the
+     * same way they are during a full plugin run.
+     *
+     * @param model The model to generate documentation for.
+     * @param service The service to document.
+     * @param format The format to generate.
+     * @return returns a context along with the interceptors to register on writers.
+     */
+    public static GeneratorFixture createGeneratorFixture(Model model, ShapeId service, String format) {
+        var settings = new DocSettings(service, format, Map.of());
+        var integrationSettings = pluginSettings(service, format).expectObjectMember("integrations");
+        List<DocIntegration> integrations = new ArrayList<>();
+        for (var integration : ServiceLoader.load(DocIntegration.class, BenchmarkFixtures.class.getClassLoader())) {
+            integration.configure(settings, integrationSettings.getObjectMember(integration.name())
+                    .orElse(Node.objectNode()));
+            integrations.add(integration);
+        }
+
+        var context = new DocGenerationContext(
+                model,
+                settings,
+                new DocSymbolProvider(model, settings),
+                new MockManifest(),
+                integrations
+        );
+
+        List<CodeInterceptor<? extends CodeSection, DocWriter>> interceptors = new ArrayList<>();
+        for (var integration : integrations) {
+            interceptors.addAll(integration.interceptors(context));
+        }
+        return new GeneratorFixture(context, new InterceptorDispatcher(interceptors).interceptors());
+    }
+
+    /**
+     * A generation context and the interceptors that writers should use with it.
+     *
+     * @param context The generation context.
+     * @param interceptors The interceptors to register on each writer.
+     */
+    public record GeneratorFixture(
+            DocGenerationContext context,
+            List<CodeInterceptor<? extends CodeSection, DocWriter>> interceptors
+    ) {
+        /**
+         * Creates a writer in the context's format with every interceptor registered.
+         *
+         * @param filename The name of the file the writer is for.
+         * @return returns a new writer.
+         */
+        public DocWriter createWriter(String filename) {
+            var writer = context.docFormat().writerFactory().apply(filename, "com.example");
+            for (var interceptor : interceptors) {
+                writer.onSection(interceptor);
+            }
+            return writer;
+        }
+    }
+}
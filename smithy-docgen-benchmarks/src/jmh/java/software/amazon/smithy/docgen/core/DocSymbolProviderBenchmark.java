@@ -0,0 +1,63 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.Shape;
+
+/**
+ * Measures converting every shape in the model into a symbol.
+ *
+ * <p>The cold benchmark creates a new provider for each invocation, so every
+ * symbol is computed from scratch. The warm benchmark uses the context's
+ * provider, which caches symbols, as generators do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DocSymbolProviderBenchmark {
+
+    private Model model;
+    private DocSettings settings;
+    private List<Shape> shapes;
+    private SymbolProvider cachedProvider;
+
+    @Setup
+    public void setup() {
+        model = BenchmarkFixtures.documentedServiceModel();
+        settings = new DocSettings(BenchmarkFixtures.DOCUMENTED_SERVICE, "markdown", Map.of());
+        shapes = List.copyOf(model.toSet());
+        cachedProvider = BenchmarkFixtures.createGeneratorFixture(
+                model, BenchmarkFixtures.DOCUMENTED_SERVICE, "markdown").context().symbolProvider();
+    }
+
+    @Benchmark
+    public void toSymbolCold(Blackhole blackhole) {
+        var provider = new DocSymbolProvider(model, settings);
+        for (var shape : shapes) {
+            blackhole.consume(provider.toSymbol(shape));
+        }
+    }
+
+    @Benchmark
+    public void toSymbolWarm(Blackhole blackhole) {
+        for (var shape : shapes) {
+            blackhole.consume(cachedProvider.toSymbol(shape));
+        }
+    }
+}
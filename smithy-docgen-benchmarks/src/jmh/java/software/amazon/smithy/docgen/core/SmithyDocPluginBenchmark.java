@@ -0,0 +1,81 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+
+/**
+ * Measures a full run of the docgen plugin, from validation to flushed files.
+ *
+ * <p>The {@code pages} counter reports how many content pages are generated per
+ * second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SmithyDocPluginBenchmark {
+
+    @Param({"markdown", "sphinx-markdown"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Model model;
+
+    /**
+     * Counts the pages generated by each invocation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class PageCounter {
+        public long pages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pages = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        model = BenchmarkFixtures.documentedServiceModel();
+    }
+
+    @Benchmark
+    public MockManifest execute(PageCounter counter) {
+        var manifest = new MockManifest();
+        var settings = BenchmarkFixtures.pluginSettings(BenchmarkFixtures.DOCUMENTED_SERVICE, format).toBuilder()
+                .withMember("parallel", Node.from(parallel))
+                .build();
+        var context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(settings)
+                .build();
+        new SmithyDocPlugin().execute(context);
+        for (var file : manifest.getFiles()) {
+            if (file.startsWith(manifest.getBaseDir().resolve("content"))) {
+                counter.pages++;
+            }
+        }
+        return manifest;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.docgen.core.SmithyDocPluginBenchmark.PageCounter;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+
+/**
+ * Measures full plugin runs against synthetic services the size of large real
+ * world services.
+ *
+ * <p>Each operation produces its own page, and every tenth operation is bound
+ * to a resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SyntheticServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int operations;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Model model;
+
+    @Setup
+    public void setup() {
+        model = SyntheticModelGenerator.builder()
+                .operations(operations)
+                .resources(operations / 10)
+                .nestingDepth(2)
+                .build()
+                .generate();
+    }
+
+    @Benchmark
+    public MockManifest execute(PageCounter counter) {
+        var manifest = new MockManifest();
+        var settings = BenchmarkFixtures.pluginSettings(SyntheticModelGenerator.SERVICE, "markdown").toBuilder()
+                .withMember("parallel", Node.from(parallel))
+                .build();
+        var context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(settings)
+                .build();
+        new SmithyDocPlugin().execute(context);
+        counter.pages += manifest.getFiles().size();
+        return manifest;
+    }
+}
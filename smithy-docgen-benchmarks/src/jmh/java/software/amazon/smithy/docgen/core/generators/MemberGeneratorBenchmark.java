@@ -0,0 +1,99 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.generators;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.smithy.docgen.core.BenchmarkFixtures;
+import software.amazon.smithy.docgen.core.BenchmarkFixtures.GeneratorFixture;
+import software.amazon.smithy.docgen.core.generators.MemberGenerator.MemberListingType;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+/**
+ * Measures listing the members of a wide structure.
+ *
+ * <p>Members cycle through a handful of traits so that the trait interceptors
+ * are exercised alongside the member listing itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberGeneratorBenchmark {
+    private static final ShapeId SERVICE = ShapeId.from("com.example#WideService");
+    private static final ShapeId WIDE = ShapeId.from("com.example#Wide");
+    private static final String[] MEMBER_TRAITS = {
+        "@required",
+        "@length(min: 1, max: 64)",
+        "@deprecated(message: \"Use something else.\")",
+        "@sensitive",
+        "@default(\"value\")",
+        ""
+    };
+
+    @Param({"markdown", "sphinx-markdown"})
+    public String format;
+
+    @Param({"10", "100", "1000"})
+    public int memberCount;
+
+    private GeneratorFixture fixture;
+    private Shape shape;
+
+    @Setup
+    public void setup() {
+        var model = Model.assembler()
+                .addUnparsedModel("wide.smithy", createWideModel(memberCount))
+                .assemble()
+                .unwrap();
+        fixture = BenchmarkFixtures.createGeneratorFixture(model, SERVICE, format);
+        shape = model.expectShape(WIDE);
+    }
+
+    @Benchmark
+    public String run() {
+        var writer = fixture.createWriter("Wide");
+        new MemberGenerator(fixture.context(), writer, shape, MemberListingType.MEMBERS).run();
+        return writer.toString();
+    }
+
+    static String createWideModel(int memberCount) {
+        var builder = new StringBuilder("""
+                $version: "2.0"
+
+                namespace com.example
+
+                service WideService {
+                    operations: [WideOperation]
+                }
+
+                operation WideOperation {
+                    input: Wide
+                }
+
+                /// A structure with a large number of members.
+                @input
+                structure Wide {
+                """);
+        for (var i = 0; i < memberCount; i++) {
+            builder.append(String.format("""
+                        /// Documentation for member %1$d, which has **some** `CommonMark` in it.
+                        %2$s
+                        member%1$d: String
+
+                    """, i, MEMBER_TRAITS[i % MEMBER_TRAITS.length]));
+        }
+        return builder.append("}\n").toString();
+    }
+}
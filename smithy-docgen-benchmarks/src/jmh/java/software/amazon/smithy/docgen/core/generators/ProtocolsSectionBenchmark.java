@@ -0,0 +1,59 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.generators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.smithy.docgen.core.BenchmarkFixtures;
+import software.amazon.smithy.docgen.core.BenchmarkFixtures.GeneratorFixture;
+import software.amazon.smithy.model.shapes.Shape;
+
+/**
+ * Measures writing the protocol tabs for every operation and member in the
+ * service, which consults each protocol's interceptors once per shape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProtocolsSectionBenchmark {
+
+    @Param({"markdown", "sphinx-markdown"})
+    public String format;
+
+    private GeneratorFixture fixture;
+    private List<Shape> shapes;
+
+    @Setup
+    public void setup() {
+        var model = BenchmarkFixtures.documentedServiceModel();
+        fixture = BenchmarkFixtures.createGeneratorFixture(model, BenchmarkFixtures.DOCUMENTED_SERVICE, format);
+        shapes = new ArrayList<>();
+        for (var operation : fixture.context().knowledge().containedOperations()) {
+            shapes.add(operation);
+            for (var structure : List.of(operation.getInputShape(), operation.getOutputShape())) {
+                shapes.addAll(model.expectShape(structure).members());
+            }
+        }
+    }
+
+    @Benchmark
+    public String writeProtocolsSection() {
+        var writer = fixture.createWriter("Protocols");
+        for (var shape : shapes) {
+            GeneratorUtils.writeProtocolsSection(fixture.context(), writer, shape);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.writers;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.smithy.docgen.core.writers.DocWriter.ListType;
+import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
+
+/**
+ * Measures the formatting done by the markdown writers, without any interceptors.
+ *
+ * <p>Each invocation writes a page shaped like a typical structure page: a
+ * heading, CommonMark documentation, a definition list of members, and a group
+ * of code tabs. The template benchmarks compare writing a conditional template
+ * like the ones interceptors write with the writer's parsed template cache and with
+ * the writer's own template parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DocWriterBenchmark {
+    private static final String DOCS = """
+            Some documentation with **bold text**, `inline code`, and a
+            [link](https://smithy.io/2.0/index.html).
+
+            * A list item
+            * Another list item
+            """;
+
+    private static final String TEMPLATE = """
+            $B $`
+            ${?hasLabels}
+
+            To resolve the path segment of the URI, replace any segments surrounded with
+            braces with the URI-escaped value of the corresponding member.
+            ${/hasLabels}
+
+            $L""";
+
+    @Param({"markdown", "sphinx-markdown"})
+    public String format;
+
+    @Param({"50"})
+    public int items;
+
+    @Benchmark
+    public String writePage() {
+        DocWriter writer = format.equals("markdown")
+                ? new MarkdownWriter("Page")
+                : new SphinxMarkdownWriter("Page");
+
+        writer.writeAnchor("page");
+        writer.openHeading("Page");
+        writer.writeCommonMark(DOCS);
+        writer.writeBadge(NoticeType.WARNING, "DEPRECATED");
+        writer.openAdmonition(NoticeType.NOTE);
+        writer.writeCommonMark("This is a note.");
+        writer.closeAdmonition();
+
+        writer.openDefinitionList();
+        for (var i = 0; i < items; i++) {
+            var index = i;
+            writer.openDefinitionListItem(title -> title.writeInline("member$L", index));
+            writer.writeCommonMark(DOCS);
+            writer.openList(ListType.UNORDERED);
+            writer.openListItem(ListType.UNORDERED);
+            writer.writeInline("Required");
+            writer.closeListItem(ListType.UNORDERED);
+            writer.closeList(ListType.UNORDERED);
+            writer.closeDefinitionListItem();
+        }
+        writer.closeDefinitionList();
+
+        writer.openTabGroup();
+        for (var language : new String[] {"json", "xml"}) {
+            writer.openCodeTab(language, language);
+            writer.write("{\"member\": \"value\"}");
+            writer.closeCodeTab();
+        }
+        writer.closeTabGroup();
+        writer.closeHeading();
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String writeTemplate() {
+        DocWriter writer = newWriter();
+        for (var i = 0; i < items; i++) {
+            writer.write(TEMPLATE, "URI:", "/things/{thing}", DOCS);
+        }
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String parseTemplate() {
+        DocWriter writer = newWriter();
+        for (var i = 0; i < items; i++) {
+            writer.writeWithNoFormatting(writer.format(TEMPLATE, "URI:", "/things/{thing}", DOCS));
+        }
+        return writer.toString();
+    }
+
+    private DocWriter newWriter() {
+        DocWriter writer = format.equals("markdown")
+                ? new MarkdownWriter("Page")
+                : new SphinxMarkdownWriter("Page");
+        writer.putContext("hasLabels", true);
+        return writer;
+    }
+}
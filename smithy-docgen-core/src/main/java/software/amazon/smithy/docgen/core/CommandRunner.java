@@ -0,0 +1,321 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static java.lang.String.format;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.utils.SmithyBuilder;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+
+/**
+ * Runs an external command, streaming its output as it's produced.
+ *
+ * <p>Commands are run directly from their argument list rather than through a
+ * shell, so arguments don't need to be quoted. Standard error is merged into
+ * standard output, and each line is logged and passed to the optional line
+ * listener as soon as it's read. Only the last {@link Builder#tailLines} lines
+ * are kept for error messages, unless the full output is captured with
+ * {@link Builder#captureOutput}, so long-running commands like sphinx-build
+ * don't accumulate their whole output in memory.
+ *
+ * <p>A command fails with a {@link CodegenException} if it exits with a non-zero
+ * status, runs longer than its timeout, is cancelled with {@link #cancel}, or if
+ * the thread running it is interrupted. In every case but a non-zero exit, the
+ * process and any processes it started are killed.
+ */
+@SmithyUnstableApi
+public final class CommandRunner {
+    private static final Logger LOGGER = Logger.getLogger(CommandRunner.class.getName());
+
+    // Output is read on its own thread so that timeouts can be enforced while
+    // waiting for the process. Once a process is killed its output should end
+    // right away, but a process it started may still be holding the stream, so
+    // whatever was read by then is reported after this long.
+    private static final Duration OUTPUT_DRAIN_TIME = Duration.ofSeconds(5);
+
+    private final List<String> command;
+    private final Path directory;
+    private final Duration timeout;
+    private final int tailLines;
+    private final boolean captureOutput;
+    private final Consumer<String> lineListener;
+    private final Deque<String> tail = new ArrayDeque<>();
+    private final List<String> captured = new ArrayList<>();
+    private long lineCount;
+    private volatile Process process;
+    private volatile boolean cancelled;
+
+    private CommandRunner(Builder builder) {
+        this.command = List.copyOf(builder.command);
+        this.directory = SmithyBuilder.requiredState("directory", builder.directory);
+        this.timeout = builder.timeout;
+        this.tailLines = builder.tailLines;
+        this.captureOutput = builder.captureOutput;
+        this.lineListener = builder.lineListener;
+        if (command.isEmpty()) {
+            throw new IllegalStateException("A command to run must be set.");
+        }
+    }
+
+    /**
+     * @return returns a builder used to create a command runner.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Runs the command and waits for it to finish.
+     *
+     * <p>A runner may only be run once.
+     *
+     * @return returns the command's full output if it was captured, or otherwise
+     *   the last lines of its output.
+     * @throws CodegenException if the command couldn't be started, failed, timed
+     *   out, or was cancelled.
+     */
+    public String run() {
+        if (process != null) {
+            throw new IllegalStateException("Command `" + display() + "` has already been run.");
+        }
+        LOGGER.fine(() -> format("Running `%s` in %s", display(), directory));
+        Process started;
+        try {
+            started = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .directory(directory.toFile())
+                    .start();
+        } catch (IOException e) {
+            throw new CodegenException(format("Unable to run command `%s`: %s", display(), e.getMessage()), e);
+        }
+        process = started;
+        if (cancelled) {
+            destroy(started);
+        }
+
+        var reader = new Thread(() -> readOutput(started), "docgen-command-output");
+        reader.setDaemon(true);
+        reader.start();
+
+        var deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            // Output is read to the end, even if that takes a while after the process
+            // exits, so that captured output is never truncated. Output from a
+            // cancelled command isn't reported, so it isn't waited for. A process
+            // started just before the command was killed could still be holding it.
+            if (timeout.isZero()) {
+                started.waitFor();
+                if (!cancelled) {
+                    reader.join();
+                }
+            } else if (!started.waitFor(remainingMillis(deadline), TimeUnit.MILLISECONDS)
+                    || (!cancelled && !join(reader, remainingMillis(deadline)))) {
+                // Reading the output counts toward the timeout, since a process the
+                // command started could hold the output open indefinitely.
+                destroy(started);
+                reader.join(OUTPUT_DRAIN_TIME.toMillis());
+                throw new CodegenException(format("Command `%s` timed out after %d seconds with output:%n%n%s",
+                        display(), timeout.toSeconds(), tail()));
+            }
+        } catch (InterruptedException e) {
+            destroy(started);
+            Thread.currentThread().interrupt();
+            throw new CodegenException(format("Command `%s` was interrupted.", display()), e);
+        }
+
+        if (cancelled) {
+            throw new CodegenException(format("Command `%s` was cancelled.", display()));
+        }
+        if (started.exitValue() != 0) {
+            throw new CodegenException(format("Command `%s` failed with exit code %d and output:%n%n%s",
+                    display(), started.exitValue(), tail()));
+        }
+        synchronized (tail) {
+            return String.join(System.lineSeparator(), captureOutput ? captured : tail);
+        }
+    }
+
+    /**
+     * Stops the command, killing it and any processes it started.
+     *
+     * <p>This may be called from any thread. If the command hasn't been started
+     * yet, it's killed as soon as it starts.
+     */
+    public void cancel() {
+        cancelled = true;
+        var running = process;
+        if (running != null) {
+            destroy(running);
+        }
+    }
+
+    private static long remainingMillis(long deadline) {
+        // A timeout of zero would wait indefinitely, so at least a millisecond is used.
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    private static boolean join(Thread thread, long millis) throws InterruptedException {
+        thread.join(millis);
+        return !thread.isAlive();
+    }
+
+    private void readOutput(Process started) {
+        try (var reader = new BufferedReader(new InputStreamReader(
+                started.getInputStream(), Charset.defaultCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                LOGGER.finest(line);
+                if (lineListener != null) {
+                    lineListener.accept(line);
+                }
+                synchronized (tail) {
+                    lineCount++;
+                    if (tailLines > 0 && tail.size() == tailLines) {
+                        tail.removeFirst();
+                    }
+                    if (tailLines > 0) {
+                        tail.addLast(line);
+                    }
+                    if (captureOutput) {
+                        captured.add(line);
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // The stream is closed out from under the reader when the process is
+            // killed, and whatever was read before then is still reported.
+            LOGGER.fine(() -> format("Stopped reading output of `%s`: %s", display(), e.getMessage()));
+        }
+    }
+
+    private String tail() {
+        synchronized (tail) {
+            var omitted = lineCount - tail.size();
+            var joined = String.join(System.lineSeparator(), tail);
+            if (omitted > 0) {
+                return format("[%d earlier lines omitted]%n%s", omitted, joined);
+            }
+            return joined;
+        }
+    }
+
+    private void destroy(Process running) {
+        running.descendants().forEach(ProcessHandle::destroyForcibly);
+        running.destroyForcibly();
+    }
+
+    private String display() {
+        return String.join(" ", command);
+    }
+
+    /**
+     * Builds a {@link CommandRunner}.
+     */
+    public static final class Builder implements SmithyBuilder<CommandRunner> {
+        private final List<String> command = new ArrayList<>();
+        private Path directory;
+        private Duration timeout = Duration.ZERO;
+        private int tailLines = 200;
+        private boolean captureOutput;
+        private Consumer<String> lineListener;
+
+        private Builder() {}
+
+        @Override
+        public CommandRunner build() {
+            return new CommandRunner(this);
+        }
+
+        /**
+         * @param command The program to run, followed by its arguments.
+         * @return returns the builder.
+         */
+        public Builder command(List<String> command) {
+            this.command.clear();
+            this.command.addAll(command);
+            return this;
+        }
+
+        /**
+         * @param command The program to run, followed by its arguments.
+         * @return returns the builder.
+         */
+        public Builder command(String... command) {
+            return command(List.of(command));
+        }
+
+        /**
+         * @param directory The directory to run the command in.
+         * @return returns the builder.
+         */
+        public Builder directory(Path directory) {
+            this.directory = Objects.requireNonNull(directory);
+            return this;
+        }
+
+        /**
+         * @param timeout How long the command may run before it's killed. A zero
+         *   duration, the default, means the command may run indefinitely.
+         * @return returns the builder.
+         */
+        public Builder timeout(Duration timeout) {
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Command timeouts must not be negative, but found " + timeout);
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * @param tailLines The number of lines at the end of the command's output
+         *   to include in error messages. The default is 200.
+         * @return returns the builder.
+         */
+        public Builder tailLines(int tailLines) {
+            if (tailLines < 0) {
+                throw new IllegalArgumentException("Tail lines must not be negative, but found " + tailLines);
+            }
+            this.tailLines = tailLines;
+            return this;
+        }
+
+        /**
+         * @param captureOutput Whether to keep the command's full output so that
+         *   it can be returned from {@link CommandRunner#run}. The default is false.
+         * @return returns the builder.
+         */
+        public Builder captureOutput(boolean captureOutput) {
+            this.captureOutput = captureOutput;
+            return this;
+        }
+
+        /**
+         * @param lineListener A listener called with each line of output as it's
+         *   read. It's called from a thread dedicated to reading the output.
+         * @return returns the builder.
+         */
+        public Builder lineListener(Consumer<String> lineListener) {
+            this.lineListener = lineListener;
+            return this;
+        }
+    }
+}
@@ -5,9 +5,20 @@
 
 package software.amazon.smithy.docgen.core;
 
+import static java.lang.String.format;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.codegen.core.directed.CreateContextDirective;
 import software.amazon.smithy.codegen.core.directed.CreateSymbolProviderDirective;
+import software.amazon.smithy.codegen.core.directed.CustomizeDirective;
 import software.amazon.smithy.codegen.core.directed.DirectedCodegen;
 import software.amazon.smithy.codegen.core.directed.GenerateEnumDirective;
 import software.amazon.smithy.codegen.core.directed.GenerateErrorDirective;
@@ -17,14 +28,20 @@ import software.amazon.smithy.codegen.core.directed.GenerateResourceDirective;
 import software.amazon.smithy.codegen.core.directed.GenerateServiceDirective;
 import software.amazon.smithy.codegen.core.directed.GenerateStructureDirective;
 import software.amazon.smithy.codegen.core.directed.GenerateUnionDirective;
+import software.amazon.smithy.docgen.core.DocSymbolProvider.SymbolCache;
 import software.amazon.smithy.docgen.core.generators.MemberGenerator.MemberListingType;
 import software.amazon.smithy.docgen.core.generators.OperationGenerator;
 import software.amazon.smithy.docgen.core.generators.ResourceGenerator;
 import software.amazon.smithy.docgen.core.generators.ServiceGenerator;
 import software.amazon.smithy.docgen.core.generators.StructuredShapeGenerator;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.model.node.ExpectationNotMetException;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.traits.InputTrait;
 import software.amazon.smithy.model.traits.OutputTrait;
+import software.amazon.smithy.utils.IoUtils;
 import software.amazon.smithy.utils.SmithyUnstableApi;
 
 /**
@@ -32,26 +49,120 @@ import software.amazon.smithy.utils.SmithyUnstableApi;
  */
 @SmithyUnstableApi
 final class DirectedDocGen implements DirectedCodegen<DocGenerationContext, DocSettings, DocIntegration> {
+    private static final Logger LOGGER = Logger.getLogger(DirectedDocGen.class.getName());
+    private static final int PROFILE_REPORT_LIMIT = 20;
+
+    private final ParallelShapeGenerator parallelGenerator = new ParallelShapeGenerator();
+    private final PageStreamer pageStreamer = new PageStreamer();
+    private InterceptorDispatcher interceptorDispatcher;
+    private IncrementalManifest incrementalManifest;
+    private WriteIfChangedFileManifest writeIfChangedManifest;
+    private final DocMetrics metrics;
+    private final ObjectNode integrationSettings;
+    private DocMetrics.Span integrationsSpan;
+    private DocFormat docFormat;
+    private PageDependencies previousPageDependencies;
+    private ShardMerger shardMerger;
+    private final Set<String> shardPages = ConcurrentHashMap.newKeySet();
+
+    DirectedDocGen() {
+        this(new DocMetrics(), Node.objectNode());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param metrics The metrics to record generation phases to.
+     * @param integrationSettings The settings that integrations are configured with.
+     */
+    DirectedDocGen(DocMetrics metrics, ObjectNode integrationSettings) {
+        this.metrics = metrics;
+        this.integrationSettings = integrationSettings;
+    }
 
     @Override
     public SymbolProvider createSymbolProvider(CreateSymbolProviderDirective<DocSettings> directive) {
-        return new DocSymbolProvider(directive.model(), directive.settings());
+        return metrics.time("symbolProvider", () -> new DocSymbolProvider(directive.model(), directive.settings()));
     }
 
     @Override
     public DocGenerationContext createContext(CreateContextDirective<DocSettings, DocIntegration> directive) {
-        return new DocGenerationContext(
+        var fileManifest = directive.fileManifest();
+        var shard = directive.settings().shard();
+        if (shard.isPresent() && shard.get().merge()) {
+            if (directive.settings().incremental()) {
+                throw new CodegenException(
+                        "The docgen `incremental` setting can't be used when merging shards. Set it on each shard.");
+            }
+            shardMerger = new ShardMerger(shard.get());
+        }
+        // Incremental runs still render some files, and those whose contents are
+        // unchanged aren't rewritten either.
+        if (directive.settings().writeIfChanged() || directive.settings().incremental()) {
+            writeIfChangedManifest = new WriteIfChangedFileManifest(fileManifest);
+            fileManifest = writeIfChangedManifest;
+        }
+        if (directive.settings().incremental()) {
+            incrementalManifest = IncrementalManifest.load(fileManifest);
+            fileManifest = incrementalManifest.decorate(fileManifest);
+            if (directive.settings().pageDependencies()) {
+                previousPageDependencies = loadPageDependencies(fileManifest);
+            }
+        }
+        var context = new DocGenerationContext(
             directive.model(),
             directive.settings(),
             directive.symbolProvider(),
-            directive.fileManifest(),
-            directive.integrations()
+            fileManifest,
+            directive.integrations(),
+            metrics
         );
+        docFormat = context.docFormat();
+        return context;
+    }
+
+    private PageDependencies loadPageDependencies(FileManifest fileManifest) {
+        var path = fileManifest.resolvePath(Path.of(PageDependencies.FILENAME));
+        if (!Files.isRegularFile(path)) {
+            return new PageDependencies();
+        }
+        return PageDependencies.fromNode(Node.parse(IoUtils.readUtf8File(path)));
+    }
+
+    /**
+     * @return returns the format that documentation was generated in, or null if
+     *   generation hasn't started yet.
+     */
+    DocFormat docFormat() {
+        return docFormat;
+    }
+
+    @Override
+    public void customizeBeforeShapeGeneration(CustomizeDirective<DocGenerationContext, DocSettings> directive) {
+        var context = directive.context();
+        for (var integration : context.integrations()) {
+            integration.beforeShapeGeneration(context);
+        }
+
+        // The director has already registered the integrations' interceptors with
+        // the context's writer delegator, which grouped them for dispatch.
+        interceptorDispatcher = context.interceptorDispatcher();
+
+        if (incrementalManifest != null) {
+            metrics.time("incremental.prepare", () -> incrementalManifest.prepare(context, integrationSettings));
+        }
     }
 
     @Override
     public void generateService(GenerateServiceDirective<DocGenerationContext, DocSettings> directive) {
-        new ServiceGenerator().accept(directive);
+        var context = directive.context();
+        if (context.settings().isPartial()) {
+            // The service page links to every other page, so it's rendered when merging.
+            return;
+        }
+        var page = context.symbolProvider().toSymbol(directive.shape()).getDefinitionFile();
+        metrics.timeShape(directive.shape().getType(), () -> context.pageDependencies()
+                .record(page, directive.shape(), () -> new ServiceGenerator().accept(directive)));
     }
 
     @Override
@@ -60,27 +171,32 @@ final class DirectedDocGen implements DirectedCodegen<DocGenerationContext, DocS
         if (directive.shape().hasTrait(InputTrait.class) || directive.shape().hasTrait(OutputTrait.class)) {
             return;
         }
-        new StructuredShapeGenerator(directive.context()).accept(directive.shape(), MemberListingType.MEMBERS);
+        generate(directive.context(), directive.shape(), context -> new StructuredShapeGenerator(context)
+                .accept(directive.shape(), MemberListingType.MEMBERS));
     }
 
     @Override
     public void generateOperation(GenerateOperationDirective<DocGenerationContext, DocSettings> directive) {
-        new OperationGenerator().accept(directive);
+        generate(directive.context(), directive.shape(), context -> new OperationGenerator()
+                .accept(context, directive.shape()));
     }
 
     @Override
     public void generateError(GenerateErrorDirective<DocGenerationContext, DocSettings> directive) {
-        new StructuredShapeGenerator(directive.context()).accept(directive.shape(), MemberListingType.MEMBERS);
+        generate(directive.context(), directive.shape(), context -> new StructuredShapeGenerator(context)
+                .accept(directive.shape(), MemberListingType.MEMBERS));
     }
 
     @Override
     public void generateUnion(GenerateUnionDirective<DocGenerationContext, DocSettings> directive) {
-        new StructuredShapeGenerator(directive.context()).accept(directive.shape(), MemberListingType.OPTIONS);
+        generate(directive.context(), directive.shape(), context -> new StructuredShapeGenerator(context)
+                .accept(directive.shape(), MemberListingType.OPTIONS));
     }
 
     @Override
     public void generateEnumShape(GenerateEnumDirective<DocGenerationContext, DocSettings> directive) {
-        new StructuredShapeGenerator(directive.context()).accept(directive.shape(), MemberListingType.OPTIONS);
+        generate(directive.context(), directive.shape(), context -> new StructuredShapeGenerator(context)
+                .accept(directive.shape(), MemberListingType.OPTIONS));
     }
 
     @Override
@@ -88,11 +204,104 @@ final class DirectedDocGen implements DirectedCodegen<DocGenerationContext, DocS
         var shape = directive.shape();
         var intEnum = shape.asIntEnumShape().orElseThrow(() -> new ExpectationNotMetException(
                 "Expected an intEnum shape, but found " + shape, shape));
-        new StructuredShapeGenerator(directive.context()).accept(intEnum, MemberListingType.OPTIONS);
+        generate(directive.context(), intEnum, context -> new StructuredShapeGenerator(context)
+                .accept(intEnum, MemberListingType.OPTIONS));
     }
 
     @Override
     public void generateResource(GenerateResourceDirective<DocGenerationContext, DocSettings> directive) {
-        new ResourceGenerator().accept(directive.context(), directive.shape());
+        generate(directive.context(), directive.shape(), context -> new ResourceGenerator()
+                .accept(context, directive.shape()));
+    }
+
+    private void generate(DocGenerationContext context, Shape shape, Consumer<DocGenerationContext> generator) {
+        var page = context.symbolProvider().toSymbol(shape).getDefinitionFile();
+        if (shardMerger != null) {
+            shardMerger.expect(page);
+            return;
+        }
+        var shard = context.settings().shard();
+        if (shard.isPresent()) {
+            if (!shard.get().renders(page)) {
+                return;
+            }
+            shardPages.add(page);
+        }
+        if (incrementalManifest != null && incrementalManifest.reuse(context, shape)) {
+            if (previousPageDependencies != null) {
+                context.pageDependencies().keep(previousPageDependencies, page);
+            }
+            return;
+        }
+        // Spans are per-thread, so the measured generator is what gets submitted
+        // for parallel generation rather than being measured around submission.
+        // The same goes for recording the shapes the page reads.
+        Consumer<DocGenerationContext> measured = shapeContext -> metrics.timeShape(shape.getType(),
+                () -> shapeContext.pageDependencies().record(page, shape, () -> generator.accept(shapeContext)));
+        if (context.settings().parallel()) {
+            parallelGenerator.submit(context, shape, measured);
+        } else if (context.settings().streaming()) {
+            pageStreamer.render(context, interceptorDispatcher.interceptors(), measured);
+        } else {
+            measured.accept(context);
+        }
+    }
+
+    @Override
+    public void customizeBeforeIntegrations(CustomizeDirective<DocGenerationContext, DocSettings> directive) {
+        // Shapes aren't necessarily generated before the service. Recursive shapes,
+        // for instance, are generated after it. This is the first hook after every
+        // shape has been generated, so pages queued for parallel generation are
+        // rendered here, before integrations index them.
+        metrics.time("parallelRender",
+                () -> parallelGenerator.run(directive.context(), interceptorDispatcher.interceptors()));
+        if (shardMerger != null) {
+            // Pages have to be merged before integrations run so that they're indexed.
+            metrics.time("shard.merge", () -> shardMerger.merge(directive.context()));
+        }
+        // Integrations are run by the director between this and customizeAfterIntegrations,
+        // so this is the only way to measure them.
+        integrationsSpan = metrics.start("integrations");
+    }
+
+    @Override
+    public void customizeAfterIntegrations(CustomizeDirective<DocGenerationContext, DocSettings> directive) {
+        if (integrationsSpan != null) {
+            integrationsSpan.close();
+            integrationsSpan = null;
+        }
+        if (directive.context().symbolProvider() instanceof SymbolCache cache) {
+            LOGGER.fine(() -> format("Symbol cache served %d symbols and created %d.", cache.hits(), cache.misses()));
+        }
+        if (interceptorDispatcher != null) {
+            LOGGER.fine(() -> format("Interceptor dispatch avoided %d isIntercepted checks.",
+                    interceptorDispatcher.avoidedChecks()));
+        }
+        directive.context().interceptorProfiler().ifPresent(profiler -> {
+            LOGGER.info(profiler.report(PROFILE_REPORT_LIMIT));
+            metrics.addReport("interceptors", profiler);
+        });
+
+        if (directive.settings().pageDependencies()) {
+            directive.context().fileManifest().writeFile(PageDependencies.FILENAME,
+                    Node.prettyPrintJson(directive.context().pageDependencies().toNode()) + "\n");
+        }
+        if (directive.settings().isPartial()) {
+            ShardMerger.writeShardPages(directive.context().fileManifest(),
+                    directive.settings().shard().get(), shardPages);
+        }
+        if (incrementalManifest != null || writeIfChangedManifest != null || directive.settings().metrics()) {
+            // These all track what was written, so everything needs to be
+            // flushed before they can report on it.
+            metrics.time("flush", () -> directive.context().writerDelegator().flushWriters());
+        }
+        if (incrementalManifest != null) {
+            metrics.time("incremental.save",
+                    () -> incrementalManifest.save(directive.context().pageDependencies()));
+        }
+        if (writeIfChangedManifest != null) {
+            LOGGER.info(format("Wrote %d generated files, %d were unchanged.",
+                    writeIfChangedManifest.written(), writeIfChangedManifest.unchanged()));
+        }
     }
 }
@@ -5,16 +5,23 @@
 
 package software.amazon.smithy.docgen.core;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import software.amazon.smithy.build.FileManifest;
 import software.amazon.smithy.codegen.core.CodegenContext;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.codegen.core.SymbolWriter;
 import software.amazon.smithy.codegen.core.WriterDelegator;
 import software.amazon.smithy.docgen.core.DocSymbolProvider.FileExtensionDecorator;
+import software.amazon.smithy.docgen.core.DocSymbolProvider.SymbolCache;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.model.Model;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
 import software.amazon.smithy.utils.SmithyUnstableApi;
 
 /**
@@ -30,6 +37,14 @@ public final class DocGenerationContext implements CodegenContext<DocSettings, D
     private final WriterDelegator<DocWriter> writerDelegator;
     private final List<DocIntegration> docIntegrations;
     private final DocFormat docFormat;
+    private final KnowledgeRegistry knowledge;
+    private final DocMetrics metrics;
+    private final PageRegistry pages;
+    private final PageDependencies pageDependencies;
+
+    // Shared with copies so that the integrations' interceptors are only gathered once.
+    private final AtomicReference<InterceptorDispatcher> interceptors;
+    private final InterceptorProfiler interceptorProfiler;
 
     /**
      * Constructor.
@@ -46,8 +61,34 @@ public final class DocGenerationContext implements CodegenContext<DocSettings, D
             SymbolProvider symbolProvider,
             FileManifest fileManifest,
             List<DocIntegration> docIntegrations
+    ) {
+        this(model, docSettings, symbolProvider, fileManifest, docIntegrations, new DocMetrics());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param model The source model to generate for.
+     * @param docSettings Settings to customize generation.
+     * @param symbolProvider The symbol provider to use to turn shapes into symbols.
+     * @param fileManifest The file manifest to write to.
+     * @param docIntegrations A list of integrations to apply during generation.
+     * @param metrics The metrics to record generation phases to.
+     */
+    public DocGenerationContext(
+            Model model,
+            DocSettings docSettings,
+            SymbolProvider symbolProvider,
+            FileManifest fileManifest,
+            List<DocIntegration> docIntegrations,
+            DocMetrics metrics
     ) {
         this.model = model;
+        this.metrics = metrics;
+        this.pages = new PageRegistry();
+        this.pageDependencies = new PageDependencies();
+        this.interceptors = new AtomicReference<>();
+        this.interceptorProfiler = docSettings.profileInterceptors() ? new InterceptorProfiler() : null;
         this.docSettings = docSettings;
         this.fileManifest = fileManifest;
         this.docIntegrations = docIntegrations;
@@ -72,8 +113,43 @@ public final class DocGenerationContext implements CodegenContext<DocSettings, D
         }
 
         this.docFormat = resolvedFormat;
+
+        // The cache wraps every other decorator so that a shape's final symbol is
+        // only ever computed once.
+        symbolProvider = new SymbolCache(symbolProvider, id -> pageDependencies.read(model, id));
         this.symbolProvider = symbolProvider;
-        this.writerDelegator = new WriterDelegator<>(fileManifest, symbolProvider, resolvedFormat.writerFactory());
+        this.writerDelegator = new DispatchingWriterDelegator(
+                fileManifest, symbolProvider, resolvedFormat.writerFactory());
+        this.knowledge = new KnowledgeRegistry(model, docSettings.service());
+    }
+
+    private DocGenerationContext(DocGenerationContext parent, WriterDelegator<DocWriter> writerDelegator) {
+        this.model = parent.model;
+        this.docSettings = parent.docSettings;
+        this.symbolProvider = parent.symbolProvider;
+        this.fileManifest = parent.fileManifest;
+        this.docIntegrations = parent.docIntegrations;
+        this.docFormat = parent.docFormat;
+        this.knowledge = parent.knowledge;
+        this.metrics = parent.metrics;
+        this.pages = parent.pages;
+        this.pageDependencies = parent.pageDependencies;
+        this.interceptors = parent.interceptors;
+        this.interceptorProfiler = parent.interceptorProfiler;
+        this.writerDelegator = writerDelegator;
+    }
+
+    /**
+     * Creates a copy of this context that writes to a different writer delegator.
+     *
+     * <p>This is used to render pages in isolation so that they can later be merged
+     * into the primary writer delegator.
+     *
+     * @param writerDelegator The writer delegator the copy should write to.
+     * @return returns a copy of the context using the given writer delegator.
+     */
+    DocGenerationContext withWriterDelegator(WriterDelegator<DocWriter> writerDelegator) {
+        return new DocGenerationContext(this, writerDelegator);
     }
 
     @Override
@@ -112,4 +188,105 @@ public final class DocGenerationContext implements CodegenContext<DocSettings, D
     public DocFormat docFormat() {
         return this.docFormat;
     }
+
+    /**
+     * Gets the precomputed knowledge about the model and service.
+     *
+     * <p>Generators and interceptors should prefer this over creating knowledge
+     * indexes themselves, particularly in code that runs for every shape or member.
+     *
+     * @return Returns the registry of precomputed knowledge indexes.
+     */
+    public KnowledgeRegistry knowledge() {
+        return this.knowledge;
+    }
+
+    /**
+     * Checks whether any of the integrations' interceptors will intercept a section.
+     *
+     * <p>This lets generators find out whether a section will have any content
+     * before writing anything around it, such as a tab that would otherwise be
+     * left empty. Nothing is written by checking.
+     *
+     * @param section The section to check.
+     * @return Returns true if at least one interceptor intercepts the section.
+     */
+    public boolean isIntercepted(CodeSection section) {
+        var dispatcher = interceptors.get();
+        if (dispatcher == null) {
+            List<CodeInterceptor<? extends CodeSection, DocWriter>> found = new ArrayList<>();
+            for (var integration : docIntegrations) {
+                found.addAll(integration.interceptors(this));
+            }
+            interceptors.compareAndSet(null, new InterceptorDispatcher(found));
+            dispatcher = interceptors.get();
+        }
+        return dispatcher.isIntercepted(section);
+    }
+
+    /**
+     * @return returns the dispatcher for the interceptors registered with the
+     *   writer delegator, or null if none have been registered yet.
+     */
+    InterceptorDispatcher interceptorDispatcher() {
+        return interceptors.get();
+    }
+
+    /**
+     * @return returns the profiler that registered interceptors are wrapped with,
+     *   if interceptors are being profiled.
+     */
+    Optional<InterceptorProfiler> interceptorProfiler() {
+        return Optional.ofNullable(interceptorProfiler);
+    }
+
+    /**
+     * @return Returns the metrics that generation phases are recorded to.
+     */
+    public DocMetrics metrics() {
+        return this.metrics;
+    }
+
+    /**
+     * @return Returns the registry of pages that were written as soon as they were complete.
+     */
+    public PageRegistry pages() {
+        return this.pages;
+    }
+
+    /**
+     * @return Returns the shapes that each page read while it was rendered.
+     */
+    public PageDependencies pageDependencies() {
+        return this.pageDependencies;
+    }
+
+    /**
+     * Dispatches the interceptors that are registered with it.
+     *
+     * <p>The director gathers every integration's interceptors once and registers
+     * them here, so that's where they're grouped for dispatch and, if enabled,
+     * profiled. Scoped interceptors are then only consulted for the shapes they
+     * apply to.
+     */
+    private final class DispatchingWriterDelegator extends WriterDelegator<DocWriter> {
+        DispatchingWriterDelegator(
+                FileManifest fileManifest,
+                SymbolProvider symbolProvider,
+                SymbolWriter.Factory<DocWriter> factory
+        ) {
+            super(fileManifest, symbolProvider, factory);
+        }
+
+        @Override
+        public void setInterceptors(List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors) {
+            // Interceptors are profiled individually, so they're wrapped before
+            // they're grouped.
+            var dispatcher = new InterceptorDispatcher(interceptorProfiler == null
+                    ? interceptors
+                    : interceptorProfiler.wrap(interceptors));
+            DocGenerationContext.this.interceptors.set(dispatcher);
+            super.setInterceptors(dispatcher.interceptors());
+        }
+    }
 }
@@ -35,4 +35,17 @@ public interface DocIntegration extends SmithyIntegration<DocSettings, DocWriter
     default List<DocFormat> docFormats(DocSettings settings) {
         return List.of();
     }
+
+    /**
+     * Called once the generation context is created, before any shapes are generated.
+     *
+     * <p>Integrations can use this to start work that doesn't depend on the
+     * generated pages, such as setting up external build tools, so that it runs
+     * alongside page generation rather than after it. Any such work should be
+     * waited on in {@link #customize}.
+     *
+     * @param context The documentation generation context.
+     */
+    default void beforeShapeGeneration(DocGenerationContext context) {
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.node.ToNode;
+import software.amazon.smithy.model.shapes.ShapeType;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+
+/**
+ * Records how much time and memory documentation generation spends in each phase.
+ *
+ * <p>For each named phase, this records how many times it ran along with the
+ * cumulative wall time, CPU time, and bytes allocated by the thread running it.
+ * Shape pages are additionally recorded by the type of shape being documented.
+ * Phases may be nested, so their totals are not necessarily additive.
+ *
+ * <p>CPU time and allocated bytes are measured for the current thread, and are
+ * reported as -1 if the JVM doesn't support measuring them.
+ *
+ * <p>Integrations may record their own phases using {@link #start} or
+ * {@link #time}. The metrics are written to {@link #FILENAME} in the output
+ * directory when the {@code metrics} setting is enabled.
+ */
+@SmithyUnstableApi
+public final class DocMetrics implements ToNode {
+    /**
+     * The name of the file that metrics are written to.
+     */
+    public static final String FILENAME = "docgen-metrics.json";
+
+    private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final Map<String, Stats> phases = new ConcurrentHashMap<>();
+    private final Map<ShapeType, Stats> shapeTypes = new ConcurrentHashMap<>();
+    private final Map<String, ToNode> reports = new ConcurrentHashMap<>();
+
+    /**
+     * Starts measuring a phase.
+     *
+     * <p>The returned span must be closed on the same thread that started it.
+     *
+     * @param phase The name of the phase to measure.
+     * @return returns a span that records the phase when closed.
+     */
+    public Span start(String phase) {
+        return new Span(phases.computeIfAbsent(phase, p -> new Stats()));
+    }
+
+    /**
+     * Starts measuring the generation of a shape's documentation.
+     *
+     * <p>The returned span must be closed on the same thread that started it.
+     *
+     * @param shapeType The type of shape being documented.
+     * @return returns a span that records the shape generation when closed.
+     */
+    public Span startShape(ShapeType shapeType) {
+        return new Span(shapeTypes.computeIfAbsent(shapeType, t -> new Stats()));
+    }
+
+    /**
+     * Measures a phase that runs the given task.
+     *
+     * @param phase The name of the phase to measure.
+     * @param task The task to run.
+     */
+    public void time(String phase, Runnable task) {
+        var span = start(phase);
+        try {
+            task.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Measures a phase that runs the given task.
+     *
+     * @param phase The name of the phase to measure.
+     * @param task The task to run.
+     * @param <T> The type of value returned by the task.
+     * @return returns the value returned by the task.
+     */
+    public <T> T time(String phase, Supplier<T> task) {
+        var span = start(phase);
+        try {
+            return task.get();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Measures the generation of a shape's documentation by running the given task.
+     *
+     * @param shapeType The type of shape being documented.
+     * @param task The task that documents the shape.
+     */
+    public void timeShape(ShapeType shapeType, Runnable task) {
+        var span = startShape(shapeType);
+        try {
+            task.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Adds a report to include alongside the recorded phases.
+     *
+     * <p>The report is serialized when the metrics are, so it may continue to
+     * change until then.
+     *
+     * @param name The name of the report.
+     * @param report The report to include.
+     */
+    public void addReport(String name, ToNode report) {
+        reports.put(name, report);
+    }
+
+    @Override
+    public Node toNode() {
+        var phasesNode = ObjectNode.builder();
+        new TreeMap<>(phases).forEach((name, stats) -> phasesNode.withMember(name, stats.toNode()));
+        var shapeTypesNode = ObjectNode.builder();
+        new TreeMap<>(shapeTypes).forEach((type, stats) -> shapeTypesNode.withMember(type.toString(), stats.toNode()));
+        var reportsNode = ObjectNode.builder();
+        new TreeMap<>(reports).forEach((name, report) -> reportsNode.withMember(name, report.toNode()));
+        return Node.objectNodeBuilder()
+                .withMember("phases", phasesNode.build())
+                .withMember("shapeTypes", shapeTypesNode.build())
+                .withMember("reports", reportsNode.build())
+                .build();
+    }
+
+    private static long currentCpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long currentAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * A measurement in progress.
+     */
+    public static final class Span implements AutoCloseable {
+        private final Stats stats;
+        private final long startWall;
+        private final long startCpu;
+        private final long startAllocated;
+
+        private Span(Stats stats) {
+            this.stats = stats;
+            this.startWall = System.nanoTime();
+            this.startCpu = currentCpuTime();
+            this.startAllocated = currentAllocatedBytes();
+        }
+
+        /**
+         * Stops measuring and records the results.
+         */
+        @Override
+        public void close() {
+            var cpu = startCpu < 0 ? -1 : currentCpuTime() - startCpu;
+            var allocated = startAllocated < 0 ? -1 : currentAllocatedBytes() - startAllocated;
+            stats.record(System.nanoTime() - startWall, cpu, allocated);
+        }
+    }
+
+    private static final class Stats implements ToNode {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private volatile boolean cpuUnsupported;
+        private volatile boolean allocationUnsupported;
+
+        void record(long wall, long cpu, long allocated) {
+            count.increment();
+            wallNanos.add(wall);
+            if (cpu < 0) {
+                cpuUnsupported = true;
+            } else {
+                cpuNanos.add(cpu);
+            }
+            if (allocated < 0) {
+                allocationUnsupported = true;
+            } else {
+                allocatedBytes.add(allocated);
+            }
+        }
+
+        @Override
+        public Node toNode() {
+            return Node.objectNodeBuilder()
+                    .withMember("count", Node.from(count.sum()))
+                    .withMember("wallNanos", Node.from(wallNanos.sum()))
+                    .withMember("cpuNanos", Node.from(cpuUnsupported ? -1 : cpuNanos.sum()))
+                    .withMember("allocatedBytes", Node.from(allocationUnsupported ? -1 : allocatedBytes.sum()))
+                    .build();
+        }
+    }
+}
@@ -7,6 +7,7 @@ package software.amazon.smithy.docgen.core;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import software.amazon.smithy.model.node.ObjectNode;
 import software.amazon.smithy.model.shapes.ShapeId;
@@ -22,9 +23,53 @@ import software.amazon.smithy.utils.SmithyUnstableApi;
  *     when generating links for the
  *     <a href="https://smithy.io/2.0/spec/resource-traits.html#references-trait">references trait</a>
  *     for resources that are not contained within the model.
+ * @param parallel Whether to render shape pages concurrently. Pages are partitioned
+ *     by their definition file and rendered on a dedicated thread pool once every
+ *     shape has been generated, then merged into the context's writer delegator in
+ *     a deterministic order, before integrations are run. Interceptors provided by integrations MUST be thread-safe when this is enabled.
+ *     The default is false.
+ * @param incremental Whether to skip regenerating pages whose inputs haven't changed
+ *     since the last run. A manifest of page input hashes and output file hashes is
+ *     stored in the output directory, and files whose contents are unchanged are not
+ *     rewritten. Interceptors are assumed to only depend on the documented shape's
+ *     closure, the service, and these settings. The default is false.
+ * @param writeIfChanged Whether to only write generated files whose contents differ
+ *     from what is already on disk. Unchanged files keep their modification times,
+ *     so downstream builds like sphinx-build can skip them. The default is false.
+ * @param metrics Whether to write a {@link DocMetrics#FILENAME} file to the output
+ *     directory with the wall time, CPU time, and allocated bytes of each phase of
+ *     generation. The default is false.
+ * @param profileInterceptors Whether to record how often each interceptor is
+ *     consulted and how long it takes, and report the most expensive interceptors
+ *     at the end of generation. The default is false.
+ * @param streaming Whether to write each shape page to the file manifest as soon
+ *     as it's complete and discard its writer, rather than holding every page in
+ *     memory until the end of generation. Written pages are recorded in the
+ *     {@link PageRegistry}, and must not be written to again. When combined with
+ *     {@link #parallel}, each partition's pages are written as soon as the partition
+ *     is rendered, rather than once every partition is. The default is false.
+ * @param pageDependencies Whether to write a {@link PageDependencies#FILENAME} file to
+ *     the output directory that records which shapes were read while rendering each
+ *     page. This can be used to find the pages affected by a change to the model.
+ *     The default is false.
+ * @param shard Settings for rendering one shard of the service's pages, or for
+ *     merging shards that were rendered separately. See {@link DocShard}. By
+ *     default, every page is rendered in one run.
  */
 @SmithyUnstableApi
-public record DocSettings(ShapeId service, String format, Map<ShapeId, String> references) {
+public record DocSettings(
+        ShapeId service,
+        String format,
+        Map<ShapeId, String> references,
+        boolean parallel,
+        boolean incremental,
+        boolean writeIfChanged,
+        boolean metrics,
+        boolean profileInterceptors,
+        boolean streaming,
+        boolean pageDependencies,
+        Optional<DocShard> shard
+) {
 
     /**
      * Settings for documentation generation. These can be set in the
@@ -36,6 +81,18 @@ public record DocSettings(ShapeId service, String format, Map<ShapeId, String> r
     public DocSettings {
         Objects.requireNonNull(service);
         Objects.requireNonNull(format);
+        Objects.requireNonNull(shard);
+    }
+
+    /**
+     * Settings for documentation generation with serial, non-incremental page rendering.
+     *
+     * @param service The shape id of the service to generate documentation for.
+     * @param format The format to generate documentation in.
+     * @param references A mapping of external resources to their documentation URIs.
+     */
+    public DocSettings(ShapeId service, String format, Map<ShapeId, String> references) {
+        this(service, format, references, false, false, false, false, false, false, false, Optional.empty());
     }
 
     /**
@@ -53,7 +110,28 @@ public record DocSettings(ShapeId service, String format, Map<ShapeId, String> r
         return new DocSettings(
                 pluginSettings.expectStringMember("service").expectShapeId(),
                 pluginSettings.getStringMemberOrDefault("format", "sphinx-markdown"),
-                references
+                references,
+                pluginSettings.getBooleanMemberOrDefault("parallel", false),
+                pluginSettings.getBooleanMemberOrDefault("incremental", false),
+                pluginSettings.getBooleanMemberOrDefault("writeIfChanged", false),
+                pluginSettings.getBooleanMemberOrDefault("metrics", false),
+                pluginSettings.getBooleanMemberOrDefault("profileInterceptors", false),
+                pluginSettings.getBooleanMemberOrDefault("streaming", false),
+                pluginSettings.getBooleanMemberOrDefault("pageDependencies", false),
+                pluginSettings.getObjectMember("shard").map(DocShard::fromNode)
         );
     }
+
+    /**
+     * Checks whether this run renders only some of the service's pages.
+     *
+     * <p>Integrations that write files covering the whole site, like indexes,
+     * should skip them when this is true, since they'll be written when the
+     * shards are merged.
+     *
+     * @return returns true if this run renders a single shard.
+     */
+    public boolean isPartial() {
+        return shard.isPresent() && !shard.get().merge();
+    }
 }
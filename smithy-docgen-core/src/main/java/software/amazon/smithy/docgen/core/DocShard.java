@@ -0,0 +1,139 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static java.lang.String.format;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.zip.CRC32;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+
+/**
+ * Settings for splitting documentation generation across several processes.
+ *
+ * <p>Each shape page is assigned to one of {@link #count} shards by a stable hash
+ * of its definition file, so every process generating the same model with the
+ * same settings agrees on which shard owns each page. A shard run renders only
+ * the pages it owns, and records them in a {@code docgen-shard-<index>.json} file
+ * in its output directory. Files that cover the whole site, such as the service
+ * page and the indexes and project files written by integrations, are left to the
+ * merge run.
+ *
+ * <p>The merge run renders no shape pages. It copies the output of each shard
+ * from its {@link #directories}, if any are given, and otherwise expects the
+ * shards to have been written to its own output directory. It then checks that
+ * every page is rendered by exactly one shard before writing the service page
+ * and letting integrations write their site-wide files over the merged pages.
+ *
+ * <p>These settings are set under the {@code shard} key of the plugin settings.
+ * The following shows the settings for the second of four shards, and for the
+ * run that merges them.
+ *
+ * <pre>{@code
+ * "shard": {"index": 1, "count": 4}
+ *
+ * "shard": {"count": 4, "merge": true, "directories": ["shard-0", "shard-1", "shard-2", "shard-3"]}
+ * }</pre>
+ *
+ * @param index The shard to render, from zero to one less than {@link #count}.
+ *     This isn't set when merging.
+ * @param count The number of shards pages are split between.
+ * @param merge Whether this run merges the shards rather than rendering one.
+ * @param directories The output directories of the shards to copy into the
+ *     merged output. Relative paths are resolved against the working directory.
+ */
+@SmithyUnstableApi
+public record DocShard(int index, int count, boolean merge, List<Path> directories) {
+    /**
+     * The prefix of the files that each shard records its pages in.
+     */
+    public static final String FILENAME_PREFIX = "docgen-shard-";
+
+    /**
+     * Validates the shard settings.
+     */
+    public DocShard {
+        directories = List.copyOf(directories);
+        if (count < 1) {
+            throw new CodegenException(format(
+                    "Expected docgen shard `count` to be a positive integer, but found %d", count));
+        }
+        if (!merge && (index < 0 || index >= count)) {
+            throw new CodegenException(format(
+                    "Expected docgen shard `index` to be between 0 and %d, but found %d", count - 1, index));
+        }
+        if (!merge && !directories.isEmpty()) {
+            throw new CodegenException("The docgen shard `directories` setting can only be set when merging.");
+        }
+    }
+
+    /**
+     * Finds the shard that owns a page.
+     *
+     * @param page The page's definition file.
+     * @param count The number of shards.
+     * @return returns the index of the shard that renders the page.
+     */
+    public static int owner(String page, int count) {
+        // String.hashCode would also be stable, but it spreads similar paths like
+        // Operation1 and Operation2 poorly over small shard counts.
+        var crc = new CRC32();
+        crc.update(page.replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % count);
+    }
+
+    /**
+     * Checks whether this shard renders a page.
+     *
+     * @param page The page's definition file.
+     * @return returns true if this isn't a merge and the page belongs to this shard.
+     */
+    public boolean renders(String page) {
+        return !merge && owner(page, count) == index;
+    }
+
+    /**
+     * @return returns the name of the file this shard records its pages in.
+     */
+    public String filename() {
+        return filename(index);
+    }
+
+    /**
+     * Gets the name of the file that a shard records its pages in.
+     *
+     * @param index The index of the shard.
+     * @return returns the name of the shard's file.
+     */
+    public static String filename(int index) {
+        return FILENAME_PREFIX + index + ".json";
+    }
+
+    /**
+     * Load the settings from an {@code ObjectNode}.
+     *
+     * @param node the {@code ObjectNode} to load settings from.
+     * @return loaded settings based on the given node.
+     */
+    public static DocShard fromNode(ObjectNode node) {
+        var merge = node.getBooleanMemberOrDefault("merge", false);
+        List<Path> directories = List.of();
+        if (node.containsMember("directories")) {
+            directories = node.expectArrayMember("directories").getElementsAs(
+                    element -> Paths.get(element.expectStringNode().getValue()));
+        }
+        return new DocShard(
+                merge ? -1 : node.expectNumberMember("index").getValue().intValue(),
+                node.expectNumberMember("count").getValue().intValue(),
+                merge,
+                directories);
+    }
+}
@@ -11,8 +11,11 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 import software.amazon.smithy.codegen.core.Symbol;
 import software.amazon.smithy.codegen.core.SymbolProvider;
 import software.amazon.smithy.model.Model;
@@ -132,6 +135,7 @@ public final class DocSymbolProvider extends ShapeVisitor.Default<Symbol> implem
 
     private static final Logger LOGGER = Logger.getLogger(DocSymbolProvider.class.getName());
     private static final String SERVICE_FILE = "index";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
     private final Model model;
     private final DocSettings docSettings;
@@ -231,16 +235,16 @@ public final class DocSymbolProvider extends ShapeVisitor.Default<Symbol> implem
 
     @Override
     public Symbol memberShape(MemberShape shape) {
+        var container = model.expectShape(shape.getId().withoutMember());
         var builder = getSymbolBuilder(shape)
-                .definitionFile(getDefinitionFile(serviceShape, model.expectShape(shape.getId().withoutMember())));
-
-        Optional<String> containerLinkId = model.expectShape(shape.getContainer())
-                .accept(this)
-                .getProperty(LINK_ID_PROPERTY, String.class);
-        if (containerLinkId.isPresent()) {
-            var linkId = containerLinkId.get() + "-" + getLinkId(getShapeName(serviceShape, shape));
-            builder.putProperty(LINK_ID_PROPERTY, linkId);
-        }
+                .definitionFile(getDefinitionFile(serviceShape, container));
+
+        // Every symbol this provider creates has a link id derived from its name, so
+        // the container's link id can be computed directly rather than building the
+        // container's entire symbol.
+        var containerLinkId = getLinkId(getShapeName(serviceShape, container));
+        var linkId = containerLinkId + "-" + getLinkId(getShapeName(serviceShape, shape));
+        builder.putProperty(LINK_ID_PROPERTY, linkId);
         return builder.build();
     }
 
@@ -259,7 +263,7 @@ public final class DocSymbolProvider extends ShapeVisitor.Default<Symbol> implem
     }
 
     private String getDefinitionFile(ServiceShape serviceShape, Shape shape) {
-        var path = getShapeName(serviceShape, shape).replaceAll("\\s+", "");
+        var path = WHITESPACE.matcher(getShapeName(serviceShape, shape)).replaceAll("");
         if (shape.isResourceShape()) {
             path = "resources/" + path;
         } else if (shape.isOperationShape()) {
@@ -288,7 +292,7 @@ public final class DocSymbolProvider extends ShapeVisitor.Default<Symbol> implem
     }
 
     private String getLinkId(String shapeName) {
-        return shapeName.toLowerCase(Locale.ENGLISH).replaceAll("\\s+", "-");
+        return WHITESPACE.matcher(shapeName.toLowerCase(Locale.ENGLISH)).replaceAll("-");
     }
 
     // All other shapes don't get generation, so we'll do null checks where this might
@@ -343,4 +347,76 @@ public final class DocSymbolProvider extends ShapeVisitor.Default<Symbol> implem
             return wrapped.toMemberName(shape);
         }
     }
+
+    /**
+     * Caches the symbols created by a wrapped symbol provider.
+     *
+     * <p>Symbols are cached by shape id, so each shape's symbol is computed at most
+     * once per generation run. This is safe to use concurrently.
+     */
+    public static final class SymbolCache implements SymbolProvider {
+        private final SymbolProvider wrapped;
+        private final Consumer<ShapeId> onLookup;
+        private final Map<ShapeId, Symbol> symbols = new ConcurrentHashMap<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        /**
+         * Constructor.
+         * @param wrapped The symbol provider to wrap.
+         */
+        public SymbolCache(SymbolProvider wrapped) {
+            this.wrapped = Objects.requireNonNull(wrapped);
+            this.onLookup = null;
+        }
+
+        /**
+         * Constructor.
+         * @param wrapped The symbol provider to wrap.
+         * @param onLookup Called with the id of every shape a symbol or member name
+         *   is requested for, whether or not it was cached.
+         */
+        public SymbolCache(SymbolProvider wrapped, Consumer<ShapeId> onLookup) {
+            this.wrapped = Objects.requireNonNull(wrapped);
+            this.onLookup = Objects.requireNonNull(onLookup);
+        }
+
+        @Override
+        public Symbol toSymbol(Shape shape) {
+            if (onLookup != null) {
+                onLookup.accept(shape.getId());
+            }
+            var symbol = symbols.get(shape.getId());
+            if (symbol != null) {
+                hits.increment();
+                return symbol;
+            }
+            misses.increment();
+            symbol = wrapped.toSymbol(shape);
+            var existing = symbols.putIfAbsent(shape.getId(), symbol);
+            return existing != null ? existing : symbol;
+        }
+
+        @Override
+        public String toMemberName(MemberShape shape) {
+            if (onLookup != null) {
+                onLookup.accept(shape.getId());
+            }
+            return wrapped.toMemberName(shape);
+        }
+
+        /**
+         * @return returns the number of symbols that were served from the cache.
+         */
+        public long hits() {
+            return hits.sum();
+        }
+
+        /**
+         * @return returns the number of symbols that had to be created.
+         */
+        public long misses() {
+            return misses.sum();
+        }
+    }
 }
@@ -0,0 +1,372 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.validation.Severity;
+import software.amazon.smithy.utils.SmithyBuilder;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+
+/**
+ * Regenerates documentation each time the model it's generated from changes.
+ *
+ * <p>The watcher runs the docgen plugin in the current JVM for as long as it's
+ * open, so everything that doesn't depend on the model's own sources is only set
+ * up once: integrations are discovered once and instantiated fresh for each
+ * build, and models discovered on the class path, such as trait definitions
+ * from dependencies, are assembled once and merged into each build. Source files
+ * are kept in memory, and only files that a change event was reported for are
+ * read again. Documentation is generated with the {@code incremental} and
+ * {@code writeIfChanged} settings enabled, so only pages whose shapes changed are
+ * rendered and written.
+ *
+ * <p>If the model fails to validate, the errors are logged and the previously
+ * generated documentation is left alone until the next change.
+ *
+ * <p>The watcher can also be run from the command line, with the path to a JSON
+ * file containing the plugin settings, the output directory, and one or more
+ * model files or directories:
+ *
+ * <pre>{@code
+ * java -cp <classpath> software.amazon.smithy.docgen.core.DocWatcher \
+ *     docgen-settings.json build/docs model/
+ * }</pre>
+ */
+@SmithyUnstableApi
+public final class DocWatcher implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(DocWatcher.class.getName());
+
+    // Editors often save a file in several steps, so events are collected until
+    // they've stopped arriving for this long before regenerating.
+    private static final Duration SETTLE_TIME = Duration.ofMillis(100);
+
+    private final List<Path> sources;
+    private final Path outputDirectory;
+    private final ObjectNode settings;
+    private final ClassLoader classLoader;
+    private final SmithyDocPlugin plugin;
+    private final Model dependencies;
+    private final Map<Path, String> sourceContents = new TreeMap<>();
+    private final WatchService watchService;
+
+    private DocWatcher(Builder builder) {
+        this.sources = builder.sources.stream().map(path -> path.toAbsolutePath().normalize()).toList();
+        this.outputDirectory = SmithyBuilder.requiredState("outputDirectory", builder.outputDirectory);
+        this.settings = SmithyBuilder.requiredState("settings", builder.settings)
+                .withMember("incremental", true)
+                .withMember("writeIfChanged", true);
+        this.classLoader = builder.classLoader;
+        if (sources.isEmpty()) {
+            throw new IllegalStateException("At least one model source must be watched.");
+        }
+
+        var integrations = ServiceLoader.load(DocIntegration.class, classLoader).stream().toList();
+        this.plugin = new SmithyDocPlugin(() -> integrations.stream().map(ServiceLoader.Provider::get).toList());
+        this.dependencies = Model.assembler(classLoader).discoverModels(classLoader).assemble().unwrap();
+
+        // Sources are only read once they're watched, so that a change made while
+        // they're being read is still reported.
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            for (var source : sources) {
+                if (Files.isDirectory(source)) {
+                    registerDirectories(source);
+                } else {
+                    source.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                }
+            }
+            for (var path : findSourceFiles()) {
+                sourceContents.put(path, read(path));
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return returns a builder used to create a watcher.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Generates documentation from the current contents of the model sources.
+     *
+     * @return returns true if documentation was generated, or false if the model
+     *   failed to validate.
+     */
+    public boolean generate() {
+        var start = System.nanoTime();
+        var assembler = Model.assembler(classLoader).addModel(dependencies);
+        sourceContents.forEach((path, contents) -> assembler.addUnparsedModel(path.toString(), contents));
+        var result = assembler.assemble();
+        if (result.isBroken()) {
+            for (var event : result.getValidationEvents(Severity.ERROR)) {
+                LOGGER.severe(event.toString());
+            }
+            LOGGER.warning("The model is invalid, so documentation was not regenerated.");
+            return false;
+        }
+
+        plugin.execute(PluginContext.builder()
+                .fileManifest(FileManifest.create(outputDirectory))
+                .model(result.unwrap())
+                .settings(settings)
+                .pluginClassLoader(classLoader)
+                .build());
+        LOGGER.info(() -> format("Generated documentation in %d ms.",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return true;
+    }
+
+    /**
+     * Generates documentation, then regenerates it each time a model source changes.
+     *
+     * <p>This blocks until the watcher is closed or the thread is interrupted.
+     */
+    public void watch() {
+        regenerate();
+        try {
+            while (true) {
+                Set<Path> changed = new HashSet<>();
+                var key = watchService.take();
+                while (key != null) {
+                    collectChanges(key, changed);
+                    key = watchService.poll(SETTLE_TIME.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (reload(changed)) {
+                    regenerate();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.fine("Stopped watching for model changes.");
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void regenerate() {
+        try {
+            generate();
+        } catch (RuntimeException e) {
+            // A failed build shouldn't stop the watcher, since the next change may fix it.
+            LOGGER.severe("Failed to generate documentation: " + e);
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changed) {
+        var directory = (Path) key.watchable();
+        for (var event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // Some events were dropped, so every source has to be checked.
+                changed.addAll(sourceContents.keySet());
+                changed.addAll(findSourceFiles());
+                continue;
+            }
+            var path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                registerDirectories(path);
+                changed.addAll(findSourceFiles());
+            } else if (isSource(path)) {
+                changed.add(path);
+            }
+        }
+        key.reset();
+    }
+
+    private boolean reload(Set<Path> changed) {
+        var reloaded = false;
+        for (var path : changed) {
+            if (!Files.isRegularFile(path)) {
+                reloaded |= sourceContents.remove(path) != null;
+                continue;
+            }
+            var contents = read(path);
+            if (!contents.equals(sourceContents.put(path, contents))) {
+                LOGGER.fine(() -> "Reloading " + path);
+                reloaded = true;
+            }
+        }
+        return reloaded;
+    }
+
+    private List<Path> findSourceFiles() {
+        List<Path> files = new ArrayList<>();
+        for (var source : sources) {
+            if (!Files.isDirectory(source)) {
+                files.add(source);
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(source)) {
+                paths.filter(Files::isRegularFile).filter(this::isSource).forEach(files::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return files;
+    }
+
+    private boolean isSource(Path path) {
+        for (var source : sources) {
+            if (path.equals(source)) {
+                return true;
+            }
+            if (path.startsWith(source)) {
+                var name = path.getFileName().toString();
+                return name.endsWith(".smithy") || name.endsWith(".json");
+            }
+        }
+        return false;
+    }
+
+    private void registerDirectories(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (var directory : paths.filter(Files::isDirectory).toList()) {
+                directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String read(Path path) {
+        try {
+            return Files.readString(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Watches model sources and regenerates documentation when they change.
+     *
+     * @param args The path to a JSON file containing the plugin settings, the
+     *   directory to write documentation to, and the model files or directories
+     *   to watch.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            throw new IllegalArgumentException(
+                    "Expected arguments: <settings file> <output directory> <model source>...");
+        }
+        ObjectNode settings;
+        try {
+            settings = Node.parse(Files.readString(Path.of(args[0]))).expectObjectNode();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        var builder = builder().settings(settings).outputDirectory(Path.of(args[1]));
+        for (var i = 2; i < args.length; i++) {
+            builder.addSource(Path.of(args[i]));
+        }
+        try (var watcher = builder.build()) {
+            watcher.watch();
+        }
+    }
+
+    /**
+     * Builds a {@link DocWatcher}.
+     */
+    public static final class Builder implements SmithyBuilder<DocWatcher> {
+        private final List<Path> sources = new ArrayList<>();
+        private Path outputDirectory;
+        private ObjectNode settings;
+        private ClassLoader classLoader = DocWatcher.class.getClassLoader();
+
+        private Builder() {}
+
+        @Override
+        public DocWatcher build() {
+            return new DocWatcher(this);
+        }
+
+        /**
+         * @param source A model file, or a directory of model files, to watch.
+         * @return returns the builder.
+         */
+        public Builder addSource(Path source) {
+            this.sources.add(Objects.requireNonNull(source));
+            return this;
+        }
+
+        /**
+         * @param outputDirectory The directory to write documentation to.
+         * @return returns the builder.
+         */
+        public Builder outputDirectory(Path outputDirectory) {
+            this.outputDirectory = Objects.requireNonNull(outputDirectory);
+            return this;
+        }
+
+        /**
+         * @param settings The docgen plugin settings, as they would be set in
+         *   {@code smithy-build.json}.
+         * @return returns the builder.
+         */
+        public Builder settings(ObjectNode settings) {
+            this.settings = Objects.requireNonNull(settings);
+            return this;
+        }
+
+        /**
+         * @param classLoader The class loader used to discover integrations and
+         *   model dependencies. Defaults to the class loader that loaded this class.
+         * @return returns the builder.
+         */
+        public Builder classLoader(ClassLoader classLoader) {
+            this.classLoader = Objects.requireNonNull(classLoader);
+            return this;
+        }
+    }
+}
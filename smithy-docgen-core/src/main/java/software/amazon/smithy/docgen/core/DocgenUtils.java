@@ -7,17 +7,15 @@ package software.amazon.smithy.docgen.core;
 
 import static java.lang.String.format;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.logging.Logger;
 import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.Symbol;
 import software.amazon.smithy.model.Model;
@@ -34,53 +32,69 @@ import software.amazon.smithy.utils.StringUtils;
 @SmithyUnstableApi
 public final class DocgenUtils {
 
-    private static final Logger LOGGER = Logger.getLogger(DocgenUtils.class.getName());
-
     private DocgenUtils() {}
 
     /**
      * Executes a given shell command in a given directory.
      *
+     * <p>The command is run through {@code sh -c}, or {@code cmd.exe /c} on Windows.
+     * Prefer {@link #runCommand(List, Path)} or {@link CommandRunner}, which run
+     * commands directly without needing their arguments to be quoted.
+     *
      * @param command The string command to execute, e.g. "sphinx-build".
      * @param directory The directory to run the command in.
      * @return Returns the console output of the command.
      */
     public static String runCommand(String command, Path directory) {
-        String[] finalizedCommand;
+        List<String> finalizedCommand;
         if (System.getProperty("os.name").toLowerCase().startsWith("windows")) {
-            finalizedCommand = new String[]{"cmd.exe", "/c", command};
+            finalizedCommand = List.of("cmd.exe", "/c", command);
         } else {
-            finalizedCommand = new String[]{"sh", "-c", command};
+            finalizedCommand = List.of("sh", "-c", command);
         }
+        return runCommand(finalizedCommand, directory);
+    }
 
-        ProcessBuilder processBuilder = new ProcessBuilder(finalizedCommand)
-                .redirectErrorStream(true)
-                .directory(directory.toFile());
-
-        try {
-            Process process = processBuilder.start();
-            List<String> output = new ArrayList<>();
-
-            // Capture output for reporting.
-            try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
-                process.getInputStream(), Charset.defaultCharset()))) {
-                String line;
-                while ((line = bufferedReader.readLine()) != null) {
-                    LOGGER.finest(line);
-                    output.add(line);
-                }
-            }
+    /**
+     * Executes a command in a given directory and returns its output.
+     *
+     * <p>The command is run directly rather than through a shell. To set a timeout
+     * or stream the command's output, use {@link CommandRunner}.
+     *
+     * @param command The program to run, followed by its arguments.
+     * @param directory The directory to run the command in.
+     * @return Returns the console output of the command.
+     */
+    public static String runCommand(List<String> command, Path directory) {
+        return CommandRunner.builder()
+                .command(command)
+                .directory(directory)
+                .captureOutput(true)
+                .build()
+                .run();
+    }
 
-            process.waitFor();
-            process.destroy();
+    /**
+     * Computes the hex-encoded SHA-256 digest of some text.
+     *
+     * @param text The text to hash. It is encoded as UTF-8 before hashing.
+     * @return Returns the hex-encoded digest of the text.
+     */
+    public static String sha256(String text) {
+        return sha256(text.getBytes(StandardCharsets.UTF_8));
+    }
 
-            String joinedOutput = String.join(System.lineSeparator(), output);
-            if (process.exitValue() != 0) {
-                throw new CodegenException(format(
-                    "Command `%s` failed with output:%n%n%s", command, joinedOutput));
-            }
-            return joinedOutput;
-        } catch (InterruptedException | IOException e) {
+    /**
+     * Computes the hex-encoded SHA-256 digest of some bytes.
+     *
+     * @param bytes The bytes to hash.
+     * @return Returns the hex-encoded digest of the bytes.
+     */
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
             throw new CodegenException(e);
         }
     }
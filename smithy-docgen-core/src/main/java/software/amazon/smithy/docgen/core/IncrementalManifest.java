@@ -0,0 +1,508 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static java.lang.String.format;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.knowledge.NeighborProviderIndex;
+import software.amazon.smithy.model.neighbor.NeighborProvider;
+import software.amazon.smithy.model.neighbor.RelationshipDirection;
+import software.amazon.smithy.model.neighbor.Walker;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.OperationShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ToShapeId;
+import software.amazon.smithy.model.traits.InputTrait;
+import software.amazon.smithy.model.traits.OutputTrait;
+import software.amazon.smithy.utils.IoUtils;
+
+/**
+ * Tracks what each page was generated from so that unchanged pages can be skipped.
+ *
+ * <p>The manifest is stored in the plugin's output directory. For every shape
+ * page it records a hash of the shapes that feed into the page, which is the
+ * shape's closure along with the resource it's bound to and any other shapes
+ * the page read while it was rendered, as recorded by {@link PageDependencies}.
+ * Those are shapes that aren't neighbors of the page's shape, like resources
+ * named by a {@code references} trait, so the manifest lists them for each page
+ * to hash again on the next run. It also records the hash and size of every
+ * file that was written.
+ *
+ * <p>On the next run, a page is not rendered if its input hash is unchanged,
+ * nothing else that affects every page has changed, and its file is still on
+ * disk with the recorded size and hash. Files written by a previous run that
+ * weren't generated by this run are deleted. Files that are rendered are expected
+ * to be written through a {@link WriteIfChangedFileManifest}, so that those whose
+ * contents are unchanged are not rewritten.
+ *
+ * <p>The service page, along with any files written by integrations, is always
+ * regenerated. Interceptors are assumed to only depend on the shape closure,
+ * the shapes they read through the symbol provider or record as read, the
+ * service, the generator settings, and the integration settings.
+ */
+final class IncrementalManifest {
+    static final String FILENAME = "docgen-manifest.json";
+
+    private static final Logger LOGGER = Logger.getLogger(IncrementalManifest.class.getName());
+    private static final String VERSION = "1.1";
+
+    private final FileManifest fileManifest;
+    private final String previousFingerprint;
+    private final Map<ShapeId, PageEntry> previousPages;
+    private final Map<String, OutputEntry> previousOutputs;
+
+    private final Map<ShapeId, PageEntry> pages = new ConcurrentHashMap<>();
+    private final Map<String, OutputEntry> outputs = new ConcurrentHashMap<>();
+    private final Set<String> changedFiles = new HashSet<>();
+    private final Set<String> reusedFiles = new HashSet<>();
+    private final Set<ShapeId> reusedPages = new HashSet<>();
+    private ClosureHasher hasher;
+    private String fingerprint;
+    private int reused = 0;
+
+    private IncrementalManifest(
+            FileManifest fileManifest,
+            String previousFingerprint,
+            Map<ShapeId, PageEntry> previousPages,
+            Map<String, OutputEntry> previousOutputs
+    ) {
+        this.fileManifest = fileManifest;
+        this.previousFingerprint = previousFingerprint;
+        this.previousPages = previousPages;
+        this.previousOutputs = previousOutputs;
+    }
+
+    /**
+     * Loads the manifest left by the previous run, if there is one.
+     *
+     * @param fileManifest The file manifest that documentation is written to.
+     * @return returns the loaded manifest.
+     */
+    static IncrementalManifest load(FileManifest fileManifest) {
+        var path = fileManifest.resolvePath(Path.of(FILENAME));
+        Map<ShapeId, PageEntry> pages = new HashMap<>();
+        Map<String, OutputEntry> outputs = new HashMap<>();
+        if (!Files.isRegularFile(path)) {
+            LOGGER.fine("No incremental manifest found, every page will be generated.");
+            return new IncrementalManifest(fileManifest, "", pages, outputs);
+        }
+
+        var node = Node.parse(IoUtils.readUtf8File(path)).expectObjectNode();
+        if (!node.getStringMemberOrDefault("version", "").equals(VERSION)) {
+            LOGGER.fine("Incremental manifest version changed, every page will be generated.");
+            return new IncrementalManifest(fileManifest, "", pages, outputs);
+        }
+        for (var entry : node.getObjectMember("pages").orElse(Node.objectNode()).getStringMap().entrySet()) {
+            var page = entry.getValue().expectObjectNode();
+            Set<ShapeId> reads = new TreeSet<>();
+            for (var read : page.getArrayMember("reads").orElse(Node.arrayNode())) {
+                reads.add(read.expectStringNode().expectShapeId());
+            }
+            pages.put(ShapeId.from(entry.getKey()), new PageEntry(
+                    page.expectStringMember("file").getValue(),
+                    page.expectStringMember("input").getValue(),
+                    reads));
+        }
+        for (var entry : node.getObjectMember("files").orElse(Node.objectNode()).getStringMap().entrySet()) {
+            var file = entry.getValue().expectObjectNode();
+            outputs.put(entry.getKey(), new OutputEntry(
+                    file.expectStringMember("hash").getValue(),
+                    file.expectNumberMember("size").getValue().longValue()));
+        }
+        return new IncrementalManifest(
+                fileManifest, node.getStringMemberOrDefault("fingerprint", ""), pages, outputs);
+    }
+
+    /**
+     * Wraps a file manifest so that written files are recorded.
+     *
+     * @param delegate The file manifest to wrap.
+     * @return returns the wrapped file manifest.
+     */
+    FileManifest decorate(FileManifest delegate) {
+        return new RecordingFileManifest(delegate);
+    }
+
+    /**
+     * Computes the input hash of every page and determines which files need to
+     * be generated.
+     *
+     * @param context The context used to generate documentation.
+     * @param integrationSettings The settings that integrations were configured with.
+     */
+    void prepare(DocGenerationContext context, ObjectNode integrationSettings) {
+        var model = context.model();
+        hasher = new ClosureHasher(context, integrationSettings);
+        fingerprint = hasher.fingerprint();
+
+        var service = context.settings().service();
+        for (var shape : new Walker(model).walkShapes(model.expectShape(service))) {
+            if (shape.getId().equals(service) || !hasPage(shape)) {
+                continue;
+            }
+            var file = context.symbolProvider().toSymbol(shape).getDefinitionFile();
+            var previous = previousPages.get(shape.getId());
+            Set<ShapeId> reads = previous == null ? Set.of() : previous.reads();
+            var entry = new PageEntry(file, hasher.inputHash(shape, reads), reads);
+            pages.put(shape.getId(), entry);
+            if (!entry.equals(previous)) {
+                changedFiles.add(file);
+            }
+        }
+        LOGGER.fine(() -> format("%d generated files have changed inputs.", changedFiles.size()));
+    }
+
+    /**
+     * Attempts to reuse the page for the given shape from the previous run.
+     *
+     * <p>If this returns true, the shape's page is already on disk and up-to-date,
+     * so it doesn't need to be generated again.
+     *
+     * @param context The context used to generate documentation.
+     * @param shape The shape whose page would be generated.
+     * @return returns whether the previous page could be reused.
+     */
+    boolean reuse(DocGenerationContext context, Shape shape) {
+        var page = pages.get(shape.getId());
+        if (page == null || !fingerprint.equals(previousFingerprint) || changedFiles.contains(page.file())) {
+            return false;
+        }
+        var path = context.fileManifest().resolvePath(Path.of(page.file()));
+        var key = relativize(path);
+        var output = previousOutputs.get(key);
+        if (output == null || !output.matches(path)) {
+            changedFiles.add(page.file());
+            return false;
+        }
+
+        // The file isn't being written, but it's still part of the output. Sphinx
+        // indexes, for example, are built from the manifest's files.
+        context.fileManifest().addFile(path);
+        outputs.put(key, output);
+        reusedFiles.add(key);
+        reusedPages.add(shape.getId());
+        reused++;
+        return true;
+    }
+
+    /**
+     * Saves the manifest and removes any files from the previous run that are
+     * no longer generated.
+     *
+     * <p>This must be called after every writer has been flushed.
+     *
+     * @param dependencies The shapes read by each page that was rendered.
+     */
+    void save(PageDependencies dependencies) {
+        // Rendered pages are hashed again with what they read this time, so the
+        // next run compares against the same shapes. Reused pages read the same
+        // shapes as they did when they were rendered.
+        for (var entry : pages.entrySet()) {
+            if (!reusedPages.contains(entry.getKey())) {
+                var page = entry.getValue();
+                var reads = hasher.nonNeighborReads(entry.getKey(), dependencies.dependencies(page.file()));
+                entry.setValue(new PageEntry(page.file(), hasher.inputHash(entry.getKey(), reads), reads));
+            }
+        }
+
+        for (var file : previousOutputs.keySet()) {
+            if (!outputs.containsKey(file)) {
+                LOGGER.fine(() -> format("Deleting stale generated file %s", file));
+                try {
+                    Files.deleteIfExists(fileManifest.resolvePath(Path.of(file)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        var pagesNode = ObjectNode.builder();
+        for (var entry : new TreeMap<>(pages).entrySet()) {
+            pagesNode.withMember(entry.getKey().toString(), Node.objectNode()
+                    .withMember("file", entry.getValue().file())
+                    .withMember("input", entry.getValue().input())
+                    .withMember("reads", entry.getValue().reads().stream()
+                            .map(ShapeId::toString)
+                            .map(Node::from)
+                            .collect(ArrayNode.collect())));
+        }
+        var filesNode = ObjectNode.builder();
+        for (var entry : new TreeMap<>(outputs).entrySet()) {
+            filesNode.withMember(entry.getKey(), Node.objectNode()
+                    .withMember("hash", entry.getValue().hash())
+                    .withMember("size", Node.from(entry.getValue().size())));
+        }
+        var manifest = Node.objectNodeBuilder()
+                .withMember("version", VERSION)
+                .withMember("fingerprint", fingerprint == null ? "" : fingerprint)
+                .withMember("pages", pagesNode.build())
+                .withMember("files", filesNode.build())
+                .build();
+        fileManifest.writeFile(FILENAME, Node.prettyPrintJson(manifest) + "\n");
+
+        LOGGER.info(format("Reused %d of %d pages.", reused, pages.size()));
+    }
+
+    private String relativize(Path path) {
+        return fileManifest.getBaseDir().relativize(path).toString().replace('\\', '/');
+    }
+
+    private static boolean hasPage(Shape shape) {
+        // Input and output structures are documented alongside their operations.
+        return switch (shape.getType()) {
+            case STRUCTURE -> !shape.hasTrait(InputTrait.class) && !shape.hasTrait(OutputTrait.class);
+            case UNION, ENUM, INT_ENUM, OPERATION, RESOURCE -> true;
+            default -> false;
+        };
+    }
+
+    private record PageEntry(String file, String input, Set<ShapeId> reads) {}
+
+    private record OutputEntry(String hash, long size) {
+        static OutputEntry of(byte[] contents) {
+            return new OutputEntry(DocgenUtils.sha256(contents), contents.length);
+        }
+
+        boolean matches(Path path) {
+            try {
+                if (!Files.isRegularFile(path) || Files.size(path) != size) {
+                    return false;
+                }
+                return DocgenUtils.sha256(Files.readAllBytes(path)).equals(hash);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Computes hashes of the shapes that feed into each page.
+     */
+    private static final class ClosureHasher {
+        private final DocGenerationContext context;
+        private final ObjectNode integrationSettings;
+        private final Model model;
+        private final NeighborProvider neighborProvider;
+        private final Walker walker;
+        private final Set<ShapeId> serviceShapes = new HashSet<>();
+        private final Map<ShapeId, String> shapeHashes = new HashMap<>();
+        private final Map<ShapeId, Map<ShapeId, String>> closures = new HashMap<>();
+
+        ClosureHasher(DocGenerationContext context, ObjectNode integrationSettings) {
+            this.context = context;
+            this.integrationSettings = integrationSettings;
+            this.model = context.model();
+            this.neighborProvider = NeighborProviderIndex.of(model).getProvider();
+            this.walker = new Walker(neighborProvider);
+            for (var shape : walker.walkShapes(model.expectShape(context.settings().service()))) {
+                serviceShapes.add(shape.getId());
+            }
+        }
+
+        /**
+         * Hashes everything that can affect every page: the settings, the service's
+         * traits and renames, and the integrations that are applied along with
+         * their settings.
+         */
+        String fingerprint() {
+            var settings = context.settings();
+            var builder = new StringBuilder()
+                    .append(VERSION).append('\n')
+                    .append(settings.service()).append('\n')
+                    .append(settings.format()).append('\n')
+                    // Reused pages take their dependencies from the previous run,
+                    // so they have to be rendered if none were recorded then.
+                    .append(settings.pageDependencies()).append('\n');
+            // A shard only renders some pages, so a different split has to start over.
+            settings.shard().ifPresent(shard -> builder.append("shard ").append(shard.index()).append('/')
+                    .append(shard.count()).append('\n'));
+            new TreeMap<>(settings.references()).forEach((id, link) -> builder.append(id).append('=')
+                    .append(link).append('\n'));
+            var service = context.knowledge().service();
+            appendTraits(builder, service);
+            new TreeMap<>(service.getRename()).forEach((id, name) -> builder.append(id).append("->")
+                    .append(name).append('\n'));
+            for (var integration : context.integrations()) {
+                builder.append(integration.name()).append('\n');
+            }
+            builder.append(Node.printJson(integrationSettings)).append('\n');
+            return DocgenUtils.sha256(builder.toString());
+        }
+
+        /**
+         * Hashes the shape's closure along with the other shapes its page read.
+         */
+        String inputHash(ToShapeId shape, Set<ShapeId> reads) {
+            var inputs = new TreeMap<>(closure(shape));
+            for (var read : reads) {
+                inputs.putIfAbsent(read, readHash(read));
+            }
+            var builder = new StringBuilder();
+            inputs.forEach((id, hash) -> builder.append(id).append('=').append(hash).append('\n'));
+            return DocgenUtils.sha256(builder.toString());
+        }
+
+        /**
+         * Finds the shapes a page read that aren't already part of its closure.
+         */
+        Set<ShapeId> nonNeighborReads(ToShapeId shape, Set<ShapeId> reads) {
+            var closure = closure(shape);
+            Set<ShapeId> nonNeighbors = new TreeSet<>();
+            for (var read : reads) {
+                if (!closure.containsKey(read)) {
+                    nonNeighbors.add(read);
+                }
+            }
+            return nonNeighbors;
+        }
+
+        private Map<ShapeId, String> closure(ToShapeId id) {
+            var existing = closures.get(id.toShapeId());
+            if (existing != null) {
+                return existing;
+            }
+            var shape = model.expectShape(id.toShapeId());
+            var closure = new HashMap<ShapeId, String>();
+            for (var closureShape : walker.walkShapes(shape)) {
+                closure.put(closureShape.getId(), shapeHash(closureShape));
+            }
+
+            // Operations and resources also document what they're bound to.
+            context.knowledge().getResourceBinding(shape)
+                    .ifPresent(resource -> closure.put(resource.getId(), shapeHash(resource)));
+
+            // Operations list the service's errors alongside their own.
+            if (shape instanceof OperationShape) {
+                for (var error : context.knowledge().service().getErrors()) {
+                    closure.put(error, shapeHash(model.expectShape(error)));
+                }
+            }
+            closures.put(shape.getId(), closure);
+            return closure;
+        }
+
+        private String readHash(ShapeId id) {
+            var shape = model.getShape(id);
+            if (shape.isEmpty()) {
+                return "missing";
+            }
+            // Whether a shape is part of the service decides whether pages link to it,
+            // like when a resource named by a references trait is removed from it.
+            var hash = shapeHash(shape.get());
+            return serviceShapes.contains(id) ? hash : "outside " + hash;
+        }
+
+        private String shapeHash(Shape shape) {
+            var existing = shapeHashes.get(shape.getId());
+            if (existing != null) {
+                return existing;
+            }
+            var builder = new StringBuilder()
+                    .append(shape.getId()).append('\n')
+                    .append(shape.getType()).append('\n');
+            appendTraits(builder, shape);
+            shape.asMemberShape().ifPresent(member -> builder.append(member.getTarget()).append('\n'));
+
+            // Relationships to containers and binding parents are inverted, and
+            // including them would make every page depend on the service.
+            neighborProvider.getNeighbors(shape).stream()
+                    .filter(rel -> rel.getRelationshipType().getDirection() == RelationshipDirection.DIRECTED)
+                    .map(rel -> rel.getRelationshipType() + ":" + rel.getNeighborShapeId())
+                    .sorted()
+                    .forEach(rel -> builder.append(rel).append('\n'));
+
+            var hash = DocgenUtils.sha256(builder.toString());
+            shapeHashes.put(shape.getId(), hash);
+            return hash;
+        }
+
+        private void appendTraits(StringBuilder builder, Shape shape) {
+            new TreeMap<>(shape.getAllTraits()).forEach((id, trait) -> builder.append(id).append('=')
+                    .append(Node.printJson(trait.toNode())).append('\n'));
+        }
+    }
+
+    /**
+     * Records the files that are written.
+     */
+    private final class RecordingFileManifest implements FileManifest {
+        private final FileManifest delegate;
+
+        RecordingFileManifest(FileManifest delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Path getBaseDir() {
+            return delegate.getBaseDir();
+        }
+
+        @Override
+        public Set<Path> getFiles() {
+            return delegate.getFiles();
+        }
+
+        @Override
+        public Path addFile(Path path) {
+            return delegate.addFile(path);
+        }
+
+        @Override
+        public Path writeFile(Path path, Reader fileContentsReader) {
+            var text = new StringWriter();
+            try {
+                fileContentsReader.transferTo(text);
+            } catch (IOException e) {
+                throw new CodegenException(e);
+            }
+            return write(path, text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Path writeFile(Path path, InputStream fileContentsInputStream) {
+            try {
+                return write(path, fileContentsInputStream.readAllBytes());
+            } catch (IOException e) {
+                throw new CodegenException(e);
+            }
+        }
+
+        private Path write(Path path, byte[] contents) {
+            var key = relativize(resolvePath(path));
+            if (reusedFiles.contains(key)) {
+                throw new CodegenException(format(
+                        "Attempted to write to %s, which was reused from a previous run and so would be "
+                        + "truncated. Integrations that write to shape pages after shape generation can't "
+                        + "be used with incremental generation.", key));
+            }
+            outputs.put(key, OutputEntry.of(contents));
+            return delegate.writeFile(path, new ByteArrayInputStream(contents));
+        }
+    }
+}
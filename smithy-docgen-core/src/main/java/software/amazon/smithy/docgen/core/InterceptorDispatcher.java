@@ -0,0 +1,338 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import software.amazon.smithy.docgen.core.sections.ProtocolSection;
+import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
+import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ShapeType;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+
+/**
+ * Groups {@link ScopedInterceptor}s into per-section dispatch tables.
+ *
+ * <p>A writer calls {@link CodeInterceptor#isIntercepted} on every interceptor
+ * registered for a section's type. For the sections that are scoped, this
+ * replaces every interceptor registered for the section type with a single
+ * interceptor that looks up the interceptors relevant to the section's shape by
+ * trait id and shape type, and only consults those. Interceptors still run in
+ * the order they were registered in.
+ */
+final class InterceptorDispatcher {
+    private static final List<SectionScope<?>> SCOPES = List.of(
+            new SectionScope<>(ShapeSubheadingSection.class, ShapeSubheadingSection::shape,
+                    s -> s.context().model()),
+            new SectionScope<>(ShapeDetailsSection.class, ShapeDetailsSection::shape,
+                    s -> s.context().model()),
+            new SectionScope<>(ProtocolSection.class, ProtocolSection::shape,
+                    s -> s.context().model())
+    );
+
+    private final List<CodeInterceptor<? extends CodeSection, DocWriter>> interceptors;
+    private final LongAdder avoidedChecks = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param interceptors The interceptors to dispatch to, in registration order.
+     */
+    InterceptorDispatcher(List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors) {
+        this.interceptors = List.copyOf(group(interceptors));
+    }
+
+    /**
+     * @return returns the interceptors to register with writers.
+     */
+    List<CodeInterceptor<? extends CodeSection, DocWriter>> interceptors() {
+        return interceptors;
+    }
+
+    /**
+     * Checks whether any interceptor will intercept the given section.
+     *
+     * <p>Unlike registering the interceptors with a writer and injecting the
+     * section, this doesn't write anything.
+     *
+     * @param section The section to check.
+     * @return returns true if at least one interceptor intercepts the section.
+     */
+    boolean isIntercepted(CodeSection section) {
+        for (var interceptor : interceptors) {
+            if (interceptor.sectionType().isInstance(section) && isIntercepted(interceptor, section)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <S extends CodeSection> boolean isIntercepted(
+            CodeInterceptor<S, DocWriter> interceptor,
+            CodeSection section
+    ) {
+        var typed = interceptor.sectionType().cast(section);
+        if (interceptor instanceof DispatchingInterceptor<S> dispatching) {
+            // This avoids handing off the matches to a write that will never happen.
+            return dispatching.hasMatch(typed);
+        }
+        return interceptor.isIntercepted(typed);
+    }
+
+    /**
+     * @return returns how many calls to {@code isIntercepted} were skipped because
+     *   the section's shape was outside of the interceptor's scope.
+     */
+    long avoidedChecks() {
+        return avoidedChecks.sum();
+    }
+
+    private List<CodeInterceptor<? extends CodeSection, DocWriter>> group(
+            List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors
+    ) {
+        // Only section types that have at least one scoped interceptor are worth
+        // dispatching, anything else would just add a layer of indirection.
+        Map<Class<?>, SectionScope<?>> scoped = new HashMap<>();
+        for (var interceptor : interceptors) {
+            if (interceptor instanceof ScopedInterceptor<?>) {
+                for (var scope : SCOPES) {
+                    if (scope.sectionType().equals(interceptor.sectionType())) {
+                        scoped.put(scope.sectionType(), scope);
+                    }
+                }
+            }
+        }
+        if (scoped.isEmpty()) {
+            return new ArrayList<>(interceptors);
+        }
+
+        Map<Class<?>, List<CodeInterceptor<? extends CodeSection, DocWriter>>> groups = new LinkedHashMap<>();
+        List<Object> ordered = new ArrayList<>();
+        for (var interceptor : interceptors) {
+            var sectionType = interceptor.sectionType();
+            if (!scoped.containsKey(sectionType)) {
+                ordered.add(interceptor);
+                continue;
+            }
+            if (!groups.containsKey(sectionType)) {
+                // The dispatching interceptor takes the place of the first interceptor
+                // registered for the section type.
+                ordered.add(sectionType);
+                groups.put(sectionType, new ArrayList<>());
+            }
+            groups.get(sectionType).add(interceptor);
+        }
+
+        List<CodeInterceptor<? extends CodeSection, DocWriter>> result = new ArrayList<>(ordered.size());
+        for (var entry : ordered) {
+            if (entry instanceof CodeInterceptor<?, ?>) {
+                result.add(cast(entry));
+            } else {
+                result.add(new DispatchingInterceptor<>(scoped.get(entry), groups.get(entry)));
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    /**
+     * Describes how to find the shape a section documents.
+     */
+    private record SectionScope<S extends CodeSection>(
+            Class<S> sectionType,
+            Function<S, Shape> shape,
+            Function<S, Model> model
+    ) {}
+
+    /**
+     * Consults only the interceptors whose scope includes the section's shape.
+     */
+    private final class DispatchingInterceptor<S extends CodeSection> implements CodeInterceptor<S, DocWriter> {
+        private final SectionScope<S> scope;
+        private final List<CodeInterceptor<S, DocWriter>> interceptors = new ArrayList<>();
+        private final BitSet unscoped = new BitSet();
+        private final Map<ShapeId, BitSet> byTrait = new HashMap<>();
+        private final Map<ShapeType, BitSet> byShapeType = new EnumMap<>(ShapeType.class);
+        private final Map<Integer, Set<ShapeType>> shapeTypeFilters = new HashMap<>();
+
+        // The writer always calls write immediately after isIntercepted returns true,
+        // so the matches found by isIntercepted are handed off rather than recomputed.
+        private final ThreadLocal<PendingMatch<S>> pending = new ThreadLocal<>();
+
+        DispatchingInterceptor(
+                SectionScope<?> scope,
+                List<CodeInterceptor<? extends CodeSection, DocWriter>> interceptors
+        ) {
+            this.scope = cast(scope);
+            for (var interceptor : interceptors) {
+                var index = this.interceptors.size();
+                this.interceptors.add(cast(interceptor));
+                if (!(interceptor instanceof ScopedInterceptor<?> scoped)
+                        || (scoped.traits().isEmpty() && scoped.shapeTypes().isEmpty())) {
+                    unscoped.set(index);
+                } else if (scoped.traits().isEmpty()) {
+                    for (var shapeType : scoped.shapeTypes()) {
+                        byShapeType.computeIfAbsent(shapeType, t -> new BitSet()).set(index);
+                    }
+                } else {
+                    for (var trait : scoped.traits()) {
+                        byTrait.computeIfAbsent(trait, t -> new BitSet()).set(index);
+                    }
+                    if (!scoped.shapeTypes().isEmpty()) {
+                        shapeTypeFilters.put(index, scoped.shapeTypes());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Class<S> sectionType() {
+            return scope.sectionType();
+        }
+
+        @Override
+        public boolean isIntercepted(S section) {
+            var candidates = getCandidates(section);
+            avoidedChecks.add(interceptors.size() - candidates.cardinality());
+            var matches = getMatches(section, candidates);
+            if (matches.isEmpty()) {
+                return false;
+            }
+            pending.set(new PendingMatch<>(section, matches));
+            return true;
+        }
+
+        boolean hasMatch(S section) {
+            var candidates = getCandidates(section);
+            for (var i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (interceptors.get(i).isIntercepted(section)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, S section) {
+            var pendingMatch = pending.get();
+            pending.remove();
+            List<CodeInterceptor<S, DocWriter>> matches = pendingMatch != null && pendingMatch.section() == section
+                    ? pendingMatch.matches()
+                    : getMatches(section, getCandidates(section));
+
+            // Each interceptor receives the output of the one before it, just as it
+            // would if they were registered with the writer directly. The last one
+            // can write straight to the writer.
+            if (matches.isEmpty()) {
+                writer.writeWithNoFormatting(previousText);
+                return;
+            }
+            var text = previousText;
+            for (var i = 0; i < matches.size() - 1; i++) {
+                text = capture(writer, matches.get(i), text, section);
+            }
+            matches.get(matches.size() - 1).write(writer, text, section);
+        }
+
+        private BitSet getCandidates(S section) {
+            var shape = scope.shape().apply(section);
+            var candidates = (BitSet) unscoped.clone();
+
+            var typeMatches = byShapeType.get(shape.getType());
+            if (typeMatches != null) {
+                candidates.or(typeMatches);
+            }
+
+            if (!byTrait.isEmpty()) {
+                addTraitMatches(candidates, shape);
+                // Interceptors generally check traits with getMemberTrait, which
+                // also looks at the member's target.
+                shape.asMemberShape()
+                        .flatMap(member -> scope.model().apply(section).getShape(member.getTarget()))
+                        .ifPresent(target -> addTraitMatches(candidates, target));
+            }
+
+            for (var filter : shapeTypeFilters.entrySet()) {
+                if (!filter.getValue().contains(shape.getType())) {
+                    candidates.clear(filter.getKey());
+                }
+            }
+            return candidates;
+        }
+
+        private void addTraitMatches(BitSet candidates, Shape shape) {
+            for (var trait : shape.getAllTraits().keySet()) {
+                var traitMatches = byTrait.get(trait);
+                if (traitMatches != null) {
+                    candidates.or(traitMatches);
+                }
+            }
+        }
+
+        private List<CodeInterceptor<S, DocWriter>> getMatches(S section, BitSet candidates) {
+            List<CodeInterceptor<S, DocWriter>> matches = new ArrayList<>(1);
+            for (var i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                var interceptor = interceptors.get(i);
+                if (interceptor.isIntercepted(section)) {
+                    matches.add(interceptor);
+                }
+            }
+            return matches;
+        }
+
+        private String capture(
+                DocWriter writer,
+                CodeInterceptor<S, DocWriter> interceptor,
+                String previousText,
+                S section
+        ) {
+            var recorder = new RecordingInterceptor();
+            writer.pushState(new DispatchSection()).onSection(recorder);
+            interceptor.write(writer, previousText, section);
+            writer.popState();
+            return recorder.contents;
+        }
+    }
+
+    private record PendingMatch<S extends CodeSection>(S section, List<CodeInterceptor<S, DocWriter>> matches) {}
+
+    private record DispatchSection() implements CodeSection {}
+
+    /**
+     * Records what was written to the section without writing it back, since the
+     * recorded text is passed on to the next interceptor instead.
+     */
+    private static final class RecordingInterceptor implements CodeInterceptor<DispatchSection, DocWriter> {
+        private String contents = "";
+
+        @Override
+        public Class<DispatchSection> sectionType() {
+            return DispatchSection.class;
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, DispatchSection section) {
+            contents = previousText;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ToNode;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ShapeType;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+
+/**
+ * Records how often each interceptor is consulted and how long it takes.
+ *
+ * <p>Interceptors are wrapped before they're registered, so the calls that are
+ * recorded are the ones that actually reach each interceptor. Interceptors are
+ * grouped by class and the section type they intercept. Time spent in
+ * {@link CodeInterceptor#write} includes any nested sections that the
+ * interceptor itself writes, so totals aren't necessarily additive.
+ */
+final class InterceptorProfiler implements ToNode {
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Wraps interceptors so that they're profiled.
+     *
+     * <p>Scoped interceptors remain scoped once wrapped.
+     *
+     * @param interceptors The interceptors to wrap.
+     * @return returns the wrapped interceptors, in the same order.
+     */
+    List<CodeInterceptor<? extends CodeSection, DocWriter>> wrap(
+            List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors
+    ) {
+        List<CodeInterceptor<? extends CodeSection, DocWriter>> result = new ArrayList<>(interceptors.size());
+        for (var interceptor : interceptors) {
+            result.add(wrap(interceptor));
+        }
+        return result;
+    }
+
+    private <S extends CodeSection> CodeInterceptor<S, DocWriter> wrap(CodeInterceptor<S, DocWriter> interceptor) {
+        var name = format("%s (%s)", interceptor.getClass().getName(), interceptor.sectionType().getSimpleName());
+        var interceptorStats = stats.computeIfAbsent(name, Stats::new);
+        if (interceptor instanceof ScopedInterceptor<S> scoped) {
+            return new ScopedProfilingInterceptor<>(scoped, interceptorStats);
+        }
+        return new ProfilingInterceptor<>(interceptor, interceptorStats);
+    }
+
+    /**
+     * @return returns the recorded stats, most expensive first.
+     */
+    List<Stats> sorted() {
+        var result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparingLong(Stats::totalNanos).reversed().thenComparing(Stats::name));
+        return result;
+    }
+
+    /**
+     * Formats a report of the most expensive interceptors.
+     *
+     * @param limit The maximum number of interceptors to include.
+     * @return returns a human-readable report.
+     */
+    String report(int limit) {
+        var builder = new StringBuilder("Interceptor profile (isIntercepted calls / intercepted / writes / ms):");
+        var sorted = sorted();
+        for (var entry : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            builder.append(format("%n  %,10d / %,10d / %,10d / %,10.2f  %s",
+                    entry.checks.sum(), entry.intercepted.sum(), entry.writes.sum(),
+                    entry.totalNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1), entry.name));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public Node toNode() {
+        var builder = ArrayNode.builder();
+        for (var entry : sorted()) {
+            builder.withValue(entry.toNode());
+        }
+        return builder.build();
+    }
+
+    /**
+     * The calls recorded for a single interceptor.
+     */
+    static final class Stats implements ToNode {
+        private final String name;
+        private final LongAdder checks = new LongAdder();
+        private final LongAdder intercepted = new LongAdder();
+        private final LongAdder checkNanos = new LongAdder();
+        private final LongAdder writes = new LongAdder();
+        private final LongAdder writeNanos = new LongAdder();
+
+        private Stats(String name) {
+            this.name = name;
+        }
+
+        String name() {
+            return name;
+        }
+
+        long totalNanos() {
+            return checkNanos.sum() + writeNanos.sum();
+        }
+
+        @Override
+        public Node toNode() {
+            return Node.objectNodeBuilder()
+                    .withMember("interceptor", name)
+                    .withMember("isInterceptedCalls", Node.from(checks.sum()))
+                    .withMember("intercepted", Node.from(intercepted.sum()))
+                    .withMember("isInterceptedNanos", Node.from(checkNanos.sum()))
+                    .withMember("writes", Node.from(writes.sum()))
+                    .withMember("writeNanos", Node.from(writeNanos.sum()))
+                    .build();
+        }
+    }
+
+    private static class ProfilingInterceptor<S extends CodeSection> implements CodeInterceptor<S, DocWriter> {
+        private final CodeInterceptor<S, DocWriter> delegate;
+        private final Stats stats;
+
+        ProfilingInterceptor(CodeInterceptor<S, DocWriter> delegate, Stats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public Class<S> sectionType() {
+            return delegate.sectionType();
+        }
+
+        @Override
+        public boolean isIntercepted(S section) {
+            var start = System.nanoTime();
+            try {
+                var result = delegate.isIntercepted(section);
+                if (result) {
+                    stats.intercepted.increment();
+                }
+                return result;
+            } finally {
+                stats.checkNanos.add(System.nanoTime() - start);
+                stats.checks.increment();
+            }
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, S section) {
+            var start = System.nanoTime();
+            try {
+                delegate.write(writer, previousText, section);
+            } finally {
+                stats.writeNanos.add(System.nanoTime() - start);
+                stats.writes.increment();
+            }
+        }
+    }
+
+    private static final class ScopedProfilingInterceptor<S extends CodeSection>
+            extends ProfilingInterceptor<S> implements ScopedInterceptor<S> {
+        private final ScopedInterceptor<S> scoped;
+
+        ScopedProfilingInterceptor(ScopedInterceptor<S> scoped, Stats stats) {
+            super(scoped, stats);
+            this.scoped = scoped;
+        }
+
+        @Override
+        public Set<ShapeId> traits() {
+            return scoped.traits();
+        }
+
+        @Override
+        public Set<ShapeType> shapeTypes() {
+            return scoped.shapeTypes();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.knowledge.BottomUpIndex;
+import software.amazon.smithy.model.knowledge.NullableIndex;
+import software.amazon.smithy.model.knowledge.OperationIndex;
+import software.amazon.smithy.model.knowledge.PaginatedIndex;
+import software.amazon.smithy.model.knowledge.ServiceIndex;
+import software.amazon.smithy.model.knowledge.TopDownIndex;
+import software.amazon.smithy.model.shapes.OperationShape;
+import software.amazon.smithy.model.shapes.ResourceShape;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ToShapeId;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+
+/**
+ * An immutable registry of knowledge indexes and derived service information.
+ *
+ * <p>Knowledge indexes are cached on the model, but looking them up and deriving
+ * sets from them adds up when done for every member of every shape. This registry
+ * is built once when the {@link DocGenerationContext} is created so that
+ * generators and interceptors can share the results.
+ */
+@SmithyUnstableApi
+public final class KnowledgeRegistry {
+    private final ServiceShape service;
+    private final ServiceIndex serviceIndex;
+    private final TopDownIndex topDownIndex;
+    private final BottomUpIndex bottomUpIndex;
+    private final OperationIndex operationIndex;
+    private final PaginatedIndex paginatedIndex;
+    private final NullableIndex nullableIndex;
+    private final Set<ShapeId> protocols;
+    private final Set<ShapeId> authSchemes;
+    private final List<ShapeId> prioritizedAuth;
+    private final List<ResourceShape> containedResources;
+    private final Set<ShapeId> containedResourceIds;
+    private final List<OperationShape> containedOperations;
+    private final Map<ShapeId, ResourceShape> resourceBindings;
+
+    /**
+     * Constructor.
+     *
+     * @param model The model being generated from.
+     * @param service The service being documented.
+     */
+    public KnowledgeRegistry(Model model, ToShapeId service) {
+        this.service = model.expectShape(service.toShapeId(), ServiceShape.class);
+        this.serviceIndex = ServiceIndex.of(model);
+        this.topDownIndex = TopDownIndex.of(model);
+        this.bottomUpIndex = BottomUpIndex.of(model);
+        this.operationIndex = OperationIndex.of(model);
+        this.paginatedIndex = PaginatedIndex.of(model);
+        this.nullableIndex = NullableIndex.of(model);
+
+        // These are copied into ordered sets since the order of protocols determines
+        // the order of their tabs on every page.
+        this.protocols = Collections.unmodifiableSet(new LinkedHashSet<>(
+                serviceIndex.getProtocols(service).keySet()));
+        this.authSchemes = Collections.unmodifiableSet(new LinkedHashSet<>(
+                serviceIndex.getAuthSchemes(service).keySet()));
+        this.prioritizedAuth = DocgenUtils.getPrioritizedServiceAuth(model, service);
+
+        // TODO: topographically sort resources
+        this.containedResources = topDownIndex.getContainedResources(service).stream().sorted().toList();
+        this.containedResourceIds = containedResources.stream()
+                .map(Shape::getId)
+                .collect(Collectors.toUnmodifiableSet());
+        this.containedOperations = topDownIndex.getContainedOperations(service).stream().sorted().toList();
+
+        var bindings = new HashMap<ShapeId, ResourceShape>();
+        for (var operation : containedOperations) {
+            bottomUpIndex.getResourceBinding(service, operation).ifPresent(r -> bindings.put(operation.getId(), r));
+        }
+        for (var resource : containedResources) {
+            bottomUpIndex.getResourceBinding(service, resource).ifPresent(r -> bindings.put(resource.getId(), r));
+        }
+        this.resourceBindings = Map.copyOf(bindings);
+    }
+
+    /**
+     * @return Returns the service being documented.
+     */
+    public ServiceShape service() {
+        return service;
+    }
+
+    /**
+     * @return Returns the model's service index.
+     */
+    public ServiceIndex serviceIndex() {
+        return serviceIndex;
+    }
+
+    /**
+     * @return Returns the model's top-down index.
+     */
+    public TopDownIndex topDownIndex() {
+        return topDownIndex;
+    }
+
+    /**
+     * @return Returns the model's bottom-up index.
+     */
+    public BottomUpIndex bottomUpIndex() {
+        return bottomUpIndex;
+    }
+
+    /**
+     * @return Returns the model's operation index.
+     */
+    public OperationIndex operationIndex() {
+        return operationIndex;
+    }
+
+    /**
+     * @return Returns the model's paginated index.
+     */
+    public PaginatedIndex paginatedIndex() {
+        return paginatedIndex;
+    }
+
+    /**
+     * @return Returns the model's nullable index.
+     */
+    public NullableIndex nullableIndex() {
+        return nullableIndex;
+    }
+
+    /**
+     * @return Returns the ids of the protocol traits applied to the service.
+     */
+    public Set<ShapeId> protocols() {
+        return protocols;
+    }
+
+    /**
+     * @return Returns the ids of every auth trait applied to the service.
+     */
+    public Set<ShapeId> authSchemes() {
+        return authSchemes;
+    }
+
+    /**
+     * @return Returns the service's auth types in priority order.
+     * @see DocgenUtils#getPrioritizedServiceAuth
+     */
+    public List<ShapeId> prioritizedAuth() {
+        return prioritizedAuth;
+    }
+
+    /**
+     * @return Returns the resources contained in the service, sorted by id.
+     */
+    public List<ResourceShape> containedResources() {
+        return containedResources;
+    }
+
+    /**
+     * @return Returns the ids of the resources contained in the service.
+     */
+    public Set<ShapeId> containedResourceIds() {
+        return containedResourceIds;
+    }
+
+    /**
+     * @return Returns the operations contained in the service, sorted by id.
+     */
+    public List<OperationShape> containedOperations() {
+        return containedOperations;
+    }
+
+    /**
+     * Gets the resource that an operation or resource in the service is bound to.
+     *
+     * @param shape The operation or resource to get the binding for.
+     * @return Returns the resource the shape is bound to, if any.
+     */
+    public Optional<ResourceShape> getResourceBinding(ToShapeId shape) {
+        return Optional.ofNullable(resourceBindings.get(shape.toShapeId()));
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.node.ToNode;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ToShapeId;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+
+/**
+ * Records which shapes each page read while it was rendered.
+ *
+ * <p>A shape is recorded for a page when its symbol is requested while the page
+ * is being rendered, including by interceptors. Since every name, link, and
+ * anchor for a shape comes from its symbol, this covers shapes that are inlined
+ * into other pages, like the members of an operation's input, as well as shapes
+ * that are only referenced, like a resource's lifecycle operations. Reading a
+ * member also records the shape that contains it and its target, since member
+ * docs and most interceptors read a member's traits with
+ * {@link Shape#getMemberTrait}. The shape a page documents is always recorded
+ * for it.
+ *
+ * <p>Shapes that are read straight from the model aren't seen, so anything that
+ * does that has to {@link #read(Model, ToShapeId) record} them itself, like the
+ * interceptor that links to the resources named by {@code references} traits.
+ *
+ * <p>Pages are identified by their definition file relative to the output
+ * directory. The service page is recorded along with every shape page, but
+ * files written by integrations after shape generation are not.
+ *
+ * <p>When the {@code pageDependencies} setting is enabled, the recorded graph is
+ * written to {@link #FILENAME} in the output directory, and it can be loaded
+ * again with {@link #fromNode} to find the pages that a model change affects.
+ */
+@SmithyUnstableApi
+public final class PageDependencies implements ToNode {
+    /**
+     * The name of the file that page dependencies are written to.
+     */
+    public static final String FILENAME = "docgen-dependencies.json";
+
+    private final Map<String, Set<ShapeId>> pages = new ConcurrentHashMap<>();
+    private final ThreadLocal<Set<ShapeId>> rendering = new ThreadLocal<>();
+
+    /**
+     * Renders a page, recording every shape read while rendering it.
+     *
+     * <p>Pages are rendered on a single thread, but different pages may be
+     * rendered concurrently.
+     *
+     * @param page The page's definition file.
+     * @param shape The shape the page documents.
+     * @param render Renders the page.
+     */
+    void record(String page, ToShapeId shape, Runnable render) {
+        var reads = pages.computeIfAbsent(page, p -> ConcurrentHashMap.newKeySet());
+        reads.add(shape.toShapeId());
+        var previous = rendering.get();
+        rendering.set(reads);
+        try {
+            render.run();
+        } finally {
+            if (previous == null) {
+                rendering.remove();
+            } else {
+                rendering.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Records that a shape was read by the page being rendered on this thread, if any.
+     *
+     * <p>Integrations that read shapes straight from the model, rather than
+     * through the symbol provider, can use this so that the page is rebuilt
+     * when those shapes change.
+     *
+     * @param shape The shape that was read.
+     */
+    public void read(ToShapeId shape) {
+        var reads = rendering.get();
+        if (reads != null) {
+            reads.add(shape.toShapeId());
+        }
+    }
+
+    /**
+     * Records that a shape was read by the page being rendered on this thread, if any.
+     *
+     * <p>If the shape is a member, the shape that contains it and the member's
+     * target are recorded too. Listing a member means listing its container,
+     * and traits read with {@link Shape#getMemberTrait} fall back to the target,
+     * which is how member docs and most interceptors read them.
+     *
+     * @param model The model the shape belongs to.
+     * @param shape The shape that was read.
+     */
+    public void read(Model model, ToShapeId shape) {
+        var reads = rendering.get();
+        if (reads == null) {
+            return;
+        }
+        var id = shape.toShapeId();
+        reads.add(id);
+        if (id.hasMember()) {
+            reads.add(id.withoutMember());
+            model.getShape(id).flatMap(Shape::asMemberShape).ifPresent(member -> reads.add(member.getTarget()));
+        }
+    }
+
+    /**
+     * Adds a page's dependencies from a previous run, unless it was rendered in this one.
+     *
+     * <p>This is used to keep the dependencies of pages that were reused rather
+     * than rendered when generating incrementally.
+     *
+     * @param previous The dependencies from the previous run.
+     * @param page The page to keep.
+     */
+    void keep(PageDependencies previous, String page) {
+        var reads = previous.pages.get(page);
+        if (reads != null) {
+            pages.putIfAbsent(page, reads);
+        }
+    }
+
+    /**
+     * @return returns the definition files of every recorded page.
+     */
+    public Set<String> pages() {
+        return Collections.unmodifiableSet(pages.keySet());
+    }
+
+    /**
+     * Gets the shapes that were read while rendering a page.
+     *
+     * @param page The page's definition file.
+     * @return returns the shapes read by the page, or an empty set if it wasn't recorded.
+     */
+    public Set<ShapeId> dependencies(String page) {
+        return Collections.unmodifiableSet(pages.getOrDefault(page, Set.of()));
+    }
+
+    /**
+     * Finds the pages that read any of the given shapes.
+     *
+     * @param changedShapes The shapes that changed.
+     * @return returns the definition files of the pages that need to be rebuilt.
+     */
+    public Set<String> affectedPages(Collection<? extends ToShapeId> changedShapes) {
+        Set<ShapeId> changed = changedShapes.stream().map(ToShapeId::toShapeId).collect(Collectors.toSet());
+        Set<String> affected = new TreeSet<>();
+        pages.forEach((page, reads) -> {
+            for (var read : reads) {
+                if (changed.contains(read)) {
+                    affected.add(page);
+                    return;
+                }
+            }
+        });
+        return affected;
+    }
+
+    /**
+     * Finds the pages affected by the differences between two versions of a model.
+     *
+     * <p>Pages for shapes that were added aren't included, since they weren't
+     * recorded. Changes to the service itself, such as renames, can affect every
+     * page and should be checked for separately.
+     *
+     * @param previous The model the dependencies were recorded from.
+     * @param current The new version of the model.
+     * @return returns the definition files of the pages that need to be rebuilt.
+     */
+    public Set<String> affectedPages(Model previous, Model current) {
+        return affectedPages(changedShapes(previous, current));
+    }
+
+    /**
+     * Finds the shapes that differ between two versions of a model.
+     *
+     * <p>A shape differs if it was added, removed, or if its type, traits, or
+     * members changed. A changed member also changes the shape that contains it.
+     *
+     * @param previous The previous version of the model.
+     * @param current The new version of the model.
+     * @return returns the ids of every shape that differs.
+     */
+    public static Set<ShapeId> changedShapes(Model previous, Model current) {
+        Set<ShapeId> changed = new HashSet<>();
+        for (var shape : previous.toSet()) {
+            if (!current.getShape(shape.getId()).map(shape::equals).orElse(false)) {
+                changed.add(shape.getId());
+            }
+        }
+        for (var shape : current.toSet()) {
+            if (!previous.getShape(shape.getId()).isPresent()) {
+                changed.add(shape.getId());
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public Node toNode() {
+        var builder = ObjectNode.builder();
+        new TreeMap<>(pages).forEach((page, reads) -> builder.withMember(page, reads.stream()
+                .map(ShapeId::toString)
+                .sorted()
+                .map(Node::from)
+                .collect(ArrayNode.collect())));
+        return Node.objectNode().withMember("pages", builder.build());
+    }
+
+    /**
+     * Loads page dependencies that were previously written with {@link #toNode}.
+     *
+     * @param node The node to load.
+     * @return returns the loaded page dependencies.
+     */
+    public static PageDependencies fromNode(Node node) {
+        var dependencies = new PageDependencies();
+        var pagesNode = node.expectObjectNode().getObjectMember("pages").orElse(Node.objectNode());
+        for (var entry : pagesNode.getStringMap().entrySet()) {
+            Set<ShapeId> reads = ConcurrentHashMap.newKeySet();
+            for (var element : entry.getValue().expectArrayNode()) {
+                reads.add(element.expectStringNode().expectShapeId());
+            }
+            dependencies.pages.put(entry.getKey(), reads);
+        }
+        return dependencies;
+    }
+}
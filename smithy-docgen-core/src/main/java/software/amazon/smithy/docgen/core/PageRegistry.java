@@ -0,0 +1,55 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+
+/**
+ * Records the pages that were written to the file manifest as soon as they were
+ * complete, rather than being held by the context's writer delegator.
+ *
+ * <p>When the {@code streaming} setting is enabled, each shape page's writer is
+ * discarded once the page is written, so these pages won't be found in
+ * {@link software.amazon.smithy.codegen.core.WriterDelegator#getWriters()}.
+ * Integrations that need to know every page that was generated, for example to
+ * build indexes, should check this registry as well. Pages that have already been
+ * written must not be written to again.
+ */
+@SmithyUnstableApi
+public final class PageRegistry {
+    private final Set<Path> pages = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Records that a page was written.
+     *
+     * @param page The resolved path of the page.
+     * @return returns false if the page was already recorded.
+     */
+    boolean add(Path page) {
+        return pages.add(page);
+    }
+
+    /**
+     * @return returns the resolved paths of every page that was written early.
+     */
+    public Set<Path> pages() {
+        return Collections.unmodifiableSet(pages);
+    }
+
+    /**
+     * Checks whether a page has already been written.
+     *
+     * @param page The resolved path of the page to check.
+     * @return returns true if the page was written early.
+     */
+    public boolean contains(Path page) {
+        return pages.contains(page);
+    }
+}
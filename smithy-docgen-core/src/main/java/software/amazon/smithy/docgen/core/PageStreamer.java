@@ -0,0 +1,71 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static java.lang.String.format;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Consumer;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.codegen.core.WriterDelegator;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+
+/**
+ * Writes shape pages to the file manifest as soon as they're rendered.
+ *
+ * <p>Each page is rendered into its own writer delegator, which is flushed and
+ * discarded once the page is complete, so only the pages currently being rendered
+ * are held in memory. The written pages are recorded in the context's
+ * {@link PageRegistry}.
+ */
+final class PageStreamer {
+    // File manifests aren't required to be thread-safe, so pages rendered in
+    // parallel are written one at a time.
+    private final Object lock = new Object();
+
+    /**
+     * Renders a page and immediately writes it.
+     *
+     * @param context The context used to generate documentation.
+     * @param interceptors The interceptors to register with the page's writers.
+     * @param generator The generator that renders the page.
+     */
+    void render(
+            DocGenerationContext context,
+            List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors,
+            Consumer<DocGenerationContext> generator
+    ) {
+        var delegator = new WriterDelegator<>(
+                context.fileManifest(), context.symbolProvider(), context.docFormat().writerFactory());
+        delegator.setInterceptors(interceptors);
+        generator.accept(context.withWriterDelegator(delegator));
+        flush(context, delegator);
+    }
+
+    /**
+     * Writes every page held by a writer delegator and records them as written.
+     *
+     * @param context The context used to generate documentation.
+     * @param delegator The writer delegator holding rendered pages.
+     */
+    void flush(DocGenerationContext context, WriterDelegator<DocWriter> delegator) {
+        synchronized (lock) {
+            for (var file : delegator.getWriters().keySet()) {
+                var path = context.fileManifest().resolvePath(Paths.get(file));
+                if (!context.pages().add(path)) {
+                    throw new CodegenException(format(
+                            "Attempted to write to %s after it was written to the file manifest. Pages can't be "
+                                    + "written to after they're complete when the `streaming` setting is enabled.",
+                            file));
+                }
+            }
+            context.metrics().time("streaming.flush", delegator::flushWriters);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import software.amazon.smithy.codegen.core.WriterDelegator;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+
+/**
+ * Collects shape page generators and renders them concurrently.
+ *
+ * <p>Generators are partitioned by the definition file of the shape they document,
+ * so every page is owned by exactly one partition. Generators within a partition
+ * run in the order they were submitted, and each partition renders into its own
+ * writer delegator. Once every partition has finished, each delegator's writers
+ * are merged into the context's writer delegator in submission order, so the
+ * output matches rendering serially. Integrations can then write to those pages
+ * just as they could if they were rendered serially.
+ *
+ * <p>When the {@code streaming} setting is enabled, each partition's pages are
+ * instead written as soon as the partition is rendered, so that rendered pages
+ * aren't held until every partition has finished. Since those pages are written
+ * directly, they're recorded in the context's {@link PageRegistry} and can't be
+ * written to again afterward.
+ */
+final class ParallelShapeGenerator {
+    private static final Logger LOGGER = Logger.getLogger(ParallelShapeGenerator.class.getName());
+
+    private final Map<String, List<Consumer<DocGenerationContext>>> partitions = new LinkedHashMap<>();
+    private final PageStreamer pageStreamer = new PageStreamer();
+
+    /**
+     * Queues a generator to be run later.
+     *
+     * @param context The context used to generate documentation.
+     * @param shape The shape whose page the generator renders.
+     * @param generator The generator to run.
+     */
+    void submit(DocGenerationContext context, Shape shape, Consumer<DocGenerationContext> generator) {
+        var definitionFile = context.symbolProvider().toSymbol(shape).getDefinitionFile();
+        partitions.computeIfAbsent(definitionFile, file -> new ArrayList<>()).add(generator);
+    }
+
+    /**
+     * Runs every queued generator and writes the rendered pages.
+     *
+     * @param context The context used to generate documentation.
+     * @param interceptors The interceptors to register with each partition's writers.
+     */
+    void run(
+            DocGenerationContext context,
+            List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors
+    ) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        var parallelism = Runtime.getRuntime().availableProcessors();
+        var pages = partitions.values().stream().mapToInt(List::size).sum();
+        LOGGER.fine(() -> format("Rendering %d pages from %d definition files with a parallelism of %d.",
+                pages, partitions.size(), parallelism));
+
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<WriterDelegator<DocWriter>>> tasks = new ArrayList<>(partitions.size());
+            for (var partition : partitions.values()) {
+                tasks.add(pool.submit(() -> render(context, interceptors, partition)));
+            }
+            for (var task : tasks) {
+                var delegator = task.join();
+                if (!context.settings().streaming()) {
+                    merge(context, delegator);
+                }
+            }
+        } finally {
+            pool.shutdown();
+            partitions.clear();
+        }
+    }
+
+    private WriterDelegator<DocWriter> render(
+            DocGenerationContext context,
+            List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors,
+            List<Consumer<DocGenerationContext>> partition
+    ) {
+        var delegator = new WriterDelegator<>(
+                context.fileManifest(), context.symbolProvider(), context.docFormat().writerFactory());
+        delegator.setInterceptors(interceptors);
+        var partitionContext = context.withWriterDelegator(delegator);
+        for (var generator : partition) {
+            generator.accept(partitionContext);
+        }
+        if (context.settings().streaming()) {
+            pageStreamer.flush(context, delegator);
+        }
+        return delegator;
+    }
+
+    private void merge(DocGenerationContext context, WriterDelegator<DocWriter> delegator) {
+        for (var entry : delegator.getWriters().entrySet()) {
+            var rendered = entry.getValue();
+            context.writerDelegator().useFileWriter(entry.getKey(), writer -> writer.writeContentsOf(rendered));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.util.Set;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ShapeType;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+
+/**
+ * An interceptor that declares which shapes it may intercept.
+ *
+ * <p>Most interceptors only ever react to shapes with a particular trait. By
+ * declaring that trait, the interceptor is only consulted for sections whose
+ * shape has it, rather than having {@link #isIntercepted} called for every
+ * section of its type.
+ *
+ * <p>Scopes are applied to the
+ * {@link software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection},
+ * {@link software.amazon.smithy.docgen.core.sections.ShapeDetailsSection}, and
+ * {@link software.amazon.smithy.docgen.core.sections.ProtocolSection} sections.
+ * Scoped interceptors for any other section are consulted normally.
+ *
+ * <p>A scope only narrows which sections are considered, so {@link #isIntercepted}
+ * is still called for any section within the scope.
+ *
+ * @param <S> The type of section being intercepted.
+ */
+@SmithyUnstableApi
+public interface ScopedInterceptor<S extends CodeSection> extends CodeInterceptor<S, DocWriter> {
+
+    /**
+     * Gets the traits that a shape must have for this interceptor to be consulted.
+     *
+     * <p>A shape is in scope if it has at least one of these traits. For member
+     * shapes, traits on the member's target are also considered. If empty, the
+     * interceptor is not scoped by trait.
+     *
+     * @return returns the ids of the traits that this interceptor reacts to.
+     */
+    default Set<ShapeId> traits() {
+        return Set.of();
+    }
+
+    /**
+     * Gets the types of shapes that this interceptor may be consulted for.
+     *
+     * <p>If empty, the interceptor is not scoped by shape type.
+     *
+     * @return returns the shape types that this interceptor reacts to.
+     */
+    default Set<ShapeType> shapeTypes() {
+        return Set.of();
+    }
+}
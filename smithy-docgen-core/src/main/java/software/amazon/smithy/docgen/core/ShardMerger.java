@@ -0,0 +1,159 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.utils.IoUtils;
+
+/**
+ * Assembles the pages rendered by separate shards into one output directory.
+ *
+ * <p>Pages that the model should have are registered with {@link #expect} while
+ * shapes are generated. Once they all are, {@link #merge} copies in the output of
+ * each shard, checks that every expected page was rendered by exactly one shard,
+ * and registers the merged pages with the context's {@link PageRegistry} so that
+ * integrations will index them.
+ */
+final class ShardMerger {
+    private static final Logger LOGGER = Logger.getLogger(ShardMerger.class.getName());
+    private static final String CONTENT_DIRECTORY = "content";
+
+    private final DocShard shard;
+    private final Set<String> expectedPages = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * @param shard The settings of the merge.
+     */
+    ShardMerger(DocShard shard) {
+        this.shard = shard;
+    }
+
+    /**
+     * Records a page that one of the shards must have rendered.
+     *
+     * @param page The page's definition file.
+     */
+    void expect(String page) {
+        expectedPages.add(page);
+    }
+
+    /**
+     * Writes the file that records which pages a shard rendered.
+     *
+     * @param fileManifest The file manifest to write to.
+     * @param shard The shard that rendered the pages.
+     * @param pages The definition files of the rendered pages.
+     */
+    static void writeShardPages(FileManifest fileManifest, DocShard shard, Set<String> pages) {
+        var node = Node.objectNodeBuilder()
+                .withMember("index", shard.index())
+                .withMember("count", shard.count())
+                .withMember("pages", new TreeSet<>(pages).stream().map(Node::from).collect(ArrayNode.collect()))
+                .build();
+        fileManifest.writeFile(shard.filename(), Node.prettyPrintJson(node) + "\n");
+    }
+
+    /**
+     * Merges the shards into the context's output directory.
+     *
+     * @param context The context of the merge run.
+     * @throws CodegenException if a shard is missing, or if any page is missing or
+     *   was rendered by more than one shard.
+     */
+    void merge(DocGenerationContext context) {
+        var fileManifest = context.fileManifest();
+        for (var directory : shard.directories()) {
+            copy(directory.toAbsolutePath().normalize(), fileManifest);
+        }
+
+        Map<String, Integer> owners = new TreeMap<>();
+        List<String> problems = new ArrayList<>();
+        for (var index = 0; index < shard.count(); index++) {
+            var path = fileManifest.resolvePath(Path.of(DocShard.filename(index)));
+            if (!Files.isRegularFile(path)) {
+                problems.add(format("Shard %d was not found at %s", index, path));
+                continue;
+            }
+            var node = Node.parse(IoUtils.readUtf8File(path)).expectObjectNode();
+            var count = node.expectNumberMember("count").getValue().intValue();
+            if (count != shard.count()) {
+                problems.add(format("Shard %d was rendered as one of %d shards rather than %d",
+                        index, count, shard.count()));
+                continue;
+            }
+            for (var element : node.expectArrayMember("pages")) {
+                var page = element.expectStringNode().getValue();
+                var previous = owners.put(page, index);
+                if (previous != null) {
+                    problems.add(format("%s was rendered by both shard %d and shard %d", page, previous, index));
+                } else if (!expectedPages.contains(page)) {
+                    problems.add(format("%s was rendered by shard %d, but isn't a page of this service", page, index));
+                } else if (!Files.isRegularFile(fileManifest.resolvePath(Path.of(page)))) {
+                    problems.add(format("%s was rendered by shard %d, but was not found", page, index));
+                }
+            }
+        }
+        for (var page : new TreeSet<>(expectedPages)) {
+            if (!owners.containsKey(page)) {
+                problems.add(format("%s was not rendered by any shard", page));
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new CodegenException(format("Unable to merge %d documentation shards:%n  %s",
+                    shard.count(), String.join(System.lineSeparator() + "  ", problems)));
+        }
+
+        for (var page : owners.keySet()) {
+            context.pages().add(fileManifest.resolvePath(Path.of(page)));
+        }
+        LOGGER.info(format("Merged %d pages from %d shards.", owners.size(), shard.count()));
+    }
+
+    private void copy(Path directory, FileManifest fileManifest) {
+        if (directory.equals(fileManifest.getBaseDir().toAbsolutePath().normalize())) {
+            return;
+        }
+        if (!Files.isDirectory(directory)) {
+            throw new CodegenException(format("Documentation shard directory %s was not found.", directory));
+        }
+        LOGGER.fine(() -> "Copying documentation shard from " + directory);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (var file : files.filter(Files::isRegularFile).toList()) {
+                var relative = directory.relativize(file);
+                // Only pages and shard records are copied. Anything else a shard
+                // wrote, like its incremental manifest, only applies to that shard.
+                if (relative.startsWith(CONTENT_DIRECTORY)
+                        || relative.toString().startsWith(DocShard.FILENAME_PREFIX)) {
+                    try (var contents = Files.newInputStream(file)) {
+                        fileManifest.writeFile(relative, contents);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -5,22 +5,37 @@
 
 package software.amazon.smithy.docgen.core;
 
+import static java.lang.String.format;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import software.amazon.smithy.build.FileManifest;
 import software.amazon.smithy.build.PluginContext;
 import software.amazon.smithy.build.SmithyBuildPlugin;
+import software.amazon.smithy.codegen.core.CodegenException;
 import software.amazon.smithy.codegen.core.directed.CodegenDirector;
 import software.amazon.smithy.docgen.core.validation.DocValidationEventDecorator;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.docgen.core.writers.DocWriter.ListType;
 import software.amazon.smithy.linters.InputOutputStructureReuseValidator;
 import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.traits.TitleTrait;
+import software.amazon.smithy.model.transform.ModelTransformer;
 import software.amazon.smithy.model.validation.ValidatedResult;
 import software.amazon.smithy.model.validation.ValidationEvent;
 import software.amazon.smithy.model.validation.ValidationEventDecorator;
 import software.amazon.smithy.model.validation.suppressions.ModelBasedEventDecorator;
+import software.amazon.smithy.utils.Pair;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
@@ -30,6 +45,27 @@ import software.amazon.smithy.utils.SmithyInternalApi;
 public final class SmithyDocPlugin implements SmithyBuildPlugin {
 
     private static final Logger LOGGER = Logger.getLogger(SmithyDocPlugin.class.getName());
+    private static final String SERVICES = "services";
+    private static final String PARALLEL_SERVICES = "parallelServices";
+
+    private final Supplier<Iterable<DocIntegration>> integrationFinder;
+
+    /**
+     * Creates a plugin that discovers integrations with {@link java.util.ServiceLoader}.
+     */
+    public SmithyDocPlugin() {
+        this(null);
+    }
+
+    /**
+     * Creates a plugin that uses the given integrations.
+     *
+     * @param integrationFinder Supplies the integrations to apply on each run, or
+     *   null to discover them with {@link java.util.ServiceLoader} each time.
+     */
+    SmithyDocPlugin(Supplier<Iterable<DocIntegration>> integrationFinder) {
+        this.integrationFinder = integrationFinder;
+    }
 
     @Override
     public String getName() {
@@ -39,20 +75,143 @@ public final class SmithyDocPlugin implements SmithyBuildPlugin {
     @Override
     public void execute(PluginContext pluginContext) {
         LOGGER.fine("Beginning documentation generation.");
+        var metrics = new DocMetrics();
+        var settingsNode = pluginContext.getSettings();
+        var model = metrics.time("validation", () -> getValidatedModel(pluginContext.getModel())).unwrap();
+
+        if (settingsNode.containsMember(SERVICES)) {
+            generateServices(pluginContext, model, metrics);
+        } else {
+            var runner = createRunner(pluginContext.getFileManifest(), model, settingsNode, metrics);
+            runner.runner().performDefaultCodegenTransforms();
+            metrics.time("codegen", runner.runner()::run);
+        }
+
+        if (settingsNode.getBooleanMemberOrDefault("metrics", false)) {
+            pluginContext.getFileManifest()
+                    .writeFile(DocMetrics.FILENAME, Node.prettyPrintJson(metrics.toNode()) + "\n");
+        }
+        LOGGER.fine("Finished documentation generation.");
+    }
+
+    private ServiceRunner createRunner(
+            FileManifest fileManifest,
+            Model model,
+            ObjectNode settingsNode,
+            DocMetrics metrics
+    ) {
         CodegenDirector<DocWriter, DocIntegration, DocGenerationContext, DocSettings> runner
                 = new CodegenDirector<>();
 
-        runner.directedCodegen(new DirectedDocGen());
+        var integrationSettings = settingsNode.getObjectMember("integrations").orElse(Node.objectNode());
+        var directedCodegen = new DirectedDocGen(metrics, integrationSettings);
+        runner.directedCodegen(directedCodegen);
+        // The director requires the integration class even when integrations are
+        // found some other way.
         runner.integrationClass(DocIntegration.class);
-        runner.fileManifest(pluginContext.getFileManifest());
-        runner.model(getValidatedModel(pluginContext.getModel()).unwrap());
-        DocSettings settings = runner.settings(DocSettings.class, pluginContext.getSettings());
+        if (integrationFinder != null) {
+            runner.integrationFinder(integrationFinder);
+        }
+        runner.fileManifest(fileManifest);
+        runner.model(model);
+        DocSettings settings = runner.settings(DocSettings.class, settingsNode);
         runner.service(settings.service());
-        runner.performDefaultCodegenTransforms();
-        runner.run();
-        LOGGER.fine("Finished documentation generation.");
+        return new ServiceRunner(settings.service(), runner, directedCodegen);
     }
 
+    /**
+     * Generates documentation for each of the configured services in one pass.
+     *
+     * <p>The model is validated and transformed once, and each service is
+     * generated from that same model instance. Since knowledge indexes are cached
+     * on the model, they're also only built once. Each service is written to its
+     * own subdirectory, and a landing page linking to each of them is written to
+     * the root of the output directory.
+     */
+    private void generateServices(PluginContext pluginContext, Model model, DocMetrics metrics) {
+        var settingsNode = pluginContext.getSettings();
+        if (settingsNode.containsMember("service")) {
+            throw new CodegenException(
+                    "The docgen `service` and `services` settings are mutually exclusive, but both were set.");
+        }
+        var serviceIds = settingsNode.expectArrayMember(SERVICES).getElementsAs(
+                node -> node.expectStringNode().expectShapeId());
+        if (serviceIds.isEmpty()) {
+            throw new CodegenException("The docgen `services` setting must contain at least one service.");
+        }
+
+        // The default codegen transforms also copy each service's errors onto its
+        // operations, which can't be done once for services that share operations.
+        // Operation pages list service errors through OperationShape#getErrors(ServiceShape)
+        // either way, so only the transform that doesn't depend on the service is applied.
+        var transformed = metrics.time("transform", () -> ModelTransformer.create().flattenAndRemoveMixins(model));
+
+        var baseSettings = settingsNode.withoutMember(SERVICES).withoutMember(PARALLEL_SERVICES);
+        var subdirectories = new HashMap<String, ShapeId>();
+        List<ServiceRunner> runners = new ArrayList<>(serviceIds.size());
+        for (var serviceId : serviceIds) {
+            var existing = subdirectories.put(serviceId.getName(), serviceId);
+            if (existing != null) {
+                throw new CodegenException(format(
+                        "The services %s and %s can't be generated together since they have the same name.",
+                        existing, serviceId));
+            }
+            var fileManifest = new SubdirectoryFileManifest(pluginContext.getFileManifest(), serviceId.getName());
+            var serviceSettings = baseSettings.withMember("service", serviceId.toString());
+            runners.add(createRunner(fileManifest, transformed, serviceSettings, metrics));
+        }
+
+        if (settingsNode.getBooleanMemberOrDefault(PARALLEL_SERVICES, false) && runners.size() > 1) {
+            var parallelism = Math.min(runners.size(), Runtime.getRuntime().availableProcessors());
+            LOGGER.fine(() -> format("Generating %d services with a parallelism of %d.", runners.size(), parallelism));
+            var pool = new ForkJoinPool(parallelism);
+            try {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(runners.size());
+                for (var runner : runners) {
+                    tasks.add(pool.submit(() -> metrics.time("codegen", runner.runner()::run)));
+                }
+                for (var task : tasks) {
+                    task.join();
+                }
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for (var runner : runners) {
+                metrics.time("codegen", runner.runner()::run);
+            }
+        }
+
+        metrics.time("landingPage", () -> writeLandingPage(pluginContext.getFileManifest(), transformed, runners));
+    }
+
+    private void writeLandingPage(FileManifest fileManifest, Model model, List<ServiceRunner> runners) {
+        // This links to the generated sources of each service's index page. With
+        // the sphinx formats each service is built as its own project, and this
+        // page isn't part of any of them.
+        var docFormat = runners.get(0).directedCodegen().docFormat();
+        var filename = "index" + docFormat.extension();
+        var writer = docFormat.writerFactory().apply(filename, "");
+        writer.openHeading("Services");
+        writer.openList(ListType.UNORDERED);
+        for (var runner : runners) {
+            var service = model.expectShape(runner.service(), ServiceShape.class);
+            var title = service.getTrait(TitleTrait.class).map(TitleTrait::getValue).orElse(service.getId().getName());
+            writer.openListItem(ListType.UNORDERED);
+            writer.write("$R", Pair.of(title, format("./%s/content/%s", service.getId().getName(), filename)));
+            writer.closeListItem(ListType.UNORDERED);
+        }
+        writer.closeList(ListType.UNORDERED);
+        writer.closeHeading();
+        fileManifest.writeFile(filename, writer.toString());
+    }
+
+    private record ServiceRunner(
+            ShapeId service,
+            CodegenDirector<DocWriter, DocIntegration, DocGenerationContext, DocSettings> runner,
+            DirectedDocGen directedCodegen
+    ) {}
+
     private ValidatedResult<Model> getValidatedModel(Model model) {
         // This decorator will add context for why these are particularly important for docs.
         ValidationEventDecorator eventDecorator = new DocValidationEventDecorator();
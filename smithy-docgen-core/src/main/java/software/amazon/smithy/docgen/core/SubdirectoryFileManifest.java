@@ -0,0 +1,58 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+import software.amazon.smithy.build.FileManifest;
+
+/**
+ * A file manifest that writes to a subdirectory of another manifest.
+ *
+ * <p>Files are written through the parent manifest, so they're tracked by it
+ * just as if they had been written to it directly. This lets several services
+ * be generated into one plugin's output directory without any of them needing
+ * to know where they're being written to.
+ */
+final class SubdirectoryFileManifest implements FileManifest {
+    private final FileManifest parent;
+    private final Path baseDir;
+
+    SubdirectoryFileManifest(FileManifest parent, String subdirectory) {
+        this.parent = parent;
+        this.baseDir = parent.resolvePath(Path.of(subdirectory));
+    }
+
+    @Override
+    public Path getBaseDir() {
+        return baseDir;
+    }
+
+    @Override
+    public Set<Path> getFiles() {
+        return parent.getFiles().stream()
+                .filter(path -> path.startsWith(baseDir))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Path addFile(Path path) {
+        return parent.addFile(resolvePath(path));
+    }
+
+    @Override
+    public Path writeFile(Path path, Reader fileContentsReader) {
+        return parent.writeFile(resolvePath(path), fileContentsReader);
+    }
+
+    @Override
+    public Path writeFile(Path path, InputStream fileContentsInputStream) {
+        return parent.writeFile(resolvePath(path), fileContentsInputStream);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.codegen.core.CodegenException;
+
+/**
+ * A file manifest that only writes files whose contents differ from what is
+ * already on disk.
+ *
+ * <p>Leaving unchanged files alone preserves their modification times, which
+ * lets tools like sphinx-build skip sources that haven't changed. Files are
+ * first compared by size, and only read back if the sizes match.
+ */
+final class WriteIfChangedFileManifest implements FileManifest {
+    private final FileManifest delegate;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+
+    WriteIfChangedFileManifest(FileManifest delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return returns the number of files that were written.
+     */
+    long written() {
+        return written.sum();
+    }
+
+    /**
+     * @return returns the number of files that were left alone because their
+     *   contents were unchanged.
+     */
+    long unchanged() {
+        return unchanged.sum();
+    }
+
+    @Override
+    public Path getBaseDir() {
+        return delegate.getBaseDir();
+    }
+
+    @Override
+    public Set<Path> getFiles() {
+        return delegate.getFiles();
+    }
+
+    @Override
+    public Path addFile(Path path) {
+        return delegate.addFile(path);
+    }
+
+    @Override
+    public Path writeFile(Path path, Reader fileContentsReader) {
+        var text = new StringWriter();
+        try {
+            fileContentsReader.transferTo(text);
+        } catch (IOException e) {
+            throw new CodegenException(e);
+        }
+        return write(path, text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Path writeFile(Path path, InputStream fileContentsInputStream) {
+        try {
+            return write(path, fileContentsInputStream.readAllBytes());
+        } catch (IOException e) {
+            throw new CodegenException(e);
+        }
+    }
+
+    private Path write(Path path, byte[] contents) {
+        var resolved = resolvePath(path);
+        if (isUnchanged(resolved, contents)) {
+            unchanged.increment();
+            delegate.addFile(resolved);
+            return resolved;
+        }
+        written.increment();
+        return delegate.writeFile(path, new ByteArrayInputStream(contents));
+    }
+
+    private boolean isUnchanged(Path path, byte[] contents) {
+        try {
+            return Files.isRegularFile(path)
+                    && Files.size(path) == contents.length
+                    && Arrays.equals(Files.readAllBytes(path), contents);
+        } catch (IOException e) {
+            // If the existing file can't be read, it should just be overwritten.
+            return false;
+        }
+    }
+}
@@ -5,10 +5,10 @@
 
 package software.amazon.smithy.docgen.core.generators;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Consumer;
+import java.util.Map;
 import software.amazon.smithy.docgen.core.DocGenerationContext;
 import software.amazon.smithy.docgen.core.DocSymbolProvider;
 import software.amazon.smithy.docgen.core.sections.BoundOperationSection;
@@ -19,13 +19,11 @@ import software.amazon.smithy.docgen.core.sections.ProtocolSection;
 import software.amazon.smithy.docgen.core.sections.ProtocolsSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.ListType;
-import software.amazon.smithy.model.knowledge.ServiceIndex;
 import software.amazon.smithy.model.shapes.EntityShape;
 import software.amazon.smithy.model.shapes.OperationShape;
 import software.amazon.smithy.model.shapes.ResourceShape;
 import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.shapes.ShapeId;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.CodeSection;
 import software.amazon.smithy.utils.SmithyInternalApi;
 import software.amazon.smithy.utils.StringUtils;
@@ -104,91 +102,51 @@ final class GeneratorUtils {
     }
 
     static void writeProtocolsSection(DocGenerationContext context, DocWriter writer, Shape shape) {
-        var protocols = ServiceIndex.of(context.model()).getProtocols(context.settings().service()).keySet();
+        var protocols = context.knowledge().protocols();
         if (protocols.isEmpty()) {
             return;
         }
         writer.pushState(new ProtocolsSection(context, shape));
 
-        AtomicReference<String> tabGroupContents = new AtomicReference<>();
-        var tabGroup = capture(writer, tabGroupWriter -> {
-            tabGroupWriter.openTabGroup();
-            tabGroupContents.set(capture(tabGroupWriter, w -> {
-                for (var protocol : protocols) {
-                    writeProtocolSection(context, w, shape, protocol);
+        // Only protocols that something will actually write to get a tab, so the
+        // tab group is only opened if at least one of them does. Each section is
+        // rendered into a scoped buffer first so that one that only writes
+        // whitespace doesn't get an empty tab either.
+        Map<ShapeId, String> rendered = new LinkedHashMap<>(protocols.size());
+        for (var protocol : protocols) {
+            var section = new ProtocolSection(context, shape, protocol);
+            if (context.isIntercepted(section)) {
+                var contents = render(writer, section);
+                if (!StringUtils.isBlank(contents)) {
+                    rendered.put(protocol, contents);
                 }
-            }));
-            tabGroupWriter.closeTabGroup();
-        });
+            }
+        }
 
-        if (StringUtils.isBlank(tabGroupContents.get())) {
-            // The extra newline is needed because the section intercepting logic actually adds one
-            // by virtue of calling write instead of writeInline
-            writer.unwrite("$L\n", tabGroup);
+        if (!rendered.isEmpty()) {
+            writer.openTabGroup();
+            for (var entry : rendered.entrySet()) {
+                var protocolSymbol = context.symbolProvider().toSymbol(context.model().expectShape(entry.getKey()));
+                writer.openTab(protocolSymbol.getName());
+                writer.writeInlineWithNoFormatting(entry.getValue());
+                writer.closeTab();
+            }
+            writer.closeTabGroup();
         }
 
         writer.popState();
     }
 
-    private static void writeProtocolSection(
-            DocGenerationContext context,
-            DocWriter writer,
-            Shape shape,
-            ShapeId protocol
-    ) {
-        var protocolSymbol = context.symbolProvider().toSymbol(context.model().expectShape(protocol));
-
-        AtomicReference<String> tabContents = new AtomicReference<>();
-        var tab = capture(writer, tabWriter -> {
-            tabWriter.openTab(protocolSymbol.getName());
-            tabContents.set(capture(tabWriter, w2 -> tabWriter.injectSection(
-                    new ProtocolSection(context, shape, protocol))));
-            tabWriter.closeTab();
+    // Renders a section without writing it, returning exactly what injecting it
+    // would have written.
+    private static String render(DocWriter writer, CodeSection section) {
+        var contents = new StringBuilder();
+        writer.pushFilteredState(text -> {
+            contents.append(text);
+            return "";
         });
-
-        if (StringUtils.isBlank(tabContents.get())) {
-            // The extra newline is needed because the section intercepting logic actually adds one
-            // by virtue of calling write instead of writeInline
-            writer.unwrite("$L\n", tab);
-        }
-    }
-
-    /**
-     * Captures and returns what is written by the given consumer.
-     *
-     * @param writer The writer to capture from.
-     * @param consumer A consumer that writes text to be captured.
-     * @return Returns what was written by the consumer.
-     */
-    private static String capture(DocWriter writer, Consumer<DocWriter> consumer) {
-        var recorder = new RecordingInterceptor();
-        writer.pushState(new CapturingSection()).onSection(recorder);
-        consumer.accept(writer);
+        writer.injectSection(section);
         writer.popState();
-        return recorder.getContents();
-    }
-
-    private record CapturingSection() implements CodeSection {}
-
-    /**
-     * Records what was written to the section previously and writes it back.
-     */
-    private static final class RecordingInterceptor implements CodeInterceptor<CapturingSection, DocWriter> {
-        private String contents = null;
-
-        public String getContents() {
-            return contents;
-        }
-
-        @Override
-        public Class<CapturingSection> sectionType() {
-            return CapturingSection.class;
-        }
-
-        @Override
-        public void write(DocWriter writer, String previousText, CapturingSection section) {
-            contents = previousText;
-            writer.writeWithNoFormatting(previousText);
-        }
+        return contents.toString();
     }
 }
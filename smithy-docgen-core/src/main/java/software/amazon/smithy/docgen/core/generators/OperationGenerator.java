@@ -96,22 +96,31 @@ public final class OperationGenerator
         implements Consumer<GenerateOperationDirective<DocGenerationContext, DocSettings>> {
     @Override
     public void accept(GenerateOperationDirective<DocGenerationContext, DocSettings> directive) {
-        var operation = directive.shape();
-        var context = directive.context();
-        var symbol = directive.symbolProvider().toSymbol(operation);
-        context.writerDelegator().useShapeWriter(directive.shape(), writer -> {
+        accept(directive.context(), directive.shape());
+    }
+
+    /**
+     * Generates documentation for the given operation.
+     *
+     * @param context The context used to generate documentation.
+     * @param operation The operation to generate documentation for.
+     */
+    public void accept(DocGenerationContext context, OperationShape operation) {
+        var service = context.model().expectShape(context.settings().service(), ServiceShape.class);
+        var symbol = context.symbolProvider().toSymbol(operation);
+        context.writerDelegator().useShapeWriter(operation, writer -> {
             writer.pushState(new ShapeSection(context, operation));
             var linkId = symbol.expectProperty(DocSymbolProvider.LINK_ID_PROPERTY, String.class);
             writer.openHeading(symbol.getName(), linkId);
             writer.injectSection(new ShapeSubheadingSection(context, operation));
-            writer.writeShapeDocs(operation, directive.model());
+            writer.writeShapeDocs(operation, context.model());
             writer.injectSection(new ShapeDetailsSection(context, operation));
             GeneratorUtils.writeProtocolsSection(context, writer, operation);
 
             new MemberGenerator(context, writer, operation, MemberListingType.INPUT).run();
             new MemberGenerator(context, writer, operation, MemberListingType.OUTPUT).run();
 
-            writeErrors(context, writer, directive.service(), operation, linkId);
+            writeErrors(context, writer, service, operation, linkId);
 
             var examples = operation.getTrait(ExamplesTrait.class).map(ExamplesTrait::getExamples).orElse(List.of());
             writeExamples(context, writer, operation, examples, linkId);
@@ -9,15 +9,12 @@ import java.util.function.Consumer;
 import software.amazon.smithy.codegen.core.directed.GenerateServiceDirective;
 import software.amazon.smithy.docgen.core.DocGenerationContext;
 import software.amazon.smithy.docgen.core.DocSettings;
-import software.amazon.smithy.docgen.core.DocgenUtils;
 import software.amazon.smithy.docgen.core.sections.AuthSection;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.docgen.core.sections.ShapeSection;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
-import software.amazon.smithy.model.knowledge.ServiceIndex;
 import software.amazon.smithy.model.knowledge.ServiceIndex.AuthSchemeMode;
-import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.shapes.ServiceShape;
 import software.amazon.smithy.model.traits.synthetic.NoAuthTrait;
 import software.amazon.smithy.utils.SmithyInternalApi;
@@ -89,14 +86,9 @@ public final class ServiceGenerator implements Consumer<GenerateServiceDirective
             writer.writeShapeDocs(service, directive.model());
             writer.injectSection(new ShapeDetailsSection(context, service));
 
-            var topDownIndex = TopDownIndex.of(context.model());
-
-            // TODO: topographically sort resources
-            var resources = topDownIndex.getContainedResources(service).stream().sorted().toList();
-            GeneratorUtils.generateResourceListing(context, writer, service, resources);
-
-            var operations = topDownIndex.getContainedOperations(service).stream().sorted().toList();
-            GeneratorUtils.generateOperationListing(context, writer, service, operations);
+            var knowledge = context.knowledge();
+            GeneratorUtils.generateResourceListing(context, writer, service, knowledge.containedResources());
+            GeneratorUtils.generateOperationListing(context, writer, service, knowledge.containedOperations());
 
             writeAuthSection(context, writer, service);
 
@@ -106,7 +98,7 @@ public final class ServiceGenerator implements Consumer<GenerateServiceDirective
     }
 
     private void writeAuthSection(DocGenerationContext context, DocWriter writer, ServiceShape service) {
-        var authSchemes = DocgenUtils.getPrioritizedServiceAuth(context.model(), service);
+        var authSchemes = context.knowledge().prioritizedAuth();
         if (authSchemes.isEmpty()) {
             return;
         }
@@ -114,7 +106,7 @@ public final class ServiceGenerator implements Consumer<GenerateServiceDirective
         writer.pushState(new AuthSection(context, service));
         writer.openHeading("Auth");
 
-        var index = ServiceIndex.of(context.model());
+        var index = context.knowledge().serviceIndex();
         writer.putContext("optional", index.getEffectiveAuthSchemes(service, AuthSchemeMode.NO_AUTH_AWARE)
                 .containsKey(NoAuthTrait.ID));
         writer.putContext("multipleSchemes", authSchemes.size() > 1);
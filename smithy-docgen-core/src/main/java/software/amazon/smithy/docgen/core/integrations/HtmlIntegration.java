@@ -0,0 +1,161 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static java.lang.String.format;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import software.amazon.smithy.docgen.core.DocFormat;
+import software.amazon.smithy.docgen.core.DocGenerationContext;
+import software.amazon.smithy.docgen.core.DocIntegration;
+import software.amazon.smithy.docgen.core.DocSettings;
+import software.amazon.smithy.docgen.core.writers.DocWriter.ListType;
+import software.amazon.smithy.docgen.core.writers.HtmlWriter;
+import software.amazon.smithy.model.shapes.ServiceShape;
+import software.amazon.smithy.utils.IoUtils;
+import software.amazon.smithy.utils.Pair;
+import software.amazon.smithy.utils.SmithyInternalApi;
+import software.amazon.smithy.utils.StringUtils;
+
+/**
+ * Adds the {@code html} format, which renders a static site without any external tools.
+ *
+ * <p>Alongside the pages themselves, this writes a default stylesheet and an
+ * {@code index.html} for each directory of pages, which is linked to from the
+ * service's page. Directories that already contain an {@code index.html} are
+ * left alone.
+ *
+ * <p>This integration runs in low priority so that pages generated by other
+ * integrations are included in the indexes.
+ */
+@SmithyInternalApi
+public final class HtmlIntegration implements DocIntegration {
+    private static final String HTML_FORMAT = "html";
+    private static final String INDEX_FILE = "index.html";
+    private static final Logger LOGGER = Logger.getLogger(HtmlIntegration.class.getName());
+
+    @Override
+    public String name() {
+        return "html";
+    }
+
+    @Override
+    public byte priority() {
+        // Run at the end so that any integration-generated pages are indexed.
+        return -128;
+    }
+
+    @Override
+    public List<DocFormat> docFormats(DocSettings settings) {
+        return List.of(
+            new DocFormat(HTML_FORMAT, ".html", new HtmlWriter.Factory())
+        );
+    }
+
+    @Override
+    public void customize(DocGenerationContext context) {
+        if (!context.docFormat().name().equals(HTML_FORMAT)) {
+            LOGGER.finest(format(
+                "Format %s is not an html format, skipping html site setup.",
+                context.docFormat().name()
+            ));
+            return;
+        }
+        if (context.settings().isPartial()) {
+            LOGGER.info("Only one shard of the documentation was generated, so html site files "
+                    + "will be generated when the shards are merged.");
+            return;
+        }
+        LOGGER.info("Generating html site files.");
+        context.metrics().time("html.site", () -> {
+            writeStylesheet(context);
+            writeIndexes(context);
+        });
+    }
+
+    private void writeStylesheet(DocGenerationContext context) {
+        var stylesheet = IoUtils.readUtf8Resource(HtmlIntegration.class, "html/docgen.css");
+        context.fileManifest().writeFile("content/" + HtmlWriter.STYLESHEET, stylesheet);
+    }
+
+    private void writeIndexes(DocGenerationContext context) {
+        var baseDir = context.fileManifest().getBaseDir();
+        Set<Path> paths = new HashSet<>(context.fileManifest().getFiles());
+        // Pages that were streamed no longer have writers, but their paths are kept.
+        paths.addAll(context.pages().pages());
+        for (var stagedFile : context.writerDelegator().getWriters().keySet()) {
+            paths.add(context.fileManifest().resolvePath(Paths.get(stagedFile)));
+        }
+
+        Map<Path, Set<Path>> directories = paths.stream()
+                .filter(path -> path.toString().endsWith(".html"))
+                .collect(Collectors.groupingBy(Path::getParent, Collectors.toSet()));
+
+        var service = context.model().expectShape(context.settings().service(), ServiceShape.class);
+        var serviceSymbol = context.symbolProvider().toSymbol(service);
+        var serviceDirectory = context.fileManifest().resolvePath(
+                Paths.get(serviceSymbol.getDefinitionFile()).getParent());
+
+        var indexedDirectories = directories.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(serviceDirectory))
+                .filter(entry -> entry.getValue().stream().noneMatch(this::isIndex))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+
+        for (var directory : indexedDirectories) {
+            writeIndex(context, baseDir.relativize(directory), directories.get(directory));
+        }
+
+        if (!indexedDirectories.isEmpty()) {
+            context.writerDelegator().useShapeWriter(service, writer -> {
+                writer.openList(ListType.UNORDERED);
+                for (var directory : indexedDirectories) {
+                    var relative = serviceDirectory.relativize(directory);
+                    writer.openListItem(ListType.UNORDERED);
+                    writer.write("$R", Pair.of(
+                            StringUtils.capitalize(directory.getFileName().toString()),
+                            format("./%s/%s", relative.toString().replace('\\', '/'), INDEX_FILE)));
+                    writer.closeListItem(ListType.UNORDERED);
+                }
+                writer.closeList(ListType.UNORDERED);
+            });
+        }
+    }
+
+    private boolean isIndex(Path path) {
+        var fileName = path.getFileName();
+        return fileName != null && fileName.toString().equals(INDEX_FILE);
+    }
+
+    private void writeIndex(DocGenerationContext context, Path directory, Set<Path> contents) {
+        var pages = contents.stream()
+                .map(Path::getFileName)
+                .map(Object::toString)
+                .distinct()
+                .sorted()
+                .toList();
+
+        context.writerDelegator().useFileWriter(directory.resolve(INDEX_FILE).toString(), writer -> {
+            writer.openHeading(StringUtils.capitalize(directory.getFileName().toString()));
+            writer.openList(ListType.UNORDERED);
+            for (var page : pages) {
+                writer.openListItem(ListType.UNORDERED);
+                writer.write("$R", Pair.of(page.substring(0, page.length() - ".html".length()), "./" + page));
+                writer.closeListItem(ListType.UNORDERED);
+            }
+            writer.closeList(ListType.UNORDERED);
+            writer.closeHeading();
+        });
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single line of a python requirements file, such as {@code Sphinx>=8.0,<9}.
+ *
+ * <p>Only plain requirements are supported: a project name followed by any
+ * number of version specifiers. Requirements with extras, environment markers,
+ * or URLs can't be checked against an installed distribution without pip, so
+ * they fail to parse and are treated as unsatisfied.
+ *
+ * <p>Versions are ordered as described in PEP 440: by their release segment,
+ * then their pre-release, post-release, and development segments, in that order.
+ * As in pip, pre-releases and development releases only satisfy a requirement if
+ * one of its specifiers names a pre-release or development release. Epochs and
+ * local version labels are ignored.
+ *
+ * @param name The project name, normalized as described in PEP 503.
+ * @param specifiers The version specifiers, each an operator and a version.
+ */
+record PythonRequirement(String name, List<Specifier> specifiers) {
+    private static final Pattern REQUIREMENT = Pattern.compile("^([A-Za-z0-9][A-Za-z0-9._-]*)\\s*(.*)$");
+    private static final Pattern SPECIFIER = Pattern.compile("^(===|==|!=|~=|<=|>=|<|>)\\s*([A-Za-z0-9.*+!_-]+)$");
+    private static final Pattern VERSION = Pattern.compile(
+            "^v?(?:\\d+!)?(\\d+(?:\\.\\d+)*)(?:[-_.]?(a|b|c|rc|alpha|beta|pre|preview)[-_.]?(\\d*))?"
+                    + "(?:[-_.]?(post|rev|r)[-_.]?(\\d*)|-(\\d+))?(?:[-_.]?(dev)[-_.]?(\\d*))?(?:\\+.*)?$");
+
+    // A development release of a final version, like 1.0.dev1, sorts before every
+    // pre-release of that version, and a version without a pre-release segment
+    // sorts after all of them. Pre-release labels are ranked between the two.
+    private static final int DEV_RELEASE = -1;
+    private static final int NO_PRE_RELEASE = Integer.MAX_VALUE;
+
+    // A version without a post-release segment sorts before every post-release,
+    // and one without a development segment sorts after every development release.
+    private static final int NO_POST_RELEASE = -1;
+    private static final int NO_DEV_RELEASE = Integer.MAX_VALUE;
+
+    /**
+     * A single version specifier, such as {@code >=8.0}.
+     *
+     * @param operator The comparison operator.
+     * @param version The version to compare to.
+     */
+    record Specifier(String operator, String version) {}
+
+    /**
+     * Parses a requirement.
+     *
+     * @param line A line from a requirements file.
+     * @return returns the parsed requirement, or empty if it can't be checked.
+     */
+    static Optional<PythonRequirement> parse(String line) {
+        var comment = line.indexOf('#');
+        var text = (comment >= 0 ? line.substring(0, comment) : line).strip();
+        Matcher matcher = REQUIREMENT.matcher(text);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        List<Specifier> specifiers = new ArrayList<>();
+        if (!matcher.group(2).isEmpty()) {
+            for (var part : matcher.group(2).split(",")) {
+                var specifierMatcher = SPECIFIER.matcher(part.strip());
+                if (!specifierMatcher.matches()) {
+                    return Optional.empty();
+                }
+                specifiers.add(new Specifier(specifierMatcher.group(1), specifierMatcher.group(2)));
+            }
+        }
+        return Optional.of(new PythonRequirement(normalizeName(matcher.group(1)), specifiers));
+    }
+
+    /**
+     * Normalizes a project name so that names that pip considers equal are equal.
+     *
+     * @param name The name to normalize.
+     * @return returns the normalized name.
+     */
+    static String normalizeName(String name) {
+        return name.toLowerCase(Locale.ENGLISH).replaceAll("[-_.]+", "-");
+    }
+
+    /**
+     * Checks whether an installed version satisfies every specifier.
+     *
+     * @param installedVersion The version that's installed.
+     * @return returns true if the installed version satisfies the requirement.
+     */
+    boolean isSatisfiedBy(String installedVersion) {
+        if (parseVersion(installedVersion).isPreRelease() && !allowsPreReleases()) {
+            return false;
+        }
+        for (var specifier : specifiers) {
+            if (!matches(specifier, installedVersion)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean allowsPreReleases() {
+        for (var specifier : specifiers) {
+            var version = specifier.version();
+            if (version.endsWith(".*")) {
+                version = version.substring(0, version.length() - 2);
+            }
+            if (!specifier.operator().equals("!=") && parseVersion(version).isPreRelease()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(Specifier specifier, String installed) {
+        var expected = specifier.version();
+        return switch (specifier.operator()) {
+            case "===" -> installed.equals(expected);
+            case "==" -> equalsVersion(installed, expected);
+            case "!=" -> !equalsVersion(installed, expected);
+            case "~=" -> isCompatible(installed, expected);
+            case "<=" -> compare(installed, expected) <= 0;
+            case ">=" -> compare(installed, expected) >= 0;
+            case "<" -> isLessThan(installed, expected);
+            case ">" -> isGreaterThan(installed, expected);
+            default -> false;
+        };
+    }
+
+    private static boolean isLessThan(String installed, String expected) {
+        // <1.0 doesn't match pre-releases of 1.0 unless it names a pre-release itself.
+        var installedVersion = parseVersion(installed);
+        var expectedVersion = parseVersion(expected);
+        if (!expectedVersion.isPreRelease() && installedVersion.isPreRelease()
+                && installedVersion.hasSameRelease(expectedVersion)) {
+            return false;
+        }
+        return compare(installed, expected) < 0;
+    }
+
+    private static boolean isGreaterThan(String installed, String expected) {
+        // >1.0 doesn't match post-releases of 1.0 unless it names a post-release itself.
+        var installedVersion = parseVersion(installed);
+        var expectedVersion = parseVersion(expected);
+        if (expectedVersion.post() == NO_POST_RELEASE && installedVersion.post() != NO_POST_RELEASE
+                && installedVersion.hasSameRelease(expectedVersion)) {
+            return false;
+        }
+        return compare(installed, expected) > 0;
+    }
+
+    private static boolean isCompatible(String installed, String expected) {
+        // Compatible releases are at least the version, and share all but the
+        // last part of its release segment.
+        var release = parseVersion(expected).release();
+        if (release.size() < 2) {
+            return false;
+        }
+        var prefix = String.join(".", release.subList(0, release.size() - 1).stream()
+                .map(String::valueOf)
+                .toList());
+        return compare(installed, expected) >= 0 && equalsVersion(installed, prefix + ".*");
+    }
+
+    private static boolean equalsVersion(String installed, String expected) {
+        if (!expected.endsWith(".*")) {
+            return compare(installed, expected) == 0;
+        }
+        var prefix = parseVersion(expected.substring(0, expected.length() - 2)).release();
+        var release = parseVersion(installed).release();
+        for (var i = 0; i < prefix.size(); i++) {
+            var part = i < release.size() ? release.get(i) : 0;
+            if (part != prefix.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares two versions.
+     *
+     * @param left The first version.
+     * @param right The second version.
+     * @return returns a negative number, zero, or a positive number if the first
+     *   version is less than, equal to, or greater than the second.
+     */
+    static int compare(String left, String right) {
+        var leftVersion = parseVersion(left);
+        var rightVersion = parseVersion(right);
+        var result = Boolean.compare(leftVersion.isValid(), rightVersion.isValid());
+        if (result != 0) {
+            return result;
+        }
+        var length = Math.max(leftVersion.release().size(), rightVersion.release().size());
+        for (var i = 0; i < length; i++) {
+            result = Integer.compare(leftVersion.part(i), rightVersion.part(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        result = Integer.compare(leftVersion.preStage(), rightVersion.preStage());
+        if (result != 0) {
+            return result;
+        }
+        result = Integer.compare(leftVersion.preNumber(), rightVersion.preNumber());
+        if (result != 0) {
+            return result;
+        }
+        result = Integer.compare(leftVersion.post(), rightVersion.post());
+        if (result != 0) {
+            return result;
+        }
+        return Integer.compare(leftVersion.dev(), rightVersion.dev());
+    }
+
+    private static Version parseVersion(String version) {
+        var matcher = VERSION.matcher(version.strip().toLowerCase(Locale.ENGLISH));
+        if (!matcher.matches()) {
+            // Anything that isn't a valid version sorts before every valid version.
+            return new Version(List.of(), NO_PRE_RELEASE, 0, NO_POST_RELEASE, NO_DEV_RELEASE);
+        }
+        List<Integer> release = new ArrayList<>();
+        for (var part : matcher.group(1).split("\\.")) {
+            release.add(Integer.parseInt(part));
+        }
+
+        var post = NO_POST_RELEASE;
+        if (matcher.group(4) != null) {
+            post = number(matcher.group(5));
+        } else if (matcher.group(6) != null) {
+            post = number(matcher.group(6));
+        }
+        var dev = matcher.group(7) != null ? number(matcher.group(8)) : NO_DEV_RELEASE;
+
+        var preStage = NO_PRE_RELEASE;
+        var preNumber = 0;
+        if (matcher.group(2) != null) {
+            preStage = preReleaseStage(matcher.group(2));
+            preNumber = number(matcher.group(3));
+        } else if (dev != NO_DEV_RELEASE && post == NO_POST_RELEASE) {
+            preStage = DEV_RELEASE;
+        }
+        return new Version(release, preStage, preNumber, post, dev);
+    }
+
+    private static int preReleaseStage(String label) {
+        // Alternate spellings are normalized so that the labels sort as a < b < rc.
+        return switch (label) {
+            case "a", "alpha" -> 0;
+            case "b", "beta" -> 1;
+            default -> 2;
+        };
+    }
+
+    private static int number(String digits) {
+        return digits == null || digits.isEmpty() ? 0 : Integer.parseInt(digits);
+    }
+
+    private record Version(List<Integer> release, int preStage, int preNumber, int post, int dev) {
+        boolean isValid() {
+            return !release.isEmpty();
+        }
+
+        boolean isPreRelease() {
+            return preStage != NO_PRE_RELEASE || dev != NO_DEV_RELEASE;
+        }
+
+        boolean hasSameRelease(Version other) {
+            var length = Math.max(release.size(), other.release().size());
+            for (var i = 0; i < length; i++) {
+                if (part(i) != other.part(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int part(int index) {
+            return index < release.size() ? release.get(index) : 0;
+        }
+    }
+}
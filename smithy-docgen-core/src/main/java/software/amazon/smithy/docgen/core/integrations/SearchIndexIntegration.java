@@ -0,0 +1,270 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static java.lang.String.format;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.docgen.core.DocGenerationContext;
+import software.amazon.smithy.docgen.core.DocIntegration;
+import software.amazon.smithy.docgen.core.DocSettings;
+import software.amazon.smithy.docgen.core.DocSymbolProvider;
+import software.amazon.smithy.model.neighbor.Walker;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.utils.SmithyInternalApi;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+import software.amazon.smithy.utils.StringUtils;
+
+/**
+ * Writes a search index for every documented shape, sharded by term prefix.
+ *
+ * <p>Each shape that can be linked to is indexed under its name, as well as each
+ * word in its name, so {@code GetForecastInput} can be found by searching for
+ * {@code getforecastinput}, {@code get}, {@code forecast}, or {@code input}.
+ * Terms are lowercased, and each term is stored in the shard named after its
+ * first {@link SearchIndexSettings#prefixLength} characters. A search client
+ * only needs to download {@code index.json} and the shards for the prefixes
+ * being searched for, rather than one index of the whole site.
+ *
+ * <p>The index is written to {@code content/_static/search}, so it's copied into
+ * the output of both the {@code html} and {@code sphinx-markdown} formats. The
+ * {@code index.json} file lists the shards and how they're encoded. Each shard is
+ * a JSON object with a {@code docs} array and a {@code terms} object. Each
+ * document is an array of the shape id, title, page, anchor, and shape type,
+ * where the page is the path of the shape's page relative to the content
+ * directory without its file extension. Each term maps to the indexes of the
+ * documents it matches in that shard's {@code docs}.
+ *
+ * <p>The index is only written if enabled in the integration settings, which are
+ * set under the {@code search} key of the plugin's {@code integrations} config:
+ *
+ * <pre>{@code
+ * {
+ *     "version": "1.0",
+ *     "projections": {
+ *         "sphinx-markdown": {
+ *             "plugins": {
+ *                 "docgen": {
+ *                     "service": "com.example#DocumentedService",
+ *                     "integrations": {
+ *                         "search": {
+ *                             "enabled": true,
+ *                             "gzip": true
+ *                         }
+ *                     }
+ *                 }
+ *             }
+ *         }
+ *     }
+ * }
+ * }</pre>
+ */
+@SmithyInternalApi
+public final class SearchIndexIntegration implements DocIntegration {
+    private static final Logger LOGGER = Logger.getLogger(SearchIndexIntegration.class.getName());
+    private static final String DIRECTORY = "content/_static/search/";
+    private static final String CONTENT_DIRECTORY = "content/";
+    private static final String VERSION = "1.0";
+
+    // Splits names into words at case changes and at anything that isn't a letter
+    // or number, so "HTTPRequestID" becomes "HTTP", "Request", and "ID".
+    private static final Pattern WORD_BOUNDARY = Pattern.compile(
+            "(?<=[a-z0-9])(?=[A-Z])|(?<=[A-Z])(?=[A-Z][a-z])|[^A-Za-z0-9]+");
+
+    private SearchIndexSettings settings = SearchIndexSettings.fromNode(Node.objectNode());
+
+    @Override
+    public String name() {
+        return "search";
+    }
+
+    @Override
+    public void configure(DocSettings settings, ObjectNode integrationSettings) {
+        this.settings = SearchIndexSettings.fromNode(integrationSettings);
+    }
+
+    @Override
+    public void customize(DocGenerationContext context) {
+        if (!settings.enabled()) {
+            LOGGER.finest("The search index is disabled, skipping it.");
+            return;
+        }
+        if (context.settings().isPartial()) {
+            LOGGER.finest("Only one shard of the documentation was generated, skipping the search index.");
+            return;
+        }
+        context.metrics().time("search.index", () -> writeIndex(context));
+    }
+
+    private void writeIndex(DocGenerationContext context) {
+        Map<String, Shard> shards = new TreeMap<>();
+        var service = context.model().expectShape(context.settings().service());
+        var shapes = new Walker(context.model()).walkShapes(service).stream().sorted().toList();
+        var documents = 0;
+        for (var shape : shapes) {
+            var document = createDocument(context, shape);
+            if (document == null) {
+                continue;
+            }
+            documents++;
+            for (var term : getTerms(shape, document.get(1).get().expectStringNode().getValue())) {
+                var prefix = term.substring(0, Math.min(settings.prefixLength(), term.length()));
+                shards.computeIfAbsent(prefix, p -> new Shard()).add(term, document);
+            }
+        }
+
+        var extension = settings.gzip() ? ".json.gz" : ".json";
+        for (var shard : shards.entrySet()) {
+            writeFile(context, shard.getKey() + extension, Node.printJson(shard.getValue().toNode()), settings.gzip());
+        }
+        var index = Node.objectNodeBuilder()
+                .withMember("version", VERSION)
+                .withMember("prefixLength", settings.prefixLength())
+                .withMember("extension", extension)
+                .withMember("shards", shards.keySet().stream().map(Node::from).collect(ArrayNode.collect()))
+                .build();
+        writeFile(context, "index.json", Node.printJson(index), false);
+        LOGGER.info(format("Indexed %d shapes into %d search shards.", documents, shards.size()));
+    }
+
+    private ArrayNode createDocument(DocGenerationContext context, Shape shape) {
+        var symbol = context.symbolProvider().toSymbol(shape);
+        var linkId = symbol.getProperty(DocSymbolProvider.LINK_ID_PROPERTY, String.class);
+        var definitionFile = symbol.getDefinitionFile();
+        if (StringUtils.isBlank(definitionFile) || linkId.isEmpty() || StringUtils.isBlank(linkId.get())) {
+            return null;
+        }
+
+        var page = definitionFile.replace('\\', '/');
+        if (page.startsWith(CONTENT_DIRECTORY)) {
+            page = page.substring(CONTENT_DIRECTORY.length());
+        }
+        var extension = page.lastIndexOf('.');
+        if (extension > page.lastIndexOf('/')) {
+            page = page.substring(0, extension);
+        }
+
+        var title = shape.getId().getMember()
+                .map(member -> symbol.getName() + "." + member)
+                .orElse(symbol.getName());
+        return ArrayNode.fromStrings(
+                shape.getId().toString(), title, page, linkId.get(), shape.getType().toString());
+    }
+
+    private Set<String> getTerms(Shape shape, String title) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (var name : List.of(shape.getId().getName(), shape.getId().getMember().orElse(""), title)) {
+            var normalized = normalize(name);
+            if (!normalized.isEmpty()) {
+                terms.add(normalized);
+            }
+            for (var word : WORD_BOUNDARY.split(name)) {
+                if (!word.isEmpty()) {
+                    terms.add(normalize(word));
+                }
+            }
+        }
+        return terms;
+    }
+
+    private String normalize(String text) {
+        return text.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ENGLISH);
+    }
+
+    private void writeFile(DocGenerationContext context, String filename, String contents, boolean gzip) {
+        var bytes = contents.getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            var compressed = new ByteArrayOutputStream();
+            try (var stream = new GZIPOutputStream(compressed)) {
+                stream.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bytes = compressed.toByteArray();
+        }
+        context.fileManifest().writeFile(Path.of(DIRECTORY + filename), new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * The terms that share a prefix, along with the documents they match.
+     */
+    private static final class Shard {
+        private final List<ArrayNode> documents = new ArrayList<>();
+        private final Map<ArrayNode, Integer> documentIndexes = new HashMap<>();
+        private final Map<String, List<Integer>> terms = new TreeMap<>();
+
+        void add(String term, ArrayNode document) {
+            var index = documentIndexes.computeIfAbsent(document, d -> {
+                documents.add(d);
+                return documents.size() - 1;
+            });
+            terms.computeIfAbsent(term, t -> new ArrayList<>()).add(index);
+        }
+
+        ObjectNode toNode() {
+            var termsNode = ObjectNode.builder();
+            terms.forEach((term, indexes) -> termsNode.withMember(term, indexes.stream()
+                    .map(Node::from)
+                    .collect(ArrayNode.collect())));
+            return Node.objectNodeBuilder()
+                    .withMember("docs", ArrayNode.fromNodes(documents.toArray(new Node[0])))
+                    .withMember("terms", termsNode.build())
+                    .build();
+        }
+    }
+
+    /**
+     * Settings for the search index.
+     *
+     * @param enabled Whether to write the search index. The default is false.
+     * @param prefixLength The number of leading characters of each term that are
+     *                     used to pick its shard. Longer prefixes create more, smaller
+     *                     shards. The default is 2.
+     * @param gzip Whether to gzip each shard. Shards are written with a
+     *             {@code .json.gz} extension when set, and must be decompressed by
+     *             the search client. The default is false.
+     */
+    @SmithyUnstableApi
+    public record SearchIndexSettings(boolean enabled, int prefixLength, boolean gzip) {
+        /**
+         * Load the settings from an {@code ObjectNode}.
+         *
+         * @param node the {@code ObjectNode} to load settings from.
+         * @return loaded settings based on the given node.
+         */
+        public static SearchIndexSettings fromNode(ObjectNode node) {
+            var prefixLength = node.getNumberMemberOrDefault("prefixLength", 2).intValue();
+            if (prefixLength < 1) {
+                throw new CodegenException(format(
+                        "Expected search `prefixLength` to be a positive integer, but found %d", prefixLength));
+            }
+            return new SearchIndexSettings(
+                    node.getBooleanMemberOrDefault("enabled", false),
+                    prefixLength,
+                    node.getBooleanMemberOrDefault("gzip", false));
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static java.lang.String.format;
+import static software.amazon.smithy.docgen.core.DocgenUtils.runCommand;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.docgen.core.CommandRunner;
+import software.amazon.smithy.docgen.core.DocgenUtils;
+import software.amazon.smithy.docgen.core.integrations.SphinxIntegration.SphinxSettings;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.utils.IoUtils;
+
+/**
+ * A python virtual environment with the requirements needed to run sphinx-build.
+ *
+ * <p>Environments are keyed by a hash of the requirements they were created
+ * with and the python version, which is recorded in a marker file inside the environment once every
+ * requirement has been installed. An existing environment with a matching
+ * marker is reused as-is. If a cache directory is configured, environments are
+ * created inside it, one per distinct set of requirements, so that they outlive
+ * the plugin's output directory. Otherwise the environment is created in the
+ * output directory.
+ *
+ * <p>Before creating an environment, the active python environment can be
+ * checked with {@link #active}. If it already has every requirement installed,
+ * sphinx-build is run from it directly and no environment is created.
+ */
+final class SphinxEnvironment {
+    private static final Logger LOGGER = Logger.getLogger(SphinxEnvironment.class.getName());
+    private static final String MARKER = ".docgen-requirements";
+
+    // File locks are held by the whole JVM, so they only keep other processes
+    // out. Builds running in this JVM, like parallel projections, are kept out
+    // of each other's way by these locks, one per lock file.
+    private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final List<String> requirements;
+    private final boolean reused;
+
+    private SphinxEnvironment(Path directory, List<String> requirements, boolean reused) {
+        this.directory = directory;
+        this.requirements = requirements;
+        this.reused = reused;
+    }
+
+    /**
+     * Checks whether the active python environment already satisfies the given
+     * requirements.
+     *
+     * <p>The installed distributions are read from {@code pip inspect}, which
+     * requires pip 22.2 or later. Requirements that can't be checked without pip,
+     * like those with environment markers, are treated as unsatisfied.
+     *
+     * @param baseDir The sphinx project directory.
+     * @param requirements The lines of the project's requirements file.
+     * @param settings The sphinx settings.
+     * @return returns the active environment if it satisfies every requirement.
+     */
+    static Optional<SphinxEnvironment> active(Path baseDir, List<String> requirements, SphinxSettings settings) {
+        var normalized = normalize(requirements);
+        Map<String, String> installed;
+        try {
+            LOGGER.info("Checking whether the active python environment can run sphinx.");
+            installed = inspectInstalled(baseDir, settings);
+        } catch (CodegenException e) {
+            LOGGER.fine(() -> "Unable to inspect the active python environment: " + e.getMessage());
+            return Optional.empty();
+        }
+
+        for (var line : normalized) {
+            if (line.startsWith("#")) {
+                continue;
+            }
+            var requirement = PythonRequirement.parse(line);
+            if (requirement.isEmpty()) {
+                LOGGER.info(format("The active python environment can't be checked for `%s`.", line));
+                return Optional.empty();
+            }
+            var version = installed.get(requirement.get().name());
+            if (version == null || !requirement.get().isSatisfiedBy(version)) {
+                LOGGER.info(format("The active python environment doesn't satisfy `%s`%s.",
+                        line, version == null ? "" : " since it has version " + version));
+                return Optional.empty();
+            }
+        }
+        LOGGER.info("Using the active python environment, which already satisfies every requirement.");
+        return Optional.of(new SphinxEnvironment(null, normalized, true));
+    }
+
+    private static Map<String, String> inspectInstalled(Path baseDir, SphinxSettings settings) {
+        // Older versions of pip warn that the command is experimental before
+        // printing the report, so anything before the report is skipped.
+        var output = CommandRunner.builder()
+                .command("python3", "-m", "pip", "inspect")
+                .directory(baseDir)
+                .timeout(settings.commandTimeout())
+                .captureOutput(true)
+                .build()
+                .run();
+        var start = output.indexOf('{');
+        if (start < 0) {
+            throw new CodegenException("pip inspect didn't print a report: " + output);
+        }
+        Map<String, String> installed = new HashMap<>();
+        var report = Node.parse(output.substring(start)).expectObjectNode();
+        for (var distribution : report.expectArrayMember("installed")) {
+            var metadata = distribution.expectObjectNode().expectObjectMember("metadata");
+            installed.put(PythonRequirement.normalizeName(metadata.expectStringMember("name").getValue()),
+                    metadata.expectStringMember("version").getValue());
+        }
+        return installed;
+    }
+
+    /**
+     * Creates or reuses an environment with the given requirements installed.
+     *
+     * <p>Python 3 must be available on the path. The requirements don't need to
+     * have been written to the project yet, so this may be called before or while
+     * pages are generated.
+     *
+     * @param baseDir The sphinx project directory.
+     * @param requirements The lines of the project's requirements file.
+     * @param settings The sphinx settings.
+     * @return returns an environment that can run sphinx-build.
+     */
+    static SphinxEnvironment prepare(Path baseDir, List<String> requirements, SphinxSettings settings) {
+        var normalized = normalize(requirements);
+        var key = computeKey(baseDir, normalized);
+
+        if (settings.venvCache().isEmpty()) {
+            return prepare(baseDir, baseDir.resolve("venv"), key, normalized, settings);
+        }
+
+        var cacheDir = settings.venvCache().get().toAbsolutePath();
+        try {
+            Files.createDirectories(cacheDir);
+        } catch (IOException e) {
+            throw new CodegenException(e);
+        }
+
+        // Other builds may be sharing the cache, so creating an environment is
+        // guarded by a lock to keep them from installing into the same directory.
+        var lockFile = cacheDir.resolve(key + ".lock").normalize();
+        var localLock = LOCKS.computeIfAbsent(lockFile.toString(), file -> new ReentrantLock());
+        localLock.lock();
+        try (var channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             var ignored = channel.lock()) {
+            return prepare(baseDir, cacheDir.resolve(key), key, normalized, settings);
+        } catch (IOException e) {
+            throw new CodegenException(e);
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * Creates an environment that was already prepared in the given directory.
+     *
+     * @param directory The directory containing the environment.
+     * @param requirements The lines of the requirements file it was prepared with.
+     * @return returns the prepared environment.
+     */
+    static SphinxEnvironment existing(Path directory, List<String> requirements) {
+        return new SphinxEnvironment(directory, normalize(requirements), true);
+    }
+
+    private static SphinxEnvironment prepare(
+            Path baseDir,
+            Path directory,
+            String key,
+            List<String> requirements,
+            SphinxSettings settings
+    ) {
+        var marker = directory.resolve(MARKER);
+        if (Files.isRegularFile(marker) && IoUtils.readUtf8File(marker).strip().equals(key)) {
+            LOGGER.info(format("Reusing python virtual environment at %s", directory));
+            return new SphinxEnvironment(directory, requirements, true);
+        }
+
+        // Anything left in the directory is either for different requirements or
+        // from an install that didn't finish, so start over.
+        deleteDirectory(directory);
+
+        LOGGER.info(format("Creating python virtual environment at %s", directory));
+        run(List.of("python3", "-m", "venv", directory.toString()), baseDir, settings);
+
+        // The requirements are installed from a copy kept with the environment,
+        // since the project's own requirements file may not have been written yet.
+        var requirementsFile = directory.resolve("requirements.txt");
+        try {
+            Files.write(requirementsFile, requirements);
+        } catch (IOException e) {
+            throw new CodegenException(e);
+        }
+
+        List<String> install = new ArrayList<>(List.of(directory.resolve("bin/pip").toString(), "install"));
+        if (settings.wheelhouse().isPresent()) {
+            // Installing from a wheelhouse is done fully offline.
+            var wheelhouse = settings.wheelhouse().get().toAbsolutePath().toString();
+            install.addAll(List.of("--no-index", "--find-links", wheelhouse));
+        }
+        install.addAll(List.of("-r", requirementsFile.toString()));
+        run(install, baseDir, settings);
+
+        // The marker is only written once everything is installed, so an interrupted
+        // install is never mistaken for a usable environment.
+        try {
+            Files.writeString(marker, key);
+        } catch (IOException e) {
+            throw new CodegenException(e);
+        }
+        return new SphinxEnvironment(directory, requirements, false);
+    }
+
+    /**
+     * @return returns the directory containing the environment, or empty if it's
+     *   the active python environment.
+     */
+    Optional<Path> directory() {
+        return Optional.ofNullable(directory);
+    }
+
+    /**
+     * @return returns whether this is the active python environment rather than
+     *   one created for the project.
+     */
+    boolean isActive() {
+        return directory == null;
+    }
+
+    /**
+     * Checks whether this environment was prepared with the given requirements.
+     *
+     * @param requirements The lines of a requirements file.
+     * @return returns true if the requirements match, ignoring order and blank lines.
+     */
+    boolean satisfies(List<String> requirements) {
+        return this.requirements.equals(normalize(requirements));
+    }
+
+    /**
+     * @return returns whether an existing environment was reused.
+     */
+    boolean reused() {
+        return reused;
+    }
+
+    /**
+     * @return returns the program and arguments that run sphinx-build from this
+     *   environment, which sphinx-build's own arguments should follow.
+     */
+    List<String> sphinxBuild() {
+        if (directory == null) {
+            // Running sphinx as a module guarantees it's the one that was inspected,
+            // even if a different sphinx-build is first on the path.
+            return List.of("python3", "-m", "sphinx");
+        }
+        return List.of(directory.resolve("bin/sphinx-build").toString());
+    }
+
+    private static void run(List<String> command, Path baseDir, SphinxSettings settings) {
+        CommandRunner.builder()
+                .command(command)
+                .directory(baseDir)
+                .timeout(settings.commandTimeout())
+                .build()
+                .run();
+    }
+
+    private static List<String> normalize(List<String> requirements) {
+        return requirements.stream()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty())
+                .sorted()
+                .toList();
+    }
+
+    private static String computeKey(Path baseDir, List<String> requirements) {
+        // Environments are tied to the interpreter that created them, so the
+        // python version is part of the key alongside the requirements.
+        var pythonVersion = runCommand(List.of("python3", "--version"), baseDir).strip();
+        return DocgenUtils.sha256(pythonVersion + "\n" + String.join("\n", requirements)).substring(0, 16);
+    }
+
+    private static void deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            throw new CodegenException("Unable to delete " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits a directory's index into a tree of pages that each list a bounded
+ * number of entries.
+ *
+ * <p>Source files are first split into leaf pages, either by a shared name
+ * prefix or in fixed-size chunks. Neighboring prefixes are combined onto one
+ * page when they fit. If there are still too many leaf pages for the root index
+ * to list, they're grouped under intermediate pages, and so on until the root
+ * index fits.
+ *
+ * <p>Page names can't collide with the names of source files since they contain
+ * a hyphen, which shape names can't. Leaf pages are named after their prefix,
+ * which always starts with a letter or underscore, while every other page is
+ * named after its depth in the tree, which is a number.
+ */
+final class SphinxIndexTree {
+    private static final String ROOT = "index";
+
+    private SphinxIndexTree() {}
+
+    /**
+     * A single index page.
+     *
+     * @param name The name of the page, without a file extension.
+     * @param first The label of the first entry in the page.
+     * @param last The label of the last entry in the page.
+     * @param entries The toctree entries listed by the page.
+     */
+    record Page(String name, String first, String last, List<String> entries) {
+        String title() {
+            return first.equals(last) ? first : format("%s - %s", first, last);
+        }
+    }
+
+    /**
+     * Builds the index pages for a directory.
+     *
+     * @param sourceFiles The sorted source files in the directory.
+     * @param maxEntries The maximum number of entries on a page, or 0 for no limit.
+     * @param alphabetical Whether to split source files by their prefix rather
+     *   than into fixed-size chunks.
+     * @return returns the pages to write. The first page is the root index, whose
+     *   first and last labels are empty.
+     */
+    static List<Page> build(List<String> sourceFiles, int maxEntries, boolean alphabetical) {
+        if (maxEntries < 1 || sourceFiles.size() <= maxEntries) {
+            return List.of(new Page(ROOT, "", "", sourceFiles));
+        }
+
+        var level = alphabetical
+                ? pack(splitByPrefix(sourceFiles, maxEntries, 1), maxEntries)
+                : chunk(sourceFiles, maxEntries, ROOT + "-0-");
+        List<Page> pages = new ArrayList<>(level);
+        var depth = 1;
+        while (level.size() > maxEntries) {
+            level = group(level, maxEntries, depth++);
+            pages.addAll(level);
+        }
+        pages.add(0, new Page(ROOT, "", "", level.stream().map(Page::name).toList()));
+        return pages;
+    }
+
+    private static List<Page> splitByPrefix(List<String> files, int maxEntries, int prefixLength) {
+        Map<String, List<String>> buckets = new TreeMap<>();
+        for (var file : files) {
+            var stem = stem(file);
+            var prefix = stem.substring(0, Math.min(prefixLength, stem.length())).toUpperCase(Locale.ENGLISH);
+            buckets.computeIfAbsent(prefix, p -> new ArrayList<>()).add(file);
+        }
+
+        List<Page> pages = new ArrayList<>();
+        for (var bucket : buckets.entrySet()) {
+            var prefix = bucket.getKey();
+            var contents = bucket.getValue();
+            if (contents.size() <= maxEntries) {
+                // The label keeps the case of the names it's taken from.
+                var first = stem(contents.get(0));
+                var label = first.substring(0, Math.min(prefixLength, first.length()));
+                pages.add(new Page(pageName(prefix), label, label, contents));
+            } else if (contents.stream().allMatch(file -> stem(file).length() <= prefixLength)) {
+                // Names that only differ by case can't be split any further by prefix.
+                pages.addAll(chunk(contents, maxEntries, pageName(prefix) + "-"));
+            } else {
+                pages.addAll(splitByPrefix(contents, maxEntries, prefixLength + 1));
+            }
+        }
+        return pages;
+    }
+
+    // Splitting by prefix can leave many small pages, so neighboring pages are
+    // merged for as long as they fit on one page.
+    private static List<Page> pack(List<Page> pages, int maxEntries) {
+        List<Page> packed = new ArrayList<>();
+        Page current = null;
+        for (var page : pages) {
+            if (current != null && current.entries().size() + page.entries().size() <= maxEntries) {
+                List<String> entries = new ArrayList<>(current.entries());
+                entries.addAll(page.entries());
+                current = new Page(current.name(), current.first(), page.last(), entries);
+            } else {
+                if (current != null) {
+                    packed.add(current);
+                }
+                current = page;
+            }
+        }
+        packed.add(current);
+        return packed;
+    }
+
+    private static List<Page> chunk(List<String> files, int maxEntries, String namePrefix) {
+        List<Page> pages = new ArrayList<>();
+        for (var start = 0; start < files.size(); start += maxEntries) {
+            var contents = files.subList(start, Math.min(start + maxEntries, files.size()));
+            pages.add(new Page(namePrefix + (pages.size() + 1),
+                    stem(contents.get(0)), stem(contents.get(contents.size() - 1)), contents));
+        }
+        return pages;
+    }
+
+    private static List<Page> group(List<Page> children, int maxEntries, int depth) {
+        List<Page> pages = new ArrayList<>();
+        for (var start = 0; start < children.size(); start += maxEntries) {
+            var contents = children.subList(start, Math.min(start + maxEntries, children.size()));
+            pages.add(new Page(
+                    format("%s-%d-%d", ROOT, depth, pages.size() + 1),
+                    contents.get(0).first(),
+                    contents.get(contents.size() - 1).last(),
+                    contents.stream().map(Page::name).toList()));
+        }
+        return pages;
+    }
+
+    private static String pageName(String prefix) {
+        return ROOT + "-" + prefix.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static String stem(String file) {
+        var extension = file.lastIndexOf('.');
+        return extension > 0 ? file.substring(0, extension) : file;
+    }
+}
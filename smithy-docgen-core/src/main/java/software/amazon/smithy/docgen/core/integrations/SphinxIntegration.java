@@ -9,16 +9,29 @@ import static java.lang.String.format;
 import static software.amazon.smithy.docgen.core.DocgenUtils.normalizeNewlines;
 import static software.amazon.smithy.docgen.core.DocgenUtils.runCommand;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.docgen.core.CommandRunner;
 import software.amazon.smithy.docgen.core.DocFormat;
 import software.amazon.smithy.docgen.core.DocGenerationContext;
 import software.amazon.smithy.docgen.core.DocIntegration;
@@ -92,6 +105,8 @@ public final class SphinxIntegration implements DocIntegration {
     private static final String MARKDOWN_FORMAT = "sphinx-markdown";
     private static final Set<String> FORMATS = Set.of(MARKDOWN_FORMAT);
     private static final Logger LOGGER = Logger.getLogger(SphinxIntegration.class.getName());
+    private static final String ALPHABETICAL_SHARDING = "alphabetical";
+    private static final String FIXED_SHARDING = "fixed";
 
     // The default requirements needed to build the docs.
     private static final List<String> BASE_REQUIREMENTS = parseRequirements("requirements-base.txt");
@@ -107,7 +122,27 @@ public final class SphinxIntegration implements DocIntegration {
             "myst_parser"
     );
 
+    private final BiFunction<Path, List<String>, Optional<SphinxEnvironment>> environmentPreparer;
     private SphinxSettings settings = SphinxSettings.fromNode(Node.objectNode());
+    private CompletableFuture<Optional<SphinxEnvironment>> pendingEnvironment;
+
+    /**
+     * Creates an integration that finds python and prepares an environment with it.
+     */
+    public SphinxIntegration() {
+        this(null);
+    }
+
+    /**
+     * Creates an integration that prepares environments with the given function.
+     *
+     * @param environmentPreparer Prepares an environment in the given project
+     *   directory with the given requirements, returning empty if python isn't
+     *   available. If null, python is found and used to prepare the environment.
+     */
+    SphinxIntegration(BiFunction<Path, List<String>, Optional<SphinxEnvironment>> environmentPreparer) {
+        this.environmentPreparer = environmentPreparer;
+    }
 
     private static List<String> parseRequirements(String filename) {
         String requirementsFile = IoUtils.readUtf8Resource(SphinxIntegration.class, "sphinx/" + filename);
@@ -139,6 +174,37 @@ public final class SphinxIntegration implements DocIntegration {
         );
     }
 
+    @Override
+    public void beforeShapeGeneration(DocGenerationContext context) {
+        if (!FORMATS.contains(context.docFormat().name()) || !settings.autoBuild()
+                || context.settings().isPartial()) {
+            return;
+        }
+
+        // The requirements only depend on the settings, so the environment can be
+        // prepared while pages are generated instead of after. If an interceptor
+        // changes the requirements, it's prepared again once they're written.
+        var baseDir = context.fileManifest().getBaseDir();
+        var requirements = getRequirements(context);
+        LOGGER.info("Preparing the python environment for sphinx-build in the background.");
+        var executor = Executors.newSingleThreadExecutor(task -> {
+            var thread = new Thread(task, "docgen-sphinx-environment");
+            // Generation may fail before the environment is waited on, in which
+            // case it shouldn't keep the build running.
+            thread.setDaemon(true);
+            return thread;
+        });
+        pendingEnvironment = CompletableFuture.supplyAsync(() -> {
+            try {
+                Files.createDirectories(baseDir);
+            } catch (IOException e) {
+                throw new CodegenException(e);
+            }
+            return prepare(baseDir, requirements);
+        }, executor);
+        executor.shutdown();
+    }
+
     @Override
     public void customize(DocGenerationContext context) {
         if (!FORMATS.contains(context.docFormat().name())) {
@@ -148,31 +214,43 @@ public final class SphinxIntegration implements DocIntegration {
             ));
             return;
         }
+        if (context.settings().isPartial()) {
+            LOGGER.info("Only one shard of the documentation was generated, so the Sphinx project "
+                    + "will be generated when the shards are merged.");
+            return;
+        }
         LOGGER.info("Generating Sphinx project files.");
-        writeIndexes(context);
-        writeRequirements(context);
-        writeConf(context);
-        writeMakefile(context);
+        context.metrics().time("sphinx.projectFiles", () -> {
+            writeIndexes(context);
+            writeRequirements(context);
+            writeConf(context);
+            writeMakefile(context);
+        });
         runSphinx(context);
     }
 
     private void writeRequirements(DocGenerationContext context) {
         context.writerDelegator().useFileWriter("requirements.txt", writer -> {
-            // Merge base and configured requirements into a single immutable list
-            Set<String> requirements = new LinkedHashSet<>(BASE_REQUIREMENTS);
-            if (context.docFormat().name().equals(MARKDOWN_FORMAT)) {
-                requirements.addAll(MARKDOWN_REQUIREMENTS);
-            }
-            if (settings.theme().equals("furo")) {
-                requirements.addAll(FURO_REQUIREMENTS);
-            }
-            requirements.addAll(settings.extraDependencies());
+            var requirements = getRequirements(context);
             writer.pushState(new RequirementsSection(context, Set.copyOf(requirements)));
             requirements.forEach(writer::write);
             writer.popState();
         });
     }
 
+    private List<String> getRequirements(DocGenerationContext context) {
+        // Merge base and configured requirements into a single immutable list
+        Set<String> requirements = new LinkedHashSet<>(BASE_REQUIREMENTS);
+        if (context.docFormat().name().equals(MARKDOWN_FORMAT)) {
+            requirements.addAll(MARKDOWN_REQUIREMENTS);
+        }
+        if (settings.theme().equals("furo")) {
+            requirements.addAll(FURO_REQUIREMENTS);
+        }
+        requirements.addAll(settings.extraDependencies());
+        return List.copyOf(requirements);
+    }
+
     private void writeConf(DocGenerationContext context) {
         var service = context.model().expectShape(context.settings().service(), ServiceShape.class);
         var serviceSymbol = context.symbolProvider().toSymbol(service);
@@ -310,31 +388,45 @@ public final class SphinxIntegration implements DocIntegration {
         var baseDir = context.fileManifest().getBaseDir();
 
         LOGGER.info("Flushing writers in preparation for sphinx-build.");
-        context.writerDelegator().flushWriters();
+        context.metrics().time("sphinx.flush", () -> context.writerDelegator().flushWriters());
 
-        // Python must be available to run sphinx
-        try {
-            LOGGER.info("Attempting to discover python3 in order to run sphinx.");
-            runCommand("python3 --version", baseDir);
-        } catch (CodegenException e) {
-            LOGGER.warning("Unable to find python3 on path. Skipping automatic HTML doc build.");
-            logManualBuildInstructions(context);
-            return;
-        }
-
-        // TODO: detect if the user's existing python environment can be used
-        // You can get a big JSON document describing the python environment from
-        // `pip inspect` that has all the information we need.
         try {
-            // First, we create a virtualenv to install dependencies into. This is necessary
-            // to not pollute the user's environment.
-            runCommand("python3 -m venv venv", baseDir);
-
-            // Next, install the dependencies into the venv.
-            runCommand("./venv/bin/pip install -r requirements.txt", baseDir);
+            // First, we find an environment with the dependencies installed. Unless the
+            // active environment already has them, this creates or reuses a virtualenv
+            // so as not to pollute the user's environment. This is usually already
+            // underway, in which case it's only waited on.
+            var preparedEnvironment = context.metrics().time("sphinx.environment",
+                    () -> awaitEnvironment(context, baseDir));
+            if (preparedEnvironment.isEmpty()) {
+                LOGGER.warning("Unable to find python3 on path. Skipping automatic HTML doc build.");
+                logManualBuildInstructions(context);
+                return;
+            }
+            var environment = preparedEnvironment.get();
 
             // Finally, run sphinx itself.
-            runCommand("./venv/bin/sphinx-build -M " + settings.format() + " content build", baseDir);
+            context.metrics().time("sphinx.build", () -> runSphinxBuild(environment, baseDir));
+
+            if (environment.isActive()) {
+                System.out.printf(normalizeNewlines("""
+                    Successfully built HTML docs. They can be found in "%1$s".
+
+                    Other output formats can also be built. The active python \
+                    environment already contains the build tools needed for \
+                    manually building the docs in other formats. Run `make %3$s` \
+                    from "%2$s" to build the docs, substituting %3$s for whatever \
+                    format you wish to build.
+
+                    See sphinx docs for other output formats you can choose: \
+                    https://www.sphinx-doc.org/en/master/usage/builders/index.html
+
+                    """),
+                    baseDir.resolve("build/" + settings.format()),
+                    baseDir,
+                    settings.format()
+                );
+                return;
+            }
 
             System.out.printf(normalizeNewlines("""
                 Successfully built HTML docs. They can be found in "%1$s".
@@ -350,7 +442,7 @@ public final class SphinxIntegration implements DocIntegration {
                 to build.
 
                 To build the docs without activating the virtual environment, simply \
-                run `./venv/bin/sphinx-build -M %4$s content build` from "%3$s", \
+                run `%5$s -M %4$s content build` from "%3$s", \
                 similarly substituting %4$s for your desired format.
 
                 See sphinx docs for other output formats you can choose: \
@@ -358,9 +450,10 @@ public final class SphinxIntegration implements DocIntegration {
 
                 """),
                 baseDir.resolve("build/" + settings.format()),
-                baseDir.resolve("venv"),
+                environment.directory().get(),
                 baseDir,
-                settings.format()
+                settings.format(),
+                format("\"%s\"", environment.directory().get().resolve("bin/sphinx-build"))
             );
         } catch (CodegenException e) {
             LOGGER.warning("Unable to automatically build HTML docs: " + e);
@@ -368,6 +461,141 @@ public final class SphinxIntegration implements DocIntegration {
         }
     }
 
+    private Optional<SphinxEnvironment> awaitEnvironment(DocGenerationContext context, Path baseDir) {
+        // Interceptors may have changed the requirements, so the written file is
+        // preferred. It's only missing if the manifest doesn't write to disk.
+        var requirementsFile = baseDir.resolve("requirements.txt");
+        var requirements = Files.isRegularFile(requirementsFile)
+                ? IoUtils.readUtf8File(requirementsFile).lines().toList()
+                : getRequirements(context);
+        if (pendingEnvironment != null) {
+            Optional<SphinxEnvironment> environment;
+            try {
+                environment = pendingEnvironment.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof CodegenException codegenException) {
+                    throw codegenException;
+                }
+                throw new CodegenException(e.getCause());
+            } finally {
+                pendingEnvironment = null;
+            }
+            if (environment.isEmpty() || environment.get().satisfies(requirements)) {
+                return environment;
+            }
+            LOGGER.info("The sphinx requirements were changed after the python environment was "
+                    + "prepared, so it will be prepared again.");
+        }
+        return prepare(baseDir, requirements);
+    }
+
+    private Optional<SphinxEnvironment> prepare(Path baseDir, List<String> requirements) {
+        if (environmentPreparer != null) {
+            return environmentPreparer.apply(baseDir, requirements);
+        }
+        return prepareEnvironment(baseDir, requirements);
+    }
+
+    private Optional<SphinxEnvironment> prepareEnvironment(Path baseDir, List<String> requirements) {
+        // Python must be available to run sphinx
+        try {
+            LOGGER.info("Attempting to discover python3 in order to run sphinx.");
+            runCommand(List.of("python3", "--version"), baseDir);
+        } catch (CodegenException e) {
+            return Optional.empty();
+        }
+        if (settings.useActiveEnvironment()) {
+            var active = SphinxEnvironment.active(baseDir, requirements, settings);
+            if (active.isPresent()) {
+                return active;
+            }
+        }
+        return Optional.of(SphinxEnvironment.prepare(baseDir, requirements, settings));
+    }
+
+    private void runSphinxBuild(SphinxEnvironment environment, Path baseDir) {
+        var commands = sphinxBuildCommands(environment.sphinxBuild(), settings);
+        if (commands.size() == 1) {
+            sphinxBuild(commands.get(settings.format()), settings.format(), baseDir).run();
+            return;
+        }
+
+        LOGGER.info(format("Building formats %s concurrently.", commands.keySet()));
+        var executor = Executors.newFixedThreadPool(commands.size());
+        try {
+            List<Future<String>> builds = new ArrayList<>();
+            for (var entry : commands.entrySet()) {
+                // Shutting down the executor interrupts the remaining builds,
+                // which kills their sphinx-build processes.
+                var build = sphinxBuild(entry.getValue(), entry.getKey(), baseDir);
+                builds.add(executor.submit(build::run));
+            }
+            for (var build : builds) {
+                build.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CodegenException codegenException) {
+                throw codegenException;
+            }
+            throw new CodegenException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CodegenException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the sphinx-build command for each format to build.
+     *
+     * <p>A single format is built with {@code -M}, which is what the generated
+     * Makefile uses. When there are extra formats, each one is built with
+     * {@code -b} into its own output and doctree directories, since sphinx-build
+     * doesn't support multiple processes sharing one. The available jobs are
+     * split between them.
+     *
+     * @param sphinxBuild The program and arguments that run sphinx-build.
+     * @param settings The sphinx settings to build with.
+     * @return returns the command to run for each format, keyed by the format.
+     */
+    static Map<String, List<String>> sphinxBuildCommands(List<String> sphinxBuild, SphinxSettings settings) {
+        var formats = new LinkedHashSet<String>();
+        formats.add(settings.format());
+        formats.addAll(settings.extraFormats());
+
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+        if (formats.size() == 1) {
+            List<String> command = new ArrayList<>(sphinxBuild);
+            command.addAll(List.of("-M", settings.format(), "content", "build"));
+            command.addAll(jobsArguments(settings.jobs()));
+            commands.put(settings.format(), command);
+            return commands;
+        }
+
+        var jobs = Math.max(1, settings.jobs() / formats.size());
+        for (var format : formats) {
+            List<String> command = new ArrayList<>(sphinxBuild);
+            command.addAll(List.of("-b", format, "-d", "build/doctrees-" + format, "content", "build/" + format));
+            command.addAll(jobsArguments(jobs));
+            commands.put(format, command);
+        }
+        return commands;
+    }
+
+    private CommandRunner sphinxBuild(List<String> command, String format, Path baseDir) {
+        return CommandRunner.builder()
+                .command(command)
+                .directory(baseDir)
+                .timeout(settings.commandTimeout())
+                .lineListener(new SphinxProgress(format))
+                .build();
+    }
+
+    private static List<String> jobsArguments(int jobs) {
+        return jobs > 1 ? List.of("-j", String.valueOf(jobs)) : List.of();
+    }
+
     private void logManualBuildInstructions(DocGenerationContext context) {
         // TODO: try to get this printed out in the projection section
         System.out.printf(normalizeNewlines("""
@@ -391,6 +619,8 @@ public final class SphinxIntegration implements DocIntegration {
 
     private void writeIndexes(DocGenerationContext context) {
         Set<Path> paths = new HashSet<>(context.fileManifest().getFiles());
+        // Pages that were streamed no longer have writers, but their paths are kept.
+        paths.addAll(context.pages().pages());
         for (var stagedFile : context.writerDelegator().getWriters().keySet()) {
             paths.add(context.fileManifest().resolvePath(Paths.get(stagedFile)));
         }
@@ -447,27 +677,37 @@ public final class SphinxIntegration implements DocIntegration {
     }
 
     private void writeIndex(DocGenerationContext context, Path directory, Set<Path> contents) {
-        context.writerDelegator().useFileWriter(directory.resolve("index.md").toString(), writer -> {
-            var sourceFiles = contents.stream()
-                    .map(Path::getFileName)
-                    .map(Object::toString)
-                    .distinct()
-                    .sorted()
-                    .toList();
-
-            writer.pushState(new IndexSection(context, directory, contents));
-            writer.putContext("sourceFiles", sourceFiles);
-            writer.openHeading(StringUtils.capitalize(directory.getFileName().toString()));
-            writer.write("""
-                    :::{toctree}
-                    ${#sourceFiles}
-                    ${value:L}
-                    ${/sourceFiles}
-                    :::
-                    """);
-            writer.closeHeading();
-            writer.popState();
-        });
+        var sourceFiles = contents.stream()
+                .map(Path::getFileName)
+                .map(Object::toString)
+                .distinct()
+                .sorted()
+                .toList();
+        var title = StringUtils.capitalize(directory.getFileName().toString());
+        var pages = SphinxIndexTree.build(
+                sourceFiles, settings.maxIndexEntries(), settings.indexSharding().equals(ALPHABETICAL_SHARDING));
+
+        for (var page : pages) {
+            var isRoot = page == pages.get(0);
+            context.writerDelegator().useFileWriter(directory.resolve(page.name() + ".md").toString(), writer -> {
+                if (isRoot) {
+                    writer.pushState(new IndexSection(context, directory, contents));
+                }
+                writer.putContext("sourceFiles", page.entries());
+                writer.openHeading(isRoot ? title : format("%s: %s", title, page.title()));
+                writer.write("""
+                        :::{toctree}
+                        ${#sourceFiles}
+                        ${value:L}
+                        ${/sourceFiles}
+                        :::
+                        """);
+                writer.closeHeading();
+                if (isRoot) {
+                    writer.popState();
+                }
+            });
+        }
     }
 
     /**
@@ -516,6 +756,38 @@ public final class SphinxIntegration implements DocIntegration {
      *                  3 on the path, create a virtual environment inside the output
      *                  directory, install all the dependencies into that virtual environment,
      *                  and finally run sphinx-build.
+     * @param venvCache A directory to cache python virtual environments in. Environments
+     *                  are keyed by a hash of the requirements and python version, so an
+     *                  environment is only created and installed into when those change.
+     *                  By default, the environment is created in the output directory and
+     *                  only reused if its requirements are unchanged.
+     * @param wheelhouse A local directory of wheels to install requirements from. If set,
+     *                   requirements are installed offline using only this directory.
+     * @param jobs The number of processes sphinx-build should use to build the docs.
+     *             This may be set to {@code "auto"} to use the number of available
+     *             processors. The default is 1.
+     * @param extraFormats Any extra sphinx output formats to build alongside
+     *                     {@link #format}. Each format is built concurrently in its own
+     *                     output directory, and the {@link #jobs} are split between them.
+     * @param maxIndexEntries The maximum number of entries listed on a directory's
+     *                        generated index page. Directories with more source files
+     *                        than this have their index split into a tree of pages,
+     *                        each listing at most this many entries. The default is 0,
+     *                        which lists every source file on a single page.
+     * @param indexSharding How to split directory indexes that exceed
+     *                      {@link #maxIndexEntries}. This may be {@code "alphabetical"},
+     *                      which groups source files by the first letters of their
+     *                      names, or {@code "fixed"}, which splits them into pages of
+     *                      {@link #maxIndexEntries} source files each. The default is
+     *                      alphabetical.
+     * @param useActiveEnvironment Whether to run sphinx-build from the active python
+     *                             environment if it already has every requirement
+     *                             installed, rather than creating a virtual environment.
+     *                             The installed packages are found with {@code pip inspect}.
+     *                             The default is true.
+     * @param commandTimeout How long each python, pip, or sphinx-build command may run
+     *                       before it's killed. This is set in seconds. The default is
+     *                       0, which lets commands run indefinitely.
      */
     @SmithyUnstableApi
     public record SphinxSettings(
@@ -523,7 +795,15 @@ public final class SphinxIntegration implements DocIntegration {
             String theme,
             List<String> extraDependencies,
             List<String> extraExtensions,
-            boolean autoBuild
+            boolean autoBuild,
+            Optional<Path> venvCache,
+            Optional<Path> wheelhouse,
+            int jobs,
+            List<String> extraFormats,
+            int maxIndexEntries,
+            String indexSharding,
+            boolean useActiveEnvironment,
+            Duration commandTimeout
     ) {
         /**
          * Load the settings from an {@code ObjectNode}.
@@ -542,13 +822,76 @@ public final class SphinxIntegration implements DocIntegration {
                 extraExtensions = node.expectArrayMember("extraExtensions")
                         .getElementsAs(StringNode::getValue);
             }
+            List<String> extraFormats = List.of();
+            if (node.containsMember("extraFormats")) {
+                extraFormats = node.expectArrayMember("extraFormats")
+                        .getElementsAs(StringNode::getValue);
+            }
             return new SphinxSettings(
                     node.getStringMemberOrDefault("format", "html"),
                     node.getStringMemberOrDefault("theme", "furo"),
                     extraDependencies,
                     extraExtensions,
-                    node.getBooleanMemberOrDefault("autoBuild", true)
+                    node.getBooleanMemberOrDefault("autoBuild", true),
+                    node.getStringMember("venvCache").map(StringNode::getValue).map(Paths::get),
+                    node.getStringMember("wheelhouse").map(StringNode::getValue).map(Paths::get),
+                    parseJobs(node),
+                    extraFormats,
+                    parseMaxIndexEntries(node),
+                    parseIndexSharding(node),
+                    node.getBooleanMemberOrDefault("useActiveEnvironment", true),
+                    parseCommandTimeout(node)
             );
         }
+
+        private static Duration parseCommandTimeout(ObjectNode node) {
+            var value = node.getNumberMemberOrDefault("commandTimeout", 0).longValue();
+            if (value < 0) {
+                throw new CodegenException(String.format(
+                        "Expected sphinx `commandTimeout` to be a non-negative integer, but found %d", value));
+            }
+            return Duration.ofSeconds(value);
+        }
+
+        private static int parseMaxIndexEntries(ObjectNode node) {
+            var value = node.getNumberMemberOrDefault("maxIndexEntries", 0).intValue();
+            if (value < 0) {
+                throw new CodegenException(String.format(
+                        "Expected sphinx `maxIndexEntries` to be a non-negative integer, but found %d", value));
+            }
+            return value;
+        }
+
+        private static String parseIndexSharding(ObjectNode node) {
+            var value = node.getStringMemberOrDefault("indexSharding", ALPHABETICAL_SHARDING);
+            if (!value.equals(ALPHABETICAL_SHARDING) && !value.equals(FIXED_SHARDING)) {
+                throw new CodegenException(String.format(
+                        "Expected sphinx `indexSharding` to be \"%s\" or \"%s\", but found \"%s\"",
+                        ALPHABETICAL_SHARDING, FIXED_SHARDING, value));
+            }
+            return value;
+        }
+
+        private static int parseJobs(ObjectNode node) {
+            var jobs = node.getMember("jobs");
+            if (jobs.isEmpty()) {
+                return 1;
+            }
+            if (jobs.get().isStringNode()) {
+                var value = jobs.get().expectStringNode();
+                if (!value.getValue().equals("auto")) {
+                    throw new CodegenException(String.format(
+                            "Expected sphinx `jobs` to be a positive integer or \"auto\", but found \"%s\"",
+                            value.getValue()));
+                }
+                return Runtime.getRuntime().availableProcessors();
+            }
+            var value = jobs.get().expectNumberNode().getValue().intValue();
+            if (value < 1) {
+                throw new CodegenException(String.format(
+                        "Expected sphinx `jobs` to be a positive integer or \"auto\", but found %d", value));
+            }
+            return value;
+        }
     }
 }
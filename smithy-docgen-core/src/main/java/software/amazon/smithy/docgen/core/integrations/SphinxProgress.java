@@ -0,0 +1,58 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static java.lang.String.format;
+
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Reports the progress of a sphinx-build run from the lines it prints.
+ *
+ * <p>Sphinx prints a line for every document it reads or writes, such as
+ * {@code writing output... [ 40%] content/operations/GetFoo}. Logging each of
+ * those would flood the log for large services, so progress is only logged when
+ * a phase starts and each time it passes another tenth of its documents.
+ */
+final class SphinxProgress implements Consumer<String> {
+    private static final Logger LOGGER = Logger.getLogger(SphinxProgress.class.getName());
+    private static final Pattern PROGRESS = Pattern.compile("^(.+?)\\.\\.\\.\\s*\\[\\s*(\\d{1,3})%\\]");
+    private static final int STEP = 10;
+
+    private final String format;
+    private String phase;
+    private int reported;
+
+    /**
+     * Constructor.
+     *
+     * @param format The sphinx output format being built.
+     */
+    SphinxProgress(String format) {
+        this.format = format;
+    }
+
+    @Override
+    public synchronized void accept(String line) {
+        var matcher = PROGRESS.matcher(line.strip());
+        if (!matcher.find()) {
+            return;
+        }
+        var currentPhase = matcher.group(1).strip();
+        var percent = Math.min(100, Integer.parseInt(matcher.group(2)));
+        if (!currentPhase.equals(phase)) {
+            phase = currentPhase;
+            reported = -1;
+        }
+        var step = percent - percent % STEP;
+        if (step > reported) {
+            reported = step;
+            LOGGER.info(format("sphinx-build %s: %s %d%%", format, phase, percent));
+        }
+    }
+}
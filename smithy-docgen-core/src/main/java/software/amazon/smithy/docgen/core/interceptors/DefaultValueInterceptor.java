@@ -5,23 +5,30 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.DefaultTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
  * Adds default value information to trait documentation.
  */
 @SmithyInternalApi
-public final class DefaultValueInterceptor implements CodeInterceptor<ShapeSubheadingSection, DocWriter> {
+public final class DefaultValueInterceptor implements ScopedInterceptor<ShapeSubheadingSection> {
     @Override
     public Class<ShapeSubheadingSection> sectionType() {
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(DefaultTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().getMemberTrait(section.context().model(), DefaultTrait.class).isPresent();
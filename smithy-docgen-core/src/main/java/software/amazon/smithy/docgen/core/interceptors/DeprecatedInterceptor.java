@@ -5,23 +5,30 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.DeprecatedTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
  * Adds deprecation warnings to shape docs.
  */
 @SmithyInternalApi
-public final class DeprecatedInterceptor implements CodeInterceptor<ShapeSubheadingSection, DocWriter> {
+public final class DeprecatedInterceptor implements ScopedInterceptor<ShapeSubheadingSection> {
     @Override
     public Class<ShapeSubheadingSection> sectionType() {
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(DeprecatedTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().getMemberTrait(section.context().model(), DeprecatedTrait.class).isPresent();
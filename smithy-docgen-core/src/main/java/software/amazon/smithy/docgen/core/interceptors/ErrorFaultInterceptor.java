@@ -5,10 +5,12 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.ErrorTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
@@ -16,12 +18,17 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * service error.
  */
 @SmithyInternalApi
-public final class ErrorFaultInterceptor implements CodeInterceptor<ShapeSubheadingSection, DocWriter> {
+public final class ErrorFaultInterceptor implements ScopedInterceptor<ShapeSubheadingSection> {
     @Override
     public Class<ShapeSubheadingSection> sectionType() {
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(ErrorTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().hasTrait(ErrorTrait.class);
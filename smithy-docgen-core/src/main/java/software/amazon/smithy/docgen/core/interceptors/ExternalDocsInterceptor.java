@@ -5,11 +5,13 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.ExternalDocumentationTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.Pair;
 
 /**
@@ -17,12 +19,17 @@ import software.amazon.smithy.utils.Pair;
  * <a href="https://smithy.io/2.0/spec/documentation-traits.html#externaldocumentation-trait">
  * externalDocumentation</a> trait.
  */
-public final class ExternalDocsInterceptor implements CodeInterceptor<ShapeDetailsSection, DocWriter> {
+public final class ExternalDocsInterceptor implements ScopedInterceptor<ShapeDetailsSection> {
     @Override
     public Class<ShapeDetailsSection> sectionType() {
         return ShapeDetailsSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(ExternalDocumentationTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeDetailsSection section) {
         return section.shape().getMemberTrait(section.context().model(), ExternalDocumentationTrait.class).isPresent();
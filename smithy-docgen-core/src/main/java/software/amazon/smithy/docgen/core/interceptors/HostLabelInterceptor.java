@@ -7,7 +7,6 @@ package software.amazon.smithy.docgen.core.interceptors;
 
 import software.amazon.smithy.docgen.core.sections.ProtocolSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
-import software.amazon.smithy.model.knowledge.OperationIndex;
 import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.HostLabelTrait;
 import software.amazon.smithy.utils.SmithyInternalApi;
@@ -33,7 +32,7 @@ public final class HostLabelInterceptor extends ProtocolTraitInterceptor<HostLab
     public boolean isIntercepted(ProtocolSection section) {
         // It's possible to use this trait somewhere where it has no meaning, but we don't
         // want to document in those cases.
-        var index = OperationIndex.of(section.context().model());
+        var index = section.context().knowledge().operationIndex();
         return index.isInputStructure(section.shape().getId().withoutMember()) && super.isIntercepted(section);
     }
 
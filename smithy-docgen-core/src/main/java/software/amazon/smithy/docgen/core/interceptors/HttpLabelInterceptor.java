@@ -7,7 +7,6 @@ package software.amazon.smithy.docgen.core.interceptors;
 
 import software.amazon.smithy.docgen.core.sections.ProtocolSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
-import software.amazon.smithy.model.knowledge.OperationIndex;
 import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.HttpLabelTrait;
 import software.amazon.smithy.model.traits.HttpTrait;
@@ -34,13 +33,13 @@ public final class HttpLabelInterceptor extends ProtocolTraitInterceptor<HttpLab
     public boolean isIntercepted(ProtocolSection section) {
         // It's possible to use this trait somewhere where it has no meaning, but we don't
         // want to document in those cases.
-        var index = OperationIndex.of(section.context().model());
+        var index = section.context().knowledge().operationIndex();
         return index.isInputStructure(section.shape().getId().withoutMember()) && super.isIntercepted(section);
     }
 
     @Override
     void write(DocWriter writer, String previousText, ProtocolSection section, HttpLabelTrait trait) {
-        var index = OperationIndex.of(section.context().model());
+        var index = section.context().knowledge().operationIndex();
         writer.putContext("greedy", index.getInputBindings(section.shape()).stream().findFirst()
                 .map(operation -> operation.expectTrait(HttpTrait.class))
                 .flatMap(httpTrait -> httpTrait.getUri().getGreedyLabel())
@@ -6,18 +6,19 @@
 package software.amazon.smithy.docgen.core.interceptors;
 
 import java.util.Optional;
+import java.util.Set;
 import software.amazon.smithy.codegen.core.SymbolReference;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
 import software.amazon.smithy.model.Model;
-import software.amazon.smithy.model.knowledge.OperationIndex;
 import software.amazon.smithy.model.shapes.MemberShape;
 import software.amazon.smithy.model.shapes.OperationShape;
+import software.amazon.smithy.model.shapes.ShapeType;
 import software.amazon.smithy.model.traits.IdempotencyTokenTrait;
 import software.amazon.smithy.model.traits.IdempotentTrait;
 import software.amazon.smithy.model.traits.ReadonlyTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.Pair;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
@@ -25,7 +26,7 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * Provides information about idempotency depending on a number of traits.
  */
 @SmithyInternalApi
-public final class IdempotencyInterceptor implements CodeInterceptor<ShapeDetailsSection, DocWriter> {
+public final class IdempotencyInterceptor implements ScopedInterceptor<ShapeDetailsSection> {
     private static final Pair<String, String> IDEMPOTENT_REF = Pair.of(
             "idempotent", "https://datatracker.ietf.org/doc/html/rfc7231.html#section-4.2.2"
     );
@@ -38,11 +39,16 @@ public final class IdempotencyInterceptor implements CodeInterceptor<ShapeDetail
         return ShapeDetailsSection.class;
     }
 
+    @Override
+    public Set<ShapeType> shapeTypes() {
+        return Set.of(ShapeType.MEMBER, ShapeType.OPERATION);
+    }
+
     @Override
     public boolean isIntercepted(ShapeDetailsSection section) {
         var shape = section.shape();
         var model = section.context().model();
-        var operationIndex = OperationIndex.of(model);
+        var operationIndex = section.context().knowledge().operationIndex();
 
         if (shape.hasTrait(IdempotencyTokenTrait.class)
                 && operationIndex.isInputStructure(shape.asMemberShape().get().getContainer())) {
@@ -5,12 +5,14 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
 import java.util.logging.Logger;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.InternalTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
@@ -19,7 +21,7 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * internal</a>.
  */
 @SmithyInternalApi
-public final class InternalInterceptor implements CodeInterceptor<ShapeSubheadingSection, DocWriter> {
+public final class InternalInterceptor implements ScopedInterceptor<ShapeSubheadingSection> {
     private static final Logger LOGGER = Logger.getLogger(InternalInterceptor.class.getName());
 
     @Override
@@ -27,6 +29,11 @@ public final class InternalInterceptor implements CodeInterceptor<ShapeSubheadin
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(InternalTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().getMemberTrait(section.context().model(), InternalTrait.class).isPresent();
@@ -5,11 +5,13 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.LengthTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.Pair;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
@@ -19,7 +21,7 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * length trait</a>.
  */
 @SmithyInternalApi
-public final class LengthInterceptor implements CodeInterceptor<ShapeSubheadingSection, DocWriter> {
+public final class LengthInterceptor implements ScopedInterceptor<ShapeSubheadingSection> {
     private static final Pair<String, String> UNICODE_SCALAR_VALUE_REFERENCE = Pair.of(
             "Unicode scalar values", "https://www.unicode.org/glossary/#unicode_scalar_value"
     );
@@ -29,6 +31,11 @@ public final class LengthInterceptor implements CodeInterceptor<ShapeSubheadingS
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(LengthTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().getMemberTrait(section.context().model(), LengthTrait.class).isPresent();
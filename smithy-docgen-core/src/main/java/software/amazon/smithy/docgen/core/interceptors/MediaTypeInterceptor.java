@@ -5,8 +5,11 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.MediaTypeTrait;
 import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
@@ -18,7 +21,9 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * mediaType</a> trait.
  */
 @SmithyInternalApi
-public final class MediaTypeInterceptor implements CodeInterceptor.Prepender<ShapeSubheadingSection, DocWriter> {
+public final class MediaTypeInterceptor implements
+        CodeInterceptor.Prepender<ShapeSubheadingSection, DocWriter>,
+        ScopedInterceptor<ShapeSubheadingSection> {
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().getMemberTrait(section.context().model(), MediaTypeTrait.class).isPresent();
@@ -29,6 +34,11 @@ public final class MediaTypeInterceptor implements CodeInterceptor.Prepender<Sha
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(MediaTypeTrait.ID);
+    }
+
     @Override
     public void prepend(DocWriter writer, ShapeSubheadingSection section) {
         var trait = section.shape().getMemberTrait(section.context().model(), MediaTypeTrait.class).get();
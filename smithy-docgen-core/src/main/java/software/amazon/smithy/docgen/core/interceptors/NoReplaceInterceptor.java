@@ -10,7 +10,6 @@ import software.amazon.smithy.codegen.core.SymbolReference;
 import software.amazon.smithy.docgen.core.DocGenerationContext;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
-import software.amazon.smithy.model.knowledge.BottomUpIndex;
 import software.amazon.smithy.model.shapes.ResourceShape;
 import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.traits.NoReplaceTrait;
@@ -76,8 +75,7 @@ abstract class NoReplaceInterceptor<S extends CodeSection> implements CodeInterc
     abstract DocGenerationContext getContext(S section);
 
     private Optional<ResourceShape> getResource(DocGenerationContext context, Shape shape) {
-        var bottomUpIndex = BottomUpIndex.of(context.model());
-        return bottomUpIndex.getResourceBinding(context.settings().service(), shape);
+        return context.knowledge().getResourceBinding(shape);
     }
 
 }
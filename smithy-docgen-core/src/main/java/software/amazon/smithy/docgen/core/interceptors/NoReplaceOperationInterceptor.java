@@ -5,21 +5,30 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
 import software.amazon.smithy.docgen.core.DocGenerationContext;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeType;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
  * Adds the noReplace admonition to the resource operation's doc page.
  */
 @SmithyInternalApi
-public final class NoReplaceOperationInterceptor extends NoReplaceInterceptor<ShapeDetailsSection> {
+public final class NoReplaceOperationInterceptor extends NoReplaceInterceptor<ShapeDetailsSection>
+        implements ScopedInterceptor<ShapeDetailsSection> {
     @Override
     public Class<ShapeDetailsSection> sectionType() {
         return ShapeDetailsSection.class;
     }
 
+    @Override
+    public Set<ShapeType> shapeTypes() {
+        return Set.of(ShapeType.OPERATION);
+    }
+
     @Override
     Shape getShape(ShapeDetailsSection section) {
         return section.shape();
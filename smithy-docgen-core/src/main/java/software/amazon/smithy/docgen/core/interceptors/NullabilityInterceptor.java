@@ -5,33 +5,37 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
-import software.amazon.smithy.model.knowledge.NullableIndex;
 import software.amazon.smithy.model.knowledge.NullableIndex.CheckMode;
-import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.model.shapes.ShapeType;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
  * Adds nullability information to member docs.
  */
 @SmithyInternalApi
-public final class NullabilityInterceptor implements CodeInterceptor<ShapeSubheadingSection, DocWriter> {
+public final class NullabilityInterceptor implements ScopedInterceptor<ShapeSubheadingSection> {
     @Override
     public Class<ShapeSubheadingSection> sectionType() {
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeType> shapeTypes() {
+        return Set.of(ShapeType.MEMBER);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         if (!section.shape().isMemberShape()) {
             return false;
         }
 
-        // It might seem crazy to create this for *every member*, but knowledge indexes
-        // actually get cached on the model so in reality it's only created once.
-        var index = NullableIndex.of(section.context().model());
+        var index = section.context().knowledge().nullableIndex();
         return !index.isMemberNullable(section.shape().asMemberShape().get(), CheckMode.SERVER);
     }
 
@@ -6,15 +6,16 @@
 package software.amazon.smithy.docgen.core.interceptors;
 
 import java.util.List;
-import software.amazon.smithy.docgen.core.DocgenUtils;
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
 import software.amazon.smithy.model.knowledge.ServiceIndex;
 import software.amazon.smithy.model.knowledge.ServiceIndex.AuthSchemeMode;
+import software.amazon.smithy.model.shapes.ShapeType;
 import software.amazon.smithy.model.shapes.ToShapeId;
 import software.amazon.smithy.model.traits.synthetic.NoAuthTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
@@ -22,30 +23,36 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * operations which don't support all of a service's auth schemes.
  */
 @SmithyInternalApi
-public final class OperationAuthInterceptor implements CodeInterceptor<ShapeDetailsSection, DocWriter> {
+public final class OperationAuthInterceptor implements ScopedInterceptor<ShapeDetailsSection> {
     @Override
     public Class<ShapeDetailsSection> sectionType() {
         return ShapeDetailsSection.class;
     }
 
+    @Override
+    public Set<ShapeType> shapeTypes() {
+        return Set.of(ShapeType.OPERATION);
+    }
+
     @Override
     public boolean isIntercepted(ShapeDetailsSection section) {
         if (!section.shape().isOperationShape()) {
             return false;
         }
-        var index = ServiceIndex.of(section.context().model());
+        var knowledge = section.context().knowledge();
         var service = section.context().settings().service();
 
         // Only add the admonition if the service has auth in the first place.
-        var serviceAuth = index.getAuthSchemes(service);
+        var serviceAuth = knowledge.authSchemes();
         if (serviceAuth.isEmpty()) {
             return false;
         }
 
         // Only add the admonition if the operations' effective auth schemes differs
         // from the total list of available auth schemes on the service.
-        var operationAuth = index.getEffectiveAuthSchemes(service, section.shape(), AuthSchemeMode.NO_AUTH_AWARE);
-        return !operationAuth.keySet().equals(serviceAuth.keySet());
+        var operationAuth = knowledge.serviceIndex()
+                .getEffectiveAuthSchemes(service, section.shape(), AuthSchemeMode.NO_AUTH_AWARE);
+        return !operationAuth.keySet().equals(serviceAuth);
     }
 
     @Override
@@ -53,12 +60,12 @@ public final class OperationAuthInterceptor implements CodeInterceptor<ShapeDeta
         writer.writeWithNoFormatting(previousText);
         writer.openAdmonition(NoticeType.IMPORTANT);
 
-        var index = ServiceIndex.of(section.context().model());
+        var index = section.context().knowledge().serviceIndex();
         var service = section.context().settings().service();
         var operation = section.shape();
 
 
-        var serviceAuth = DocgenUtils.getPrioritizedServiceAuth(section.context().model(), service);
+        var serviceAuth = section.context().knowledge().prioritizedAuth();
         var operationAuth = List.copyOf(
                 index.getEffectiveAuthSchemes(service, operation, AuthSchemeMode.MODELED).keySet());
 
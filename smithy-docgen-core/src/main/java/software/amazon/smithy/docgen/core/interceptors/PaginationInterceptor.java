@@ -5,23 +5,35 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
 import software.amazon.smithy.codegen.core.SymbolReference;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
-import software.amazon.smithy.model.knowledge.PaginatedIndex;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.shapes.ShapeType;
 import software.amazon.smithy.model.traits.PaginatedTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 
 /**
  * This adds pagination information to operation docs.
  */
-public final class PaginationInterceptor implements CodeInterceptor<ShapeDetailsSection, DocWriter> {
+public final class PaginationInterceptor implements ScopedInterceptor<ShapeDetailsSection> {
     @Override
     public Class<ShapeDetailsSection> sectionType() {
         return ShapeDetailsSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(PaginatedTrait.ID);
+    }
+
+    @Override
+    public Set<ShapeType> shapeTypes() {
+        return Set.of(ShapeType.OPERATION);
+    }
+
     @Override
     public boolean isIntercepted(ShapeDetailsSection section) {
         return section.shape().isOperationShape() && section.shape().hasTrait(PaginatedTrait.class);
@@ -29,7 +41,7 @@ public final class PaginationInterceptor implements CodeInterceptor<ShapeDetails
 
     @Override
     public void write(DocWriter writer, String previousText, ShapeDetailsSection section) {
-        var paginatedIndex = PaginatedIndex.of(section.context().model());
+        var paginatedIndex = section.context().knowledge().paginatedIndex();
         var service = section.context().settings().service();
         var paginationInfo = paginatedIndex.getPaginationInfo(service, section.shape()).get();
         var symbolProvider = section.context().symbolProvider();
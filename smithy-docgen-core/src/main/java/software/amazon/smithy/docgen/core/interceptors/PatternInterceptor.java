@@ -5,10 +5,12 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.PatternTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.Pair;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
@@ -18,7 +20,7 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * pattern trait</a>.
  */
 @SmithyInternalApi
-public final class PatternInterceptor implements CodeInterceptor<ShapeSubheadingSection, DocWriter> {
+public final class PatternInterceptor implements ScopedInterceptor<ShapeSubheadingSection> {
     private static final Pair<String, String> REGEX_REF = Pair.of(
             "ECMA 262 regular expression", "https://262.ecma-international.org/8.0/#sec-patterns"
     );
@@ -28,6 +30,11 @@ public final class PatternInterceptor implements CodeInterceptor<ShapeSubheading
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(PatternTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().getMemberTrait(section.context().model(), PatternTrait.class).isPresent();
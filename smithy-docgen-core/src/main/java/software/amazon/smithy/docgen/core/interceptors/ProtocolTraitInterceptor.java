@@ -5,19 +5,20 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ProtocolSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.ProtocolDefinitionTrait;
 import software.amazon.smithy.model.traits.Trait;
-import software.amazon.smithy.utils.CodeInterceptor;
 
 /**
  * Implements an interceptor that adds protocol trait documentation.
  *
  * @param <T> The class of the protocol trait.
  */
-abstract class ProtocolTraitInterceptor<T extends Trait> implements CodeInterceptor<ProtocolSection, DocWriter> {
+abstract class ProtocolTraitInterceptor<T extends Trait> implements ScopedInterceptor<ProtocolSection> {
 
     /**
      * @return returns the class of the protocol trait.
@@ -29,6 +30,11 @@ abstract class ProtocolTraitInterceptor<T extends Trait> implements CodeIntercep
      */
     protected abstract ShapeId getTraitId();
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(getTraitId());
+    }
+
     @Override
     public boolean isIntercepted(ProtocolSection section) {
         if (section.shape().getMemberTrait(section.context().model(), getTraitClass()).isEmpty()) {
@@ -9,12 +9,10 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import software.amazon.smithy.docgen.core.DocGenerationContext;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
-import software.amazon.smithy.model.knowledge.TopDownIndex;
 import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.traits.ReferencesTrait;
 import software.amazon.smithy.model.traits.ReferencesTrait.Reference;
@@ -58,10 +56,7 @@ public final class ReferencesInterceptor implements CodeInterceptor.Appender<Sha
         var symbolProvider = section.context().symbolProvider();
         var localRefs = getLocalReferences(section.context(), section.shape());
         var externalRefs = section.context().settings().references();
-        var serviceResources = TopDownIndex.of(model).getContainedResources(section.context().settings().service())
-                .stream()
-                .map(Shape::getId)
-                .collect(Collectors.toSet());
+        var serviceResources = section.context().knowledge().containedResourceIds();
 
         // This is a mapping of reference link to optional rel type. If `rel` isn't set,
         // it'll be an empty optional that won't get displayed.
@@ -95,6 +90,11 @@ public final class ReferencesInterceptor implements CodeInterceptor.Appender<Sha
 
     private Set<Reference> getLocalReferences(DocGenerationContext context, Shape shape) {
         var model = context.model();
+        var dependencies = context.pageDependencies();
+
+        // None of these shapes' symbols are needed unless they reference a resource,
+        // but the page has to be rebuilt if a reference is added to any of them.
+        dependencies.read(model, shape);
         var references = new LinkedHashSet<Reference>();
         if (shape.isOperationShape()) {
             var operation = shape.asOperationShape().get();
@@ -108,13 +108,13 @@ public final class ReferencesInterceptor implements CodeInterceptor.Appender<Sha
 
         var shapeRefs = shape.getMemberTrait(model, ReferencesTrait.class);
         var externalsRefs = context.settings().references();
-        var serviceResources = TopDownIndex.of(model).getContainedResources(context.settings().service())
-                .stream()
-                .map(Shape::getId)
-                .collect(Collectors.toSet());
+        var serviceResources = context.knowledge().containedResourceIds();
 
         if (shapeRefs.isPresent()) {
             for (var reference : shapeRefs.get().getReferences()) {
+                // Whether it links to the resource or to an external reference depends
+                // on whether the resource is in the service.
+                dependencies.read(reference.getResource());
                 if (serviceResources.contains(reference.getResource())
                         || externalsRefs.containsKey(reference.getResource())) {
                     references.add(reference);
@@ -6,11 +6,13 @@
 package software.amazon.smithy.docgen.core.interceptors;
 
 import java.util.Optional;
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.RequestCompressionTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
@@ -19,12 +21,17 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * requestCompression trait</a>.
  */
 @SmithyInternalApi
-public final class RequestCompressionInterceptor implements CodeInterceptor<ShapeDetailsSection, DocWriter> {
+public final class RequestCompressionInterceptor implements ScopedInterceptor<ShapeDetailsSection> {
     @Override
     public Class<ShapeDetailsSection> sectionType() {
         return ShapeDetailsSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(RequestCompressionTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeDetailsSection section) {
         return section.shape().hasTrait(RequestCompressionTrait.class);
@@ -5,9 +5,12 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.RetryableTrait;
 import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
@@ -16,12 +19,19 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * This adds badges and notices to errors that are retryable.
  */
 @SmithyInternalApi
-public final class RetryableInterceptor implements CodeInterceptor.Prepender<ShapeSubheadingSection, DocWriter> {
+public final class RetryableInterceptor implements
+        CodeInterceptor.Prepender<ShapeSubheadingSection, DocWriter>,
+        ScopedInterceptor<ShapeSubheadingSection> {
     @Override
     public Class<ShapeSubheadingSection> sectionType() {
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(RetryableTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().hasTrait(RetryableTrait.class);
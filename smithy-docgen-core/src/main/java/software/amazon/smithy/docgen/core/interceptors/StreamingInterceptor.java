@@ -5,9 +5,12 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.RequiresLengthTrait;
 import software.amazon.smithy.model.traits.StreamingTrait;
 import software.amazon.smithy.utils.CodeInterceptor;
@@ -17,12 +20,19 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * Adds documentation for the <a href="https://smithy.io/2.0/spec/streaming.html">streaming trait</a>.
  */
 @SmithyInternalApi
-public class StreamingInterceptor implements CodeInterceptor.Appender<ShapeDetailsSection, DocWriter> {
+public class StreamingInterceptor implements
+        CodeInterceptor.Appender<ShapeDetailsSection, DocWriter>,
+        ScopedInterceptor<ShapeDetailsSection> {
     @Override
     public Class<ShapeDetailsSection> sectionType() {
         return ShapeDetailsSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(StreamingTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeDetailsSection section) {
         return section.shape().getMemberTrait(section.context().model(), StreamingTrait.class).isPresent();
@@ -5,10 +5,12 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ShapeSubheadingSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.model.traits.UniqueItemsTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
 /**
@@ -17,12 +19,17 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * uniqueItems trait</a>.
  */
 @SmithyInternalApi
-public final class UniqueItemsInterceptor implements CodeInterceptor<ShapeSubheadingSection, DocWriter> {
+public final class UniqueItemsInterceptor implements ScopedInterceptor<ShapeSubheadingSection> {
     @Override
     public Class<ShapeSubheadingSection> sectionType() {
         return ShapeSubheadingSection.class;
     }
 
+    @Override
+    public Set<ShapeId> traits() {
+        return Set.of(UniqueItemsTrait.ID);
+    }
+
     @Override
     public boolean isIntercepted(ShapeSubheadingSection section) {
         return section.shape().getMemberTrait(section.context().model(), UniqueItemsTrait.class).isPresent();
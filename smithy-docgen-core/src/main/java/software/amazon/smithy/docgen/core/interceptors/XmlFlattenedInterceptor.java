@@ -5,13 +5,15 @@
 
 package software.amazon.smithy.docgen.core.interceptors;
 
+import java.util.Set;
 import software.amazon.smithy.docgen.core.DocGenerationContext;
+import software.amazon.smithy.docgen.core.ScopedInterceptor;
 import software.amazon.smithy.docgen.core.sections.ProtocolSection;
 import software.amazon.smithy.docgen.core.writers.DocWriter;
 import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeType;
 import software.amazon.smithy.model.traits.ProtocolDefinitionTrait;
 import software.amazon.smithy.model.traits.XmlFlattenedTrait;
-import software.amazon.smithy.utils.CodeInterceptor;
 import software.amazon.smithy.utils.Pair;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
@@ -22,7 +24,7 @@ import software.amazon.smithy.utils.SmithyInternalApi;
  * xmlFlattened</a> trait.
  */
 @SmithyInternalApi
-public class XmlFlattenedInterceptor implements CodeInterceptor<ProtocolSection, DocWriter> {
+public class XmlFlattenedInterceptor implements ScopedInterceptor<ProtocolSection> {
     private static final Pair<String, String> WRAPPED_LIST_REF = Pair.of(
             "wrapped", "https://smithy.io/2.0/spec/protocol-traits.html#wrapped-list-serialization"
     );
@@ -41,6 +43,11 @@ public class XmlFlattenedInterceptor implements CodeInterceptor<ProtocolSection,
         return ProtocolSection.class;
     }
 
+    @Override
+    public Set<ShapeType> shapeTypes() {
+        return Set.of(ShapeType.MEMBER);
+    }
+
     @Override
     public boolean isIntercepted(ProtocolSection section) {
         if (!section.shape().isMemberShape()) {
@@ -15,6 +15,10 @@ import software.amazon.smithy.utils.SmithyUnstableApi;
  * A section that contains protocol-specific information for a specific protocol
  * for a given shape.
  *
+ * <p>A protocol's tab is only written if an interceptor intercepts this section, as
+ * determined by {@link DocGenerationContext#isIntercepted}. Interceptors that intercept
+ * it are expected to write content.
+ *
  * @param context The context used to generate documentation.
  * @param shape The shape to add protocol information to.
  * @param protocol The shape id of the protocol being documented.
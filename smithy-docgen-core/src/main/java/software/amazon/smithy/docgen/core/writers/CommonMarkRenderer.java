@@ -0,0 +1,576 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.writers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders <a href="https://spec.commonmark.org">CommonMark</a> as HTML.
+ *
+ * <p>This supports the subset of CommonMark that's used by documentation traits
+ * and by the text that generators and interceptors write: ATX headings,
+ * paragraphs, fenced code blocks, block quotes, thematic breaks, nested bullet
+ * and ordered lists, raw HTML blocks and inline HTML, code spans, emphasis,
+ * links, images, autolinks, entities, backslash escapes, and hard line breaks.
+ *
+ * <p>Like CommonMark, a line that starts with an HTML tag begins an HTML block
+ * that's passed through as-is until the next blank line. This is what allows
+ * {@link HtmlWriter} to mix its own tags with CommonMark content. Indented code
+ * blocks and reference-style links are not supported, and indented lines are
+ * treated as ordinary text.
+ */
+final class CommonMarkRenderer {
+    private static final Pattern FENCE = Pattern.compile("^ {0,3}(`{3,}|~{3,})\\s*([^`\\s]*)");
+    private static final Pattern HEADING = Pattern.compile("^ {0,3}(#{1,6})(?:\\s+(.*?))?(?:\\s+#+)?\\s*$");
+    private static final Pattern THEMATIC_BREAK = Pattern.compile(
+            "^ {0,3}(?:(?:\\*\\s*){3,}|(?:-\\s*){3,}|(?:_\\s*){3,})$");
+    private static final Pattern LIST_ITEM = Pattern.compile("^( {0,3})([-*+]|\\d{1,9}[.)])( +|$)");
+    private static final Pattern BLOCK_QUOTE = Pattern.compile("^ {0,3}> ?");
+    private static final Pattern HTML_BLOCK = Pattern.compile(
+            "^ {0,3}<(?:/?([A-Za-z][A-Za-z0-9-]*)(?:[\\s>]|/>|$)|!--)");
+    private static final Pattern RAW_HTML_BLOCK = Pattern.compile("^ {0,3}<(pre|script|style|textarea)[\\s>]",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern INLINE_TAG = Pattern.compile(
+            "<(?:[A-Za-z][A-Za-z0-9-]*"
+                    + "(?:\\s+[A-Za-z_:][A-Za-z0-9_.:-]*(?:\\s*=\\s*(?:\"[^\"]*\"|'[^']*'|[^\\s\"'=<>`]+))?)*"
+                    + "\\s*/?>|/[A-Za-z][A-Za-z0-9-]*\\s*>|!--[\\s\\S]*?-->)");
+    private static final Pattern AUTOLINK = Pattern.compile("<([A-Za-z][A-Za-z0-9+.-]{1,31}:[^\\s<>]*)>");
+    private static final Pattern ENTITY = Pattern.compile(
+            "&(?:#[0-9]{1,7}|#[xX][0-9a-fA-F]{1,6}|[A-Za-z][A-Za-z0-9]{1,31});");
+    private static final Pattern LINK_DESTINATION = Pattern.compile(
+            "\\(\\s*(<[^>\\n]*>|[^\\s()]*(?:\\([^\\s()]*\\)[^\\s()]*)*)(?:\\s+(\"[^\"]*\"|'[^']*'))?\\s*\\)");
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "address", "article", "aside", "blockquote", "body", "caption", "center", "col", "colgroup", "dd",
+            "details", "dialog", "dir", "div", "dl", "dt", "fieldset", "figcaption", "figure", "footer", "form",
+            "frame", "frameset", "h1", "h2", "h3", "h4", "h5", "h6", "head", "header", "hr", "html", "iframe",
+            "legend", "li", "link", "main", "menu", "menuitem", "nav", "noframes", "ol", "optgroup", "option", "p",
+            "param", "search", "section", "summary", "table", "tbody", "td", "tfoot", "th", "thead", "title", "tr",
+            "track", "ul");
+    private static final String PUNCTUATION = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+
+    private CommonMarkRenderer() {}
+
+    /**
+     * Renders CommonMark as HTML.
+     *
+     * @param commonMark The CommonMark to render.
+     * @return returns the rendered HTML.
+     */
+    static String render(String commonMark) {
+        var html = new StringBuilder();
+        renderBlocks(commonMark.replace("\r\n", "\n").replace('\t', ' ').lines().toList(), html, false);
+        return html.toString();
+    }
+
+    private static void renderBlocks(List<String> lines, StringBuilder html, boolean tight) {
+        var i = 0;
+        while (i < lines.size()) {
+            var line = lines.get(i);
+            if (line.isBlank()) {
+                i++;
+                continue;
+            }
+
+            var fence = FENCE.matcher(line);
+            var heading = HEADING.matcher(line);
+            if (fence.find()) {
+                i = renderFencedCode(lines, i, fence, html);
+            } else if (RAW_HTML_BLOCK.matcher(line).find()) {
+                i = renderRawHtmlBlock(lines, i, html);
+            } else if (startsHtmlBlock(line, false)) {
+                // HTML blocks continue until the next blank line.
+                while (i < lines.size() && !lines.get(i).isBlank()) {
+                    html.append(lines.get(i)).append('\n');
+                    i++;
+                }
+            } else if (heading.matches()) {
+                var level = heading.group(1).length();
+                var content = heading.group(2) == null ? "" : heading.group(2);
+                html.append("<h").append(level).append('>')
+                        .append(renderInline(content))
+                        .append("</h").append(level).append(">\n");
+                i++;
+            } else if (THEMATIC_BREAK.matcher(line).matches()) {
+                html.append("<hr />\n");
+                i++;
+            } else if (BLOCK_QUOTE.matcher(line).find()) {
+                i = renderBlockQuote(lines, i, html);
+            } else if (LIST_ITEM.matcher(line).find()) {
+                i = renderList(lines, i, html);
+            } else {
+                i = renderParagraph(lines, i, html, tight);
+            }
+        }
+    }
+
+    private static int renderFencedCode(List<String> lines, int start, Matcher opening, StringBuilder html) {
+        var fence = opening.group(1);
+        var language = opening.group(2);
+        html.append("<pre><code");
+        if (!language.isEmpty()) {
+            html.append(" class=\"language-").append(escape(language)).append('"');
+        }
+        html.append('>');
+        var i = start + 1;
+        while (i < lines.size()) {
+            var line = lines.get(i);
+            var stripped = line.strip();
+            if (stripped.startsWith(fence) && stripped.chars().allMatch(c -> c == fence.charAt(0))) {
+                i++;
+                break;
+            }
+            html.append(escape(line)).append('\n');
+            i++;
+        }
+        html.append("</code></pre>\n");
+        return i;
+    }
+
+    private static int renderRawHtmlBlock(List<String> lines, int start, StringBuilder html) {
+        var matcher = RAW_HTML_BLOCK.matcher(lines.get(start));
+        matcher.find();
+        var closingTag = "</" + matcher.group(1).toLowerCase(Locale.ENGLISH) + ">";
+        var i = start;
+        while (i < lines.size()) {
+            var line = lines.get(i);
+            html.append(line).append('\n');
+            i++;
+            if (line.toLowerCase(Locale.ENGLISH).contains(closingTag)) {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static int renderBlockQuote(List<String> lines, int start, StringBuilder html) {
+        List<String> content = new ArrayList<>();
+        var i = start;
+        while (i < lines.size() && !lines.get(i).isBlank()) {
+            var matcher = BLOCK_QUOTE.matcher(lines.get(i));
+            // Lines without a marker are lazy continuations of the quote's paragraph.
+            content.add(matcher.find() ? lines.get(i).substring(matcher.end()) : lines.get(i));
+            i++;
+        }
+        html.append("<blockquote>\n");
+        renderBlocks(content, html, false);
+        html.append("</blockquote>\n");
+        return i;
+    }
+
+    private static int renderList(List<String> lines, int start, StringBuilder html) {
+        var first = LIST_ITEM.matcher(lines.get(start));
+        first.find();
+        var ordered = Character.isDigit(first.group(2).charAt(0));
+        var delimiter = first.group(2).charAt(first.group(2).length() - 1);
+
+        List<List<String>> items = new ArrayList<>();
+        var loose = false;
+        var i = start;
+        while (i < lines.size()) {
+            var marker = LIST_ITEM.matcher(lines.get(i));
+            if (!marker.find() || isOrdered(marker) != ordered || lastChar(marker.group(2)) != delimiter) {
+                break;
+            }
+            var contentIndent = marker.group(3).isEmpty() || marker.group(3).length() > 4
+                    ? marker.end(2) + 1
+                    : marker.end();
+            List<String> item = new ArrayList<>();
+            item.add(lines.get(i).length() > marker.end() ? lines.get(i).substring(marker.end()) : "");
+            i++;
+
+            var sawBlank = false;
+            while (i < lines.size()) {
+                var line = lines.get(i);
+                if (line.isBlank()) {
+                    sawBlank = true;
+                    item.add("");
+                    i++;
+                    continue;
+                }
+                var indent = indentation(line);
+                if (indent >= contentIndent) {
+                    if (sawBlank) {
+                        loose = true;
+                    }
+                    item.add(line.substring(contentIndent));
+                    sawBlank = false;
+                    i++;
+                } else if (!sawBlank && !startsBlock(line)) {
+                    // A lazy continuation of the item's paragraph.
+                    item.add(line.strip());
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            // Blank lines between items make the list loose, but trailing blank
+            // lines at the end of the list don't.
+            if (sawBlank && i < lines.size()) {
+                var next = LIST_ITEM.matcher(lines.get(i));
+                if (next.find() && isOrdered(next) == ordered && lastChar(next.group(2)) == delimiter) {
+                    loose = true;
+                }
+            }
+            items.add(item);
+        }
+
+        var tag = ordered ? "ol" : "ul";
+        html.append('<').append(tag);
+        if (ordered) {
+            var startNumber = Integer.parseInt(first.group(2).substring(0, first.group(2).length() - 1));
+            if (startNumber != 1) {
+                html.append(" start=\"").append(startNumber).append('"');
+            }
+        }
+        html.append(">\n");
+        for (var item : items) {
+            html.append("<li>");
+            var content = new StringBuilder();
+            renderBlocks(item, content, !loose);
+            html.append(content.toString().strip()).append("</li>\n");
+        }
+        html.append("</").append(tag).append(">\n");
+        return i;
+    }
+
+    private static int renderParagraph(List<String> lines, int start, StringBuilder html, boolean tight) {
+        // Trailing spaces are kept until the inline content is rendered, since two
+        // of them make a hard line break.
+        var text = new StringBuilder(lines.get(start).stripLeading());
+        var i = start + 1;
+        while (i < lines.size() && !lines.get(i).isBlank() && !interruptsParagraph(lines.get(i))) {
+            text.append('\n').append(lines.get(i).stripLeading());
+            i++;
+        }
+        var content = renderInline(text.toString().stripTrailing());
+        if (tight) {
+            html.append(content).append('\n');
+        } else {
+            html.append("<p>").append(content).append("</p>\n");
+        }
+        return i;
+    }
+
+    private static boolean startsBlock(String line) {
+        return FENCE.matcher(line).find()
+                || startsHtmlBlock(line, true)
+                || HEADING.matcher(line).matches()
+                || THEMATIC_BREAK.matcher(line).matches()
+                || BLOCK_QUOTE.matcher(line).find()
+                || LIST_ITEM.matcher(line).find();
+    }
+
+    private static boolean interruptsParagraph(String line) {
+        if (!startsBlock(line)) {
+            return false;
+        }
+        // Only bullet lists and ordered lists starting at 1 may interrupt a
+        // paragraph, and never when they're empty.
+        var marker = LIST_ITEM.matcher(line);
+        if (marker.find() && !HEADING.matcher(line).matches() && !THEMATIC_BREAK.matcher(line).matches()) {
+            if (line.substring(marker.end()).isBlank()) {
+                return false;
+            }
+            return !isOrdered(marker) || marker.group(2).startsWith("1") && marker.group(2).length() == 2;
+        }
+        return true;
+    }
+
+    private static boolean startsHtmlBlock(String line, boolean inParagraph) {
+        var matcher = HTML_BLOCK.matcher(line);
+        if (matcher.find() && (matcher.group(1) == null
+                || BLOCK_TAGS.contains(matcher.group(1).toLowerCase(Locale.ENGLISH)))) {
+            return true;
+        }
+        // Any other tag only starts a block if it's alone on its line, and then
+        // only if it isn't continuing a paragraph.
+        return !inParagraph && INLINE_TAG.matcher(line.strip()).matches();
+    }
+
+    private static boolean isOrdered(Matcher listMarker) {
+        return Character.isDigit(listMarker.group(2).charAt(0));
+    }
+
+    private static char lastChar(String value) {
+        return value.charAt(value.length() - 1);
+    }
+
+    private static int indentation(String line) {
+        var indent = 0;
+        while (indent < line.length() && line.charAt(indent) == ' ') {
+            indent++;
+        }
+        return indent;
+    }
+
+    /**
+     * Renders the inline content of a block.
+     *
+     * @param text The text to render.
+     * @return returns the rendered HTML.
+     */
+    static String renderInline(String text) {
+        var html = new StringBuilder();
+        var i = 0;
+        while (i < text.length()) {
+            var c = text.charAt(i);
+            switch (c) {
+                case '\\' -> {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                        html.append("<br />\n");
+                        i += 2;
+                    } else if (i + 1 < text.length() && PUNCTUATION.indexOf(text.charAt(i + 1)) >= 0) {
+                        html.append(escape(String.valueOf(text.charAt(i + 1))));
+                        i += 2;
+                    } else {
+                        html.append('\\');
+                        i++;
+                    }
+                }
+                case '`' -> i = renderCodeSpan(text, i, html);
+                case '<' -> i = renderAngleBracket(text, i, html);
+                case '&' -> {
+                    var matcher = ENTITY.matcher(text).region(i, text.length());
+                    if (matcher.lookingAt()) {
+                        html.append(matcher.group());
+                        i = matcher.end();
+                    } else {
+                        html.append("&amp;");
+                        i++;
+                    }
+                }
+                case '!' -> {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '[') {
+                        i = renderLink(text, i + 1, html, true, i);
+                    } else {
+                        html.append('!');
+                        i++;
+                    }
+                }
+                case '[' -> i = renderLink(text, i, html, false, i);
+                case '*', '_' -> i = renderEmphasis(text, i, html);
+                case '\n' -> {
+                    // Two trailing spaces make a hard line break.
+                    if (html.length() >= 2 && html.charAt(html.length() - 1) == ' '
+                            && html.charAt(html.length() - 2) == ' ') {
+                        html.setLength(html.length() - 2);
+                        html.append("<br />");
+                    }
+                    while (html.length() > 0 && html.charAt(html.length() - 1) == ' ') {
+                        html.setLength(html.length() - 1);
+                    }
+                    html.append('\n');
+                    i++;
+                }
+                case '>' -> {
+                    html.append("&gt;");
+                    i++;
+                }
+                case '"' -> {
+                    html.append("&quot;");
+                    i++;
+                }
+                default -> {
+                    html.append(c);
+                    i++;
+                }
+            }
+        }
+        return html.toString();
+    }
+
+    private static int renderCodeSpan(String text, int start, StringBuilder html) {
+        var end = start;
+        while (end < text.length() && text.charAt(end) == '`') {
+            end++;
+        }
+        var fence = text.substring(start, end);
+        var search = end;
+        while (true) {
+            var close = text.indexOf(fence, search);
+            if (close < 0) {
+                html.append(fence);
+                return end;
+            }
+            var closeEnd = close + fence.length();
+            if (closeEnd < text.length() && text.charAt(closeEnd) == '`') {
+                // A longer run of backticks doesn't close the span.
+                while (closeEnd < text.length() && text.charAt(closeEnd) == '`') {
+                    closeEnd++;
+                }
+                search = closeEnd;
+                continue;
+            }
+            var code = text.substring(end, close).replace('\n', ' ');
+            if (code.length() > 2 && code.startsWith(" ") && code.endsWith(" ") && !code.isBlank()) {
+                code = code.substring(1, code.length() - 1);
+            }
+            html.append("<code>").append(escape(code)).append("</code>");
+            return closeEnd;
+        }
+    }
+
+    private static int renderAngleBracket(String text, int start, StringBuilder html) {
+        var autolink = AUTOLINK.matcher(text).region(start, text.length());
+        if (autolink.lookingAt()) {
+            var url = autolink.group(1);
+            html.append("<a href=\"").append(escape(url)).append("\">").append(escape(url)).append("</a>");
+            return autolink.end();
+        }
+        var tag = INLINE_TAG.matcher(text).region(start, text.length());
+        if (tag.lookingAt()) {
+            html.append(tag.group());
+            return tag.end();
+        }
+        html.append("&lt;");
+        return start + 1;
+    }
+
+    private static int renderLink(String text, int open, StringBuilder html, boolean image, int start) {
+        var close = findClosingBracket(text, open);
+        if (close < 0) {
+            html.append(text, start, open + 1);
+            return open + 1;
+        }
+        var destination = LINK_DESTINATION.matcher(text).region(close + 1, text.length());
+        if (!destination.lookingAt()) {
+            html.append(text, start, open + 1);
+            return open + 1;
+        }
+        var url = destination.group(1);
+        if (url.startsWith("<") && url.endsWith(">")) {
+            url = url.substring(1, url.length() - 1);
+        }
+        var title = destination.group(2);
+        var label = text.substring(open + 1, close);
+        if (image) {
+            html.append("<img src=\"").append(escape(url)).append("\" alt=\"").append(escape(label)).append('"');
+            if (title != null) {
+                html.append(" title=\"").append(escape(title.substring(1, title.length() - 1))).append('"');
+            }
+            html.append(" />");
+        } else {
+            html.append("<a href=\"").append(escape(url)).append('"');
+            if (title != null) {
+                html.append(" title=\"").append(escape(title.substring(1, title.length() - 1))).append('"');
+            }
+            html.append('>').append(renderInline(label)).append("</a>");
+        }
+        return destination.end();
+    }
+
+    private static int findClosingBracket(String text, int open) {
+        var depth = 0;
+        for (var i = open; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '`') {
+                // Brackets within code spans don't count.
+                var end = i;
+                while (end < text.length() && text.charAt(end) == '`') {
+                    end++;
+                }
+                var close = text.indexOf(text.substring(i, end), end);
+                if (close >= 0) {
+                    i = close + (end - i) - 1;
+                }
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int renderEmphasis(String text, int start, StringBuilder html) {
+        var delimiter = text.charAt(start);
+        var length = start + 1 < text.length() && text.charAt(start + 1) == delimiter ? 2 : 1;
+        var contentStart = start + length;
+
+        // An opening delimiter must be followed by non-whitespace, and underscores
+        // can't open emphasis within a word.
+        var canOpen = contentStart < text.length() && !Character.isWhitespace(text.charAt(contentStart))
+                && !(delimiter == '_' && start > 0 && Character.isLetterOrDigit(text.charAt(start - 1)));
+        if (canOpen) {
+            var close = findClosingDelimiter(text, contentStart, delimiter, length);
+            if (close > contentStart) {
+                var tag = length == 2 ? "strong" : "em";
+                html.append('<').append(tag).append('>')
+                        .append(renderInline(text.substring(contentStart, close)))
+                        .append("</").append(tag).append('>');
+                return close + length;
+            }
+        }
+        html.append(text, start, contentStart);
+        return contentStart;
+    }
+
+    private static int findClosingDelimiter(String text, int from, char delimiter, int length) {
+        var run = String.valueOf(delimiter).repeat(length);
+        for (var i = from; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+                continue;
+            }
+            if (c == '`' || c == '<') {
+                // Skip over code spans and tags so that delimiters within them don't count.
+                var skipped = new StringBuilder();
+                var end = c == '`' ? renderCodeSpan(text, i, skipped) : renderAngleBracket(text, i, skipped);
+                i = end - 1;
+                continue;
+            }
+            if (!text.startsWith(run, i) || Character.isWhitespace(text.charAt(i - 1))) {
+                continue;
+            }
+            var after = i + length;
+            if (after < text.length() && text.charAt(after) == delimiter) {
+                // Skip over longer runs, which belong to a different emphasis.
+                while (after < text.length() && text.charAt(after) == delimiter) {
+                    after++;
+                }
+                i = after - 1;
+                continue;
+            }
+            if (delimiter == '_' && after < text.length() && Character.isLetterOrDigit(text.charAt(after))) {
+                continue;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Escapes text for use in HTML content or attribute values.
+     *
+     * @param text The text to escape.
+     * @return returns the escaped text.
+     */
+    static String escape(String text) {
+        var escaped = new StringBuilder(text.length());
+        for (var i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
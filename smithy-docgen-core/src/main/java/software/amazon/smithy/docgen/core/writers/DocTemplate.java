@@ -0,0 +1,378 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.writers;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import software.amazon.smithy.utils.AbstractCodeWriter;
+
+/**
+ * A writer template that's parsed once and may then be written any number of times.
+ *
+ * <p>{@link DocWriter#write} looks templates up here, so the templates that
+ * generators and interceptors write for every shape aren't parsed again each time
+ * they're written. Only the parsed structure is shared. Arguments, context values,
+ * and formatters all come from the writer the template is written to, so formatters
+ * registered by writer subclasses apply just as they do with
+ * {@link AbstractCodeWriter#write}.
+ *
+ * <p>Relative and positional arguments, named context values, and conditional and
+ * loop blocks are supported. Templates that use anything else, such as inline
+ * sections, block alignment, whitespace control, or named loop variables, are left
+ * to the writer's own parser, as are templates with the wrong number of arguments
+ * so that the writer reports the error.
+ */
+final class DocTemplate {
+    /**
+     * The most templates kept for a single writer class.
+     */
+    static final int MAX_TEMPLATES = 512;
+
+    // Templates are kept per writer class, so the templates of one format can't
+    // evict those of another format being written in the same process.
+    private static final ClassValue<Map<String, DocTemplate>> CACHES = new ClassValue<>() {
+        @Override
+        protected Map<String, DocTemplate> computeValue(Class<?> writerClass) {
+            return Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, DocTemplate> eldest) {
+                    return size() > MAX_TEMPLATES;
+                }
+            });
+        }
+    };
+
+    private static final Pattern NAME = Pattern.compile("^[a-z]+[a-zA-Z0-9_.#$]*$");
+    private static final char EXPRESSION_START = '$';
+
+    private final List<Node> nodes;
+    private final int relativeArguments;
+    private final BitSet positionalArguments;
+
+    private DocTemplate(List<Node> nodes, int relativeArguments, BitSet positionalArguments) {
+        this.nodes = nodes;
+        this.relativeArguments = relativeArguments;
+        this.positionalArguments = positionalArguments;
+    }
+
+    /**
+     * Gets the parsed form of a template for the given writer class.
+     *
+     * @param writerClass The class of the writer the template is written to.
+     * @param template The template to parse.
+     * @return returns the parsed template.
+     */
+    static DocTemplate of(Class<? extends DocWriter> writerClass, String template) {
+        return CACHES.get(writerClass).computeIfAbsent(template, DocTemplate::parse);
+    }
+
+    /**
+     * Formats the template with the given writer's arguments, context, and formatters.
+     *
+     * @param writer The writer to format the template with.
+     * @param args The arguments referenced by the template.
+     * @return returns the formatted template, or empty if the writer has to format
+     *     the template itself.
+     */
+    Optional<String> format(DocWriter writer, Object... args) {
+        if (nodes == null || writer.getExpressionStart() != EXPRESSION_START || !acceptsArguments(args.length)) {
+            return Optional.empty();
+        }
+        var builder = new StringBuilder();
+        render(nodes, writer, args, builder);
+        return Optional.of(builder.toString());
+    }
+
+    // The writer's own parser requires every argument to be used exactly as these
+    // checks do, and it produces the error message if they fail.
+    private boolean acceptsArguments(int count) {
+        if (positionalArguments.isEmpty()) {
+            return count == relativeArguments;
+        }
+        return positionalArguments.length() <= count && positionalArguments.cardinality() == count;
+    }
+
+    private static void render(List<Node> nodes, DocWriter writer, Object[] args, StringBuilder builder) {
+        for (var node : nodes) {
+            if (node instanceof Text text) {
+                builder.append(text.value());
+            } else if (node instanceof Argument argument) {
+                builder.append(applyFormatter(writer, argument.formatter(), args[argument.index()]));
+            } else if (node instanceof Named named) {
+                builder.append(applyFormatter(writer, named.formatter(), writer.getContext(named.name())));
+            } else if (node instanceof Block block) {
+                renderBlock(block, writer, args, builder);
+            }
+        }
+    }
+
+    private static String applyFormatter(DocWriter writer, char formatter, Object value) {
+        // The writer's format method resolves the formatter from the writer's current
+        // state, which includes any formatters a subclass registered.
+        return writer.format(String.valueOf(EXPRESSION_START) + formatter, value);
+    }
+
+    private static void renderBlock(Block block, DocWriter writer, Object[] args, StringBuilder builder) {
+        var value = writer.getContext(block.name());
+        switch (block.type()) {
+            case '?' -> {
+                if (isTruthy(value)) {
+                    render(block.body(), writer, args, builder);
+                }
+            }
+            case '^' -> {
+                if (!isTruthy(value)) {
+                    render(block.body(), writer, args, builder);
+                }
+            }
+            default -> {
+                var iterator = iterate(value);
+                var first = true;
+                while (iterator.hasNext()) {
+                    var entry = iterator.next();
+                    writer.pushState();
+                    writer.putContext("key", entry.getKey());
+                    writer.putContext("value", entry.getValue());
+                    writer.putContext("key.first", first);
+                    writer.putContext("key.last", !iterator.hasNext());
+                    render(block.body(), writer, args, builder);
+                    writer.popState();
+                    first = false;
+                }
+            }
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        } else if (value instanceof Optional<?> optional) {
+            return optional.isPresent();
+        } else if (value instanceof Boolean bool) {
+            return bool;
+        } else if (value instanceof Iterable<?> iterable) {
+            return iterable.iterator().hasNext();
+        } else if (value instanceof Map<?, ?> map) {
+            return !map.isEmpty();
+        } else if (value instanceof String string) {
+            return !string.isEmpty();
+        }
+        return true;
+    }
+
+    private static Iterator<? extends Map.Entry<?, ?>> iterate(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return map.entrySet().iterator();
+        } else if (value instanceof Iterable<?> iterable) {
+            var elements = iterable.iterator();
+            return new Iterator<>() {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return elements.hasNext();
+                }
+
+                @Override
+                public Map.Entry<?, ?> next() {
+                    return new SimpleImmutableEntry<>(index++, elements.next());
+                }
+            };
+        }
+        return Collections.emptyIterator();
+    }
+
+    private static DocTemplate parse(String template) {
+        try {
+            return new Parser(template).parse();
+        } catch (UnsupportedSyntax e) {
+            return new DocTemplate(null, 0, new BitSet());
+        }
+    }
+
+    private sealed interface Node {}
+
+    private record Text(String value) implements Node {}
+
+    private record Argument(int index, char formatter) implements Node {}
+
+    private record Named(String name, char formatter) implements Node {}
+
+    private record Block(char type, String name, List<Node> body) implements Node {}
+
+    private static final class Parser {
+        private final String template;
+        private final Deque<Block> blocks = new ArrayDeque<>();
+        private final BitSet positional = new BitSet();
+        private final StringBuilder text = new StringBuilder();
+        private final List<Node> root = new ArrayList<>();
+        private int position = 0;
+        private int relative = 0;
+
+        Parser(String template) {
+            this.template = template;
+        }
+
+        DocTemplate parse() {
+            while (position < template.length()) {
+                var c = template.charAt(position);
+                if (c != EXPRESSION_START) {
+                    text.append(c);
+                    position++;
+                } else if (peek(1) == EXPRESSION_START) {
+                    text.append(c);
+                    position += 2;
+                } else if (peek(1) == '{') {
+                    parseBraced();
+                } else {
+                    flushText();
+                    var end = position + 1;
+                    while (end < template.length() && Character.isDigit(template.charAt(end))) {
+                        end++;
+                    }
+                    nodes().add(parseArgument(template.substring(position + 1, Math.min(end + 1, template.length()))));
+                    position = end + 1;
+                }
+            }
+            if (!blocks.isEmpty()) {
+                throw new UnsupportedSyntax();
+            }
+            flushText();
+            if (relative > 0 && !positional.isEmpty()) {
+                throw new UnsupportedSyntax();
+            }
+            return new DocTemplate(root, relative, positional);
+        }
+
+        private void parseBraced() {
+            var end = template.indexOf('}', position);
+            if (end < 0) {
+                throw new UnsupportedSyntax();
+            }
+            var content = template.substring(position + 2, end);
+            var type = content.isEmpty() ? 0 : content.charAt(0);
+            if (type == '?' || type == '^' || type == '#' || type == '/') {
+                var name = content.substring(1);
+                if (!NAME.matcher(name).matches()) {
+                    throw new UnsupportedSyntax();
+                }
+                parseBlockTag((char) type, name, end + 1);
+                return;
+            }
+            flushText();
+            var separator = content.indexOf(':');
+            if (separator < 0) {
+                nodes().add(parseArgument(content));
+            } else {
+                var name = content.substring(0, separator);
+                var formatter = content.substring(separator + 1);
+                if (!NAME.matcher(name).matches() || formatter.length() != 1 || !isFormatter(formatter.charAt(0))) {
+                    throw new UnsupportedSyntax();
+                }
+                nodes().add(new Named(name, formatter.charAt(0)));
+            }
+            position = end + 1;
+        }
+
+        private Node parseArgument(String content) {
+            if (content.isEmpty() || !isFormatter(content.charAt(content.length() - 1))) {
+                throw new UnsupportedSyntax();
+            }
+            var formatter = content.charAt(content.length() - 1);
+            var digits = content.substring(0, content.length() - 1);
+            if (digits.isEmpty()) {
+                return new Argument(relative++, formatter);
+            }
+            for (var i = 0; i < digits.length(); i++) {
+                if (!Character.isDigit(digits.charAt(i))) {
+                    throw new UnsupportedSyntax();
+                }
+            }
+            var index = Integer.parseInt(digits) - 1;
+            if (index < 0) {
+                throw new UnsupportedSyntax();
+            }
+            positional.set(index);
+            return new Argument(index, formatter);
+        }
+
+        // A block tag that's the only thing on its line is removed along with the
+        // line's leading whitespace and the line break that follows it.
+        private void parseBlockTag(char type, String name, int end) {
+            var lineStart = template.lastIndexOf('\n', position - 1) + 1;
+            var next = end < template.length() ? template.charAt(end) : '\n';
+            if ((next == '\n' || next == '\r') && isIndentation(lineStart, position)) {
+                text.setLength(text.length() - (position - lineStart));
+                if (template.startsWith("\r\n", end)) {
+                    end += 2;
+                } else if (end < template.length()) {
+                    end++;
+                }
+            }
+            flushText();
+            position = end;
+
+            if (type == '/') {
+                if (blocks.isEmpty() || !blocks.peek().name().equals(name)) {
+                    throw new UnsupportedSyntax();
+                }
+                blocks.pop();
+            } else {
+                var block = new Block(type, name, new ArrayList<>());
+                nodes().add(block);
+                blocks.push(block);
+            }
+        }
+
+        // Nodes are added to the innermost open block.
+        private List<Node> nodes() {
+            return blocks.isEmpty() ? root : blocks.peek().body();
+        }
+
+        private boolean isIndentation(int start, int end) {
+            for (var i = start; i < end; i++) {
+                var c = template.charAt(i);
+                if (c != ' ' && c != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isFormatter(char c) {
+            return c == '`' || (c >= 'A' && c <= 'Z');
+        }
+
+        private char peek(int offset) {
+            var index = position + offset;
+            return index < template.length() ? template.charAt(index) : 0;
+        }
+
+        private void flushText() {
+            if (!text.isEmpty()) {
+                nodes().add(new Text(text.toString()));
+                text.setLength(0);
+            }
+        }
+    }
+
+    // Thrown while parsing a template that has to be parsed by the writer instead.
+    private static final class UnsupportedSyntax extends RuntimeException {
+        UnsupportedSyntax() {
+            super(null, null, false, false);
+        }
+    }
+}
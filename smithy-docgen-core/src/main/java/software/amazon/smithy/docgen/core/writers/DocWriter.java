@@ -5,13 +5,21 @@
 
 package software.amazon.smithy.docgen.core.writers;
 
+import static software.amazon.smithy.docgen.core.DocgenUtils.getSymbolLink;
+
+import java.nio.file.Paths;
+import java.util.Optional;
 import java.util.function.Consumer;
 import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.codegen.core.SymbolReference;
 import software.amazon.smithy.codegen.core.SymbolWriter;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.traits.DocumentationTrait;
 import software.amazon.smithy.model.traits.StringTrait;
+import software.amazon.smithy.utils.AbstractCodeWriter;
+import software.amazon.smithy.utils.Pair;
 import software.amazon.smithy.utils.SmithyUnstableApi;
 
 /**
@@ -69,6 +77,44 @@ public abstract class DocWriter extends SymbolWriter<DocWriter, DocImportContain
      */
     abstract String referenceFormatter(Object value);
 
+    /**
+     * Splits a value given to the {@code $R} formatter into its link text and link.
+     *
+     * @param value The value to split. See {@link #referenceFormatter} for the
+     *              supported types.
+     * @return returns the link text and, if one could be resolved, the link.
+     */
+    Pair<String, Optional<String>> getReferencePair(Object value) {
+        String text;
+        Optional<String> ref;
+        var relativeTo = Paths.get(filename);
+        if (value instanceof Optional<?> optional && optional.isPresent()) {
+            return getReferencePair(optional.get());
+        } else if (value instanceof Symbol symbolValue) {
+            text = symbolValue.getName();
+            ref = getSymbolLink(symbolValue, relativeTo);
+        } else if (value instanceof SymbolReference referenceValue) {
+            text = referenceValue.getAlias();
+            ref = getSymbolLink(referenceValue.getSymbol(), relativeTo);
+        } else if (value instanceof Pair pairValue) {
+            if (pairValue.getLeft() instanceof String left && pairValue.getRight() instanceof String right) {
+                text = left;
+                ref = Optional.of(right);
+            } else {
+                throw new CodegenException(
+                        "Invalid type provided to $R. Expected both key and vale of the Pair to be Strings, but "
+                        + "found " + value.getClass()
+                );
+            }
+        } else {
+            throw new CodegenException(
+                    "Invalid type provided to $R. Expected a Symbol, SymbolReference, or Pair<String, String>, but "
+                    + "found " + value.getClass()
+            );
+        }
+        return Pair.of(text, ref);
+    }
+
     /**
      * Formats the given object as a bold string.
      *
@@ -89,6 +135,55 @@ public abstract class DocWriter extends SymbolWriter<DocWriter, DocImportContain
      */
     abstract String inlineLiteralFormatter(Object value);
 
+    /**
+     * Writes a formatted template, followed by a newline.
+     *
+     * <p>This behaves just like {@link AbstractCodeWriter#write}, except that each
+     * template is only parsed once for each writer class rather than every time it's
+     * written.
+     *
+     * @param content The template to write.
+     * @param args The arguments referenced by the template.
+     * @return returns the writer.
+     */
+    @Override
+    public DocWriter write(Object content, Object... args) {
+        if (content instanceof String template) {
+            // Text without any expressions, like documentation, is written as is
+            // rather than taking up space in the template cache.
+            if (args.length == 0 && template.indexOf(getExpressionStart()) < 0) {
+                return writeWithNoFormatting(template);
+            }
+            var formatted = DocTemplate.of(getClass(), template).format(this, args);
+            if (formatted.isPresent()) {
+                return writeWithNoFormatting(formatted.get());
+            }
+        }
+        return super.write(content, args);
+    }
+
+    /**
+     * Writes everything that was written to another writer, as if it had been
+     * written to this one.
+     *
+     * <p>This is used to merge pages that were rendered in isolation, such as pages
+     * rendered in parallel, into the writer for their file. The other writer's
+     * content is copied as-is, so its sections aren't intercepted again.
+     *
+     * @param other The writer whose content to write. It must be of the same type.
+     * @return returns the writer.
+     */
+    public DocWriter writeContentsOf(DocWriter other) {
+        addDependency(other);
+        return writeInlineWithNoFormatting(other.contents());
+    }
+
+    private String contents() {
+        // This is the content as it was written, before subclasses finalize it
+        // in toString.
+        return super.toString();
+    }
+
     /**
      * Writes out the content of the shape's
      * <a href="https://smithy.io/2.0/spec/documentation-traits.html#smithy-api-documentation-trait">
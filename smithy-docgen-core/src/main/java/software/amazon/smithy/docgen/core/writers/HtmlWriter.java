@@ -0,0 +1,280 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.writers;
+
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.function.Consumer;
+import software.amazon.smithy.codegen.core.SymbolWriter;
+import software.amazon.smithy.utils.SmithyUnstableApi;
+import software.amazon.smithy.utils.StringUtils;
+
+/**
+ * Writes documentation as standalone HTML pages.
+ *
+ * <p>Content is written as <a href="https://spec.commonmark.org">CommonMark</a>
+ * with each structural element written as its own HTML block, and the whole page
+ * is rendered to HTML when the writer is converted to a string. This allows
+ * documentation traits to be written as-is, with no separate conversion step,
+ * and it means that no external tools are needed to produce a browsable site.
+ *
+ * <p>Pages link to a stylesheet at {@link #STYLESHEET}, relative to the
+ * {@code content} directory they're written to.
+ */
+@SmithyUnstableApi
+public class HtmlWriter extends DocWriter {
+    /**
+     * The path to the stylesheet that pages link to, relative to the content directory.
+     */
+    public static final String STYLESHEET = "_static/docgen.css";
+
+    private boolean isNewTabGroup = true;
+    private String title;
+
+    /**
+     * Constructs an HtmlWriter.
+     *
+     * @param importContainer this file's import container.
+     * @param filename The full path to the file being written to.
+     */
+    public HtmlWriter(DocImportContainer importContainer, String filename) {
+        super(importContainer, filename);
+    }
+
+    /**
+     * Constructs an HtmlWriter.
+     *
+     * @param filename The full path to the file being written to.
+     */
+    public HtmlWriter(String filename) {
+        this(new DocImportContainer(), filename);
+    }
+
+    /**
+     * Factory to construct {@code HtmlWriter}s.
+     */
+    public static final class Factory implements SymbolWriter.Factory<DocWriter> {
+        @Override
+        public DocWriter apply(String filename, String namespace) {
+            return new HtmlWriter(filename);
+        }
+    }
+
+    @Override
+    String referenceFormatter(Object value) {
+        var reference = getReferencePair(value);
+        if (reference.getRight().isPresent()) {
+            return String.format("<a href=\"%s\">%s</a>",
+                    escape(reference.getRight().get()), escape(reference.getLeft()));
+        } else {
+            return escape(reference.getLeft());
+        }
+    }
+
+    @Override
+    String boldFormatter(Object value) {
+        return String.format("<strong>%s</strong>", escape(formatLiteral(value)));
+    }
+
+    @Override
+    String inlineLiteralFormatter(Object value) {
+        return String.format("<code>%s</code>", escape(formatLiteral(value)));
+    }
+
+    /**
+     * Escapes text so that it's neither interpreted as HTML nor as CommonMark.
+     *
+     * <p>CommonMark characters are replaced with character references rather than
+     * backslash-escaped since text may end up in an HTML block, where backslash
+     * escapes aren't processed.
+     */
+    private static String escape(String text) {
+        var builder = new StringBuilder(text.length());
+        for (var c : CommonMarkRenderer.escape(text).toCharArray()) {
+            switch (c) {
+                case '*', '_', '`', '[', ']', '\\' -> builder.append("&#").append((int) c).append(';');
+                default -> builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes an HTML tag on its own line, separated by blank lines.
+     *
+     * <p>The surrounding blank lines make sure the tag is treated as its own HTML
+     * block, so any CommonMark content around it is still rendered.
+     */
+    private DocWriter writeTag(Object content, Object... args) {
+        write("\n" + content + "\n", args);
+        return this;
+    }
+
+    @Override
+    public DocWriter writeCommonMark(String commonMark) {
+        write(commonMark);
+        write("");
+        return this;
+    }
+
+    @Override
+    DocWriter openHeading(String content, int level) {
+        if (title == null) {
+            title = content;
+        }
+        return writeTag("<h$1L>$2L</h$1L>", level, escape(content));
+    }
+
+    @Override
+    public DocWriter writeContentsOf(DocWriter other) {
+        if (title == null && other instanceof HtmlWriter htmlWriter) {
+            title = htmlWriter.title;
+        }
+        return super.writeContentsOf(other);
+    }
+
+    @Override
+    public DocWriter openDefinitionList() {
+        return writeTag("<dl>");
+    }
+
+    @Override
+    public DocWriter closeDefinitionList() {
+        return writeTag("</dl>");
+    }
+
+    @Override
+    public DocWriter openDefinitionListItem(Consumer<DocWriter> titleWriter) {
+        return writeTag("<dt>$C</dt>\n\n<dd>", titleWriter);
+    }
+
+    @Override
+    public DocWriter closeDefinitionListItem() {
+        return writeTag("</dd>");
+    }
+
+    @Override
+    public DocWriter writeAnchor(String linkId) {
+        return writeTag("<div id=\"$L\" class=\"anchor\"></div>", escape(linkId));
+    }
+
+    @Override
+    public DocWriter openTabGroup() {
+        isNewTabGroup = true;
+        return writeTag("<div class=\"tab-set\">");
+    }
+
+    @Override
+    public DocWriter closeTabGroup() {
+        isNewTabGroup = true;
+        return writeTag("</div>");
+    }
+
+    @Override
+    public DocWriter openTab(String title) {
+        // Only the first tab in a group starts expanded.
+        var open = isNewTabGroup ? " open" : "";
+        isNewTabGroup = false;
+        return writeTag("<details class=\"tab\"$L>\n\n<summary>$L</summary>", open, escape(title));
+    }
+
+    @Override
+    public DocWriter closeTab() {
+        return writeTag("</details>");
+    }
+
+    @Override
+    public DocWriter openCodeBlock(String language) {
+        // The fence can't be followed by a blank line, since it'd be part of the code.
+        return write("\n```$L", language);
+    }
+
+    @Override
+    public DocWriter closeCodeBlock() {
+        return write("```\n");
+    }
+
+    @Override
+    public DocWriter openList(ListType listType) {
+        return writeTag(listType == ListType.ORDERED ? "<ol>" : "<ul>");
+    }
+
+    @Override
+    public DocWriter closeList(ListType listType) {
+        return writeTag(listType == ListType.ORDERED ? "</ol>" : "</ul>");
+    }
+
+    @Override
+    public DocWriter openListItem(ListType listType) {
+        return writeTag("<li>");
+    }
+
+    @Override
+    public DocWriter closeListItem(ListType listType) {
+        return writeTag("</li>");
+    }
+
+    @Override
+    public DocWriter openAdmonition(NoticeType type, Consumer<DocWriter> titleWriter) {
+        return writeTag("<div class=\"admonition $L\">\n\n<p class=\"admonition-title\">$C</p>",
+                getAdmonitionClass(type), titleWriter);
+    }
+
+    @Override
+    public DocWriter openAdmonition(NoticeType type) {
+        var name = type.equals(NoticeType.INFO) ? "See Also" : StringUtils.capitalize(getAdmonitionClass(type));
+        return openAdmonition(type, writer -> writer.writeInline("$L", name));
+    }
+
+    private String getAdmonitionClass(NoticeType type) {
+        if (type.equals(NoticeType.INFO)) {
+            return "seealso";
+        }
+        return type.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    @Override
+    public DocWriter closeAdmonition() {
+        return writeTag("</div>");
+    }
+
+    @Override
+    public DocWriter writeBadge(NoticeType type, String text) {
+        return writeInline("<span class=\"badge badge-$L\">$L</span>", getAdmonitionClass(type), escape(text));
+    }
+
+    @Override
+    public String toString() {
+        var body = CommonMarkRenderer.render(super.toString());
+        return String.format("""
+                <!DOCTYPE html>
+                <html lang="en">
+                <head>
+                <meta charset="utf-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1">
+                <title>%s</title>
+                <link rel="stylesheet" href="%s">
+                </head>
+                <body>
+                <main>
+                %s</main>
+                </body>
+                </html>
+                """, CommonMarkRenderer.escape(title == null ? "" : title), getStylesheetPath(), body);
+    }
+
+    private String getStylesheetPath() {
+        // Pages may be written to any depth beneath the content directory, so the
+        // stylesheet's path needs to walk back up to it.
+        var path = Paths.get(filename).normalize();
+        for (var i = path.getNameCount() - 2; i >= 0; i--) {
+            if (path.getName(i).toString().equals("content")) {
+                return "../".repeat(path.getNameCount() - i - 2) + STYLESHEET;
+            }
+        }
+        return STYLESHEET;
+    }
+}
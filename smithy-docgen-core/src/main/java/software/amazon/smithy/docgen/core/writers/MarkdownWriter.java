@@ -5,16 +5,8 @@
 
 package software.amazon.smithy.docgen.core.writers;
 
-import static software.amazon.smithy.docgen.core.DocgenUtils.getSymbolLink;
-
-import java.nio.file.Paths;
-import java.util.Optional;
 import java.util.function.Consumer;
-import software.amazon.smithy.codegen.core.CodegenException;
-import software.amazon.smithy.codegen.core.Symbol;
-import software.amazon.smithy.codegen.core.SymbolReference;
 import software.amazon.smithy.codegen.core.SymbolWriter;
-import software.amazon.smithy.utils.Pair;
 import software.amazon.smithy.utils.SmithyUnstableApi;
 import software.amazon.smithy.utils.StringUtils;
 
@@ -73,37 +65,6 @@ public class MarkdownWriter extends DocWriter {
         return String.format("`%s`", formatLiteral(value).replace("`", "\\`"));
     }
 
-    private Pair<String, Optional<String>> getReferencePair(Object value) {
-        String text;
-        Optional<String> ref;
-        var relativeTo = Paths.get(filename);
-        if (value instanceof Optional<?> optional && optional.isPresent()) {
-            return getReferencePair(optional.get());
-        } else if (value instanceof Symbol symbolValue) {
-            text = symbolValue.getName();
-            ref = getSymbolLink(symbolValue, relativeTo);
-        } else if (value instanceof SymbolReference referenceValue) {
-            text = referenceValue.getAlias();
-            ref = getSymbolLink(referenceValue.getSymbol(), relativeTo);
-        } else if (value instanceof Pair pairValue) {
-            if (pairValue.getLeft() instanceof String left && pairValue.getRight() instanceof String right) {
-                text = left;
-                ref = Optional.of(right);
-            } else {
-                throw new CodegenException(
-                        "Invalid type provided to $R. Expected both key and vale of the Pair to be Strings, but "
-                        + "found " + value.getClass()
-                );
-            }
-        } else {
-            throw new CodegenException(
-                    "Invalid type provided to $R. Expected a Symbol, SymbolReference, or Pair<String, String>, but "
-                    + "found " + value.getClass()
-            );
-        }
-        return Pair.of(text, ref);
-    }
-
     @Override
     public DocWriter writeCommonMark(String commonMark) {
         return writeWithNewline(commonMark);
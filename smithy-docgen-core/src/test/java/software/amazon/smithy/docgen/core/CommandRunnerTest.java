@@ -0,0 +1,135 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.codegen.core.CodegenException;
+
+// The fixtures are shell scripts, so they need a POSIX shell.
+@DisabledOnOs(OS.WINDOWS)
+public class CommandRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void capturesLargeOutputInFull() {
+        var output = shell("seq 1 200000").captureOutput(true).build().run();
+
+        var lines = output.lines().toList();
+        assertEquals(200000, lines.size());
+        assertEquals("1", lines.get(0));
+        assertEquals("200000", lines.get(lines.size() - 1));
+    }
+
+    @Test
+    public void returnsOnlyTheTailWhenOutputIsNotCaptured() {
+        var output = shell("seq 1 1000").tailLines(3).build().run();
+
+        assertEquals(List.of("998", "999", "1000"), output.lines().toList());
+    }
+
+    @Test
+    public void streamsEveryLineToTheListener() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        shell("seq 1 500; echo done 1>&2").tailLines(1).lineListener(lines::add).build().run();
+
+        assertEquals(501, lines.size());
+        assertEquals("1", lines.get(0));
+        assertEquals("done", lines.get(500));
+    }
+
+    @Test
+    public void reportsTheTailOfFailedCommands() {
+        var e = assertThrows(CodegenException.class,
+                () -> shell("seq 1 500; exit 3").tailLines(3).build().run());
+
+        assertTrue(e.getMessage().contains("failed with exit code 3"), e.getMessage());
+        assertTrue(e.getMessage().contains("[497 earlier lines omitted]"), e.getMessage());
+        assertTrue(e.getMessage().endsWith(String.join(System.lineSeparator(), "498", "499", "500")),
+                e.getMessage());
+    }
+
+    @Test
+    public void killsCommandsThatTimeOut() throws Exception {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        var start = System.nanoTime();
+        var e = assertThrows(CodegenException.class, () -> shell("echo started; sleep 30 & echo $!; wait")
+                .timeout(Duration.ofSeconds(1))
+                .lineListener(lines::add)
+                .build()
+                .run());
+
+        assertTrue(e.getMessage().contains("timed out after 1 seconds"), e.getMessage());
+        assertTrue(e.getMessage().contains("started"), e.getMessage());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(10)) < 0);
+        assertProcessEnds(Long.parseLong(lines.get(1)));
+    }
+
+    @Test
+    public void cancelsRunningCommands() throws Exception {
+        var started = new CountDownLatch(1);
+        var runner = shell("echo started; sleep 30").lineListener(line -> started.countDown()).build();
+        var result = CompletableFuture.supplyAsync(runner::run);
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        runner.cancel();
+
+        var e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause().getMessage().contains("was cancelled"), e.getCause().getMessage());
+    }
+
+    @Test
+    public void runsArgumentsWithoutAShell() {
+        var output = CommandRunner.builder()
+                .command("printf", "%s|", "$HOME", "a b", "\"quoted\"")
+                .directory(directory)
+                .captureOutput(true)
+                .build()
+                .run();
+
+        assertEquals("$HOME|a b|\"quoted\"|", output);
+    }
+
+    @Test
+    public void failsToStartMissingPrograms() {
+        var e = assertThrows(CodegenException.class, () -> CommandRunner.builder()
+                .command("docgen-command-that-does-not-exist")
+                .directory(directory)
+                .build()
+                .run());
+
+        assertTrue(e.getMessage().contains("Unable to run command"), e.getMessage());
+    }
+
+    private CommandRunner.Builder shell(String script) {
+        return CommandRunner.builder().command("sh", "-c", script).directory(directory);
+    }
+
+    private void assertProcessEnds(long pid) throws Exception {
+        var process = ProcessHandle.of(pid);
+        if (process.isPresent()) {
+            process.get().onExit().get(10, TimeUnit.SECONDS);
+            assertFalse(process.get().isAlive());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ShapeType;
+
+public class DocMetricsTest {
+
+    @Test
+    public void recordsEachTimeAPhaseRuns() {
+        var metrics = new DocMetrics();
+        metrics.time("outer", () -> metrics.time("inner", this::busyWork));
+        metrics.time("outer", this::busyWork);
+
+        var phases = metrics.toNode().expectObjectNode().expectObjectMember("phases");
+        var outer = phases.expectObjectMember("outer");
+        var inner = phases.expectObjectMember("inner");
+        assertEquals(2, count(outer));
+        assertEquals(1, count(inner));
+
+        // Phases may be nested, in which case the outer phase includes the inner one.
+        assertTrue(nanos(outer, "wallNanos") >= nanos(inner, "wallNanos"));
+        assertMeasuredOrUnsupported(outer, "cpuNanos");
+        assertMeasuredOrUnsupported(outer, "allocatedBytes");
+    }
+
+    @Test
+    public void returnsTheValueOfTimedTasks() {
+        var metrics = new DocMetrics();
+
+        assertEquals("result", metrics.time("task", () -> "result"));
+        assertEquals(1, count(metrics.toNode().expectObjectNode().expectObjectMember("phases")
+                .expectObjectMember("task")));
+    }
+
+    @Test
+    public void recordsShapesByType() {
+        var metrics = new DocMetrics();
+        metrics.startShape(ShapeType.OPERATION).close();
+        metrics.timeShape(ShapeType.OPERATION, this::busyWork);
+        metrics.startShape(ShapeType.STRUCTURE).close();
+
+        var shapeTypes = metrics.toNode().expectObjectNode().expectObjectMember("shapeTypes");
+        assertEquals(2, count(shapeTypes.expectObjectMember("operation")));
+        assertEquals(1, count(shapeTypes.expectObjectMember("structure")));
+        assertEquals(2, shapeTypes.size());
+    }
+
+    @Test
+    public void serializesReportsWhenMetricsAre() {
+        var metrics = new DocMetrics();
+        List<String> entries = new ArrayList<>();
+        metrics.addReport("entries", () -> Node.fromStrings(entries));
+        entries.add("added after the report");
+
+        var reports = metrics.toNode().expectObjectNode().expectObjectMember("reports");
+        assertEquals(Node.fromStrings("added after the report"), reports.expectArrayMember("entries"));
+    }
+
+    @Test
+    public void writesMetricsForEachShapeType() {
+        Model model = Model.assembler()
+                .addUnparsedModel("service.smithy", """
+                        $version: "2"
+                        namespace smithy.example
+
+                        service Service {
+                            operations: [First, Second, Third]
+                        }
+
+                        operation First {}
+                        operation Second {}
+                        operation Third {}
+                        """)
+                .assemble()
+                .unwrap();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", "smithy.example#Service")
+                        .withMember("format", "markdown")
+                        .withMember("metrics", true)
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        var metrics = Node.parse(manifest.expectFileString("/" + DocMetrics.FILENAME)).expectObjectNode();
+        var phases = metrics.expectObjectMember("phases");
+        assertEquals(1, count(phases.expectObjectMember("validation")));
+        assertEquals(1, count(phases.expectObjectMember("codegen")));
+        var shapeTypes = metrics.expectObjectMember("shapeTypes");
+        assertEquals(1, count(shapeTypes.expectObjectMember("service")));
+        assertEquals(3, count(shapeTypes.expectObjectMember("operation")));
+    }
+
+    private long count(ObjectNode stats) {
+        return stats.expectNumberMember("count").getValue().longValue();
+    }
+
+    private long nanos(ObjectNode stats, String member) {
+        return stats.expectNumberMember(member).getValue().longValue();
+    }
+
+    private void assertMeasuredOrUnsupported(ObjectNode stats, String member) {
+        var value = nanos(stats, member);
+        assertTrue(value >= 0 || value == -1, member + " was " + value);
+    }
+
+    private void busyWork() {
+        var builder = new StringBuilder();
+        for (var i = 0; i < 1000; i++) {
+            builder.append(i);
+        }
+        assertTrue(builder.length() > 0);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.node.Node;
+
+public class DocWatcherTest {
+
+    private static final String MODEL = """
+            $version: "2"
+            namespace smithy.example
+
+            service Service {
+                version: "2024-01-01"
+                operations: [GetThing]
+            }
+
+            /// %s
+            operation GetThing {
+                output := {
+                    thing: Thing
+                }
+            }
+
+            structure Thing {
+                name: String
+            }
+            """;
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @TempDir
+    Path sources;
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    public void regeneratesWhenSourcesChange() throws Exception {
+        var model = sources.resolve("main.smithy");
+        Files.writeString(model, String.format(MODEL, "Gets a thing."));
+        var operationPage = outputDirectory.resolve("content/operations/GetThing.md");
+        var thingPage = outputDirectory.resolve("content/shapes/Thing.md");
+
+        Thread thread;
+        try (var watcher = watcher()) {
+            thread = new Thread(watcher::watch, "docgen-watcher-test");
+            thread.setDaemon(true);
+            thread.start();
+            awaitContents(operationPage, page -> page.contains("Gets a thing."));
+
+            // A changed file is read again.
+            Files.writeString(model, String.format(MODEL, "Gets one thing."));
+            awaitContents(operationPage, page -> page.contains("Gets one thing."));
+
+            // Files in new directories are watched too.
+            var applied = Files.createDirectories(sources.resolve("more")).resolve("applied.smithy");
+            Files.writeString(applied, """
+                    $version: "2"
+                    namespace smithy.example
+                    apply Thing$name @documentation("The name of the thing.")
+                    """);
+            awaitContents(thingPage, page -> page.contains("The name of the thing."));
+
+            // Deleted files are dropped from the model.
+            Files.delete(applied);
+            awaitContents(thingPage, page -> !page.contains("The name of the thing."));
+
+            // An invalid model leaves the documentation alone, and the watcher
+            // keeps going until it's fixed.
+            Files.writeString(model, "namespace smithy.example\nservice {");
+            // This waits well past the time the watcher lets changes settle, so
+            // that the invalid model is built on its own.
+            Thread.sleep(1000);
+            assertTrue(Files.readString(operationPage).contains("Gets one thing."));
+            Files.writeString(model, String.format(MODEL, "Gets the thing."));
+            awaitContents(operationPage, page -> page.contains("Gets the thing."));
+        }
+
+        // Closing the watcher stops it.
+        thread.join(TIMEOUT_MILLIS);
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void skipsGenerationForInvalidModels() throws IOException {
+        Files.writeString(sources.resolve("main.smithy"), "namespace smithy.example\nservice {");
+
+        try (var watcher = watcher()) {
+            assertFalse(watcher.generate());
+        }
+        assertFalse(Files.exists(outputDirectory.resolve("content")));
+    }
+
+    @Test
+    public void generatesFromTheInitialSources() throws IOException {
+        Files.writeString(sources.resolve("main.smithy"), String.format(MODEL, "Gets a thing."));
+
+        try (var watcher = watcher()) {
+            assertTrue(watcher.generate());
+        }
+        assertTrue(Files.readString(outputDirectory.resolve("content/operations/GetThing.md"))
+                .contains("Gets a thing."));
+    }
+
+    private DocWatcher watcher() {
+        return DocWatcher.builder()
+                .addSource(sources)
+                .outputDirectory(outputDirectory)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", "smithy.example#Service")
+                        .withMember("format", "markdown")
+                        .build())
+                .build();
+    }
+
+    private void awaitContents(Path path, Predicate<String> condition) throws Exception {
+        var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        String contents = null;
+        while (System.currentTimeMillis() < deadline) {
+            if (Files.isRegularFile(path)) {
+                contents = Files.readString(path);
+                if (condition.test(contents)) {
+                    return;
+                }
+            }
+            Thread.sleep(50);
+        }
+        fail("Timed out waiting for " + path + ", which contains:\n" + contents);
+    }
+}
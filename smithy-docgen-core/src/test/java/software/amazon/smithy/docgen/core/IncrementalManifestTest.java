@@ -0,0 +1,180 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.docgen.core.integrations.BuiltinsIntegration;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+public class IncrementalManifestTest {
+
+    private static final String MODEL = """
+            $version: "2"
+            namespace smithy.example
+
+            service Service {
+                version: "2024-01-01"
+                operations: [GetThing, PutThing, Ping]
+                resources: [%s]
+                %s
+            }
+
+            operation GetThing {
+                input := {
+                    id: String
+                }
+                output := {
+                    thing: Thing
+                }
+            }
+
+            operation PutThing {
+                input := {
+                    thing: Thing
+                    widgetId: WidgetId
+                }
+            }
+
+            operation Ping {}
+
+            structure Thing {
+                /// %s
+                name: String
+            }
+
+            /// %s
+            resource Widget {
+                identifiers: { widgetId: WidgetId }
+            }
+
+            // The widget is only reached from PutThing through this reference.
+            @references([{resource: Widget}])
+            string WidgetId
+
+            @error("client")
+            structure ServiceError {
+                message: String
+            }
+            """;
+
+    private static final ShapeId SERVICE = ShapeId.from("smithy.example#Service");
+    private static final Set<String> ALL_PAGES = Set.of("GetThing", "PutThing", "Ping", "Thing", "Widget");
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    public void reusesEveryPageIfNothingChanged() {
+        generate(model("", "The name of the thing."), Node.objectNode());
+
+        assertEquals(Set.of(), regenerated(model("", "The name of the thing."), Node.objectNode()));
+    }
+
+    @Test
+    public void regeneratesPagesThatDocumentAChangedMember() {
+        generate(model("", "The name of the thing."), Node.objectNode());
+
+        assertEquals(Set.of("GetThing", "PutThing", "Thing"),
+                regenerated(model("", "The thing's new name."), Node.objectNode()));
+    }
+
+    @Test
+    public void regeneratesOperationPagesIfServiceErrorsChange() {
+        generate(model("", "The name of the thing."), Node.objectNode());
+
+        assertEquals(Set.of("GetThing", "PutThing", "Ping"),
+                regenerated(model("errors: [ServiceError]", "The name of the thing."), Node.objectNode()));
+    }
+
+    @Test
+    public void regeneratesPagesThatReferenceAChangedResource() {
+        generate(model("", "The name of the thing."), Node.objectNode());
+
+        assertEquals(Set.of("PutThing", "Widget"),
+                regenerated(model("", "The name of the thing.", "Widget", "A new widget."), Node.objectNode()));
+    }
+
+    @Test
+    public void regeneratesPagesThatReferenceAResourceRemovedFromTheService() {
+        generate(model("", "The name of the thing."), Node.objectNode());
+
+        // The widget no longer has a page, so PutThing can't link to it anymore.
+        assertEquals(Set.of("PutThing", "Widget"),
+                regenerated(model("", "The name of the thing.", "", "A widget."), Node.objectNode()));
+    }
+
+    @Test
+    public void regeneratesEveryPageIfIntegrationSettingsChange() {
+        generate(model("", "The name of the thing."), Node.objectNode());
+
+        var integrationSettings = Node.objectNode()
+                .withMember("sphinx", Node.objectNode().withMember("theme", "alabaster"));
+        assertEquals(ALL_PAGES, regenerated(model("", "The name of the thing."), integrationSettings));
+    }
+
+    private Model model(String serviceErrors, String memberDocs) {
+        return model(serviceErrors, memberDocs, "Widget", "A widget.");
+    }
+
+    private Model model(String serviceErrors, String memberDocs, String resources, String widgetDocs) {
+        return Model.assembler()
+                .addUnparsedModel("test.smithy", String.format(MODEL, resources, serviceErrors, memberDocs, widgetDocs))
+                .assemble()
+                .unwrap();
+    }
+
+    private ObjectNode settings() {
+        return Node.objectNodeBuilder()
+                .withMember("service", SERVICE.toString())
+                .withMember("format", "markdown")
+                .withMember("incremental", true)
+                .build();
+    }
+
+    private void generate(Model model, ObjectNode integrationSettings) {
+        // Only the builtin integration is applied, so other integrations' settings
+        // are only recorded.
+        PluginContext context = PluginContext.builder()
+                .fileManifest(FileManifest.create(outputDirectory))
+                .model(model)
+                .settings(settings().withMember("integrations", integrationSettings))
+                .build();
+        new SmithyDocPlugin(() -> List.of(new BuiltinsIntegration())).execute(context);
+    }
+
+    private Set<String> regenerated(Model model, ObjectNode integrationSettings) {
+        var settings = DocSettings.fromNode(settings());
+        var context = new DocGenerationContext(
+                model,
+                settings,
+                new DocSymbolProvider(model, settings),
+                FileManifest.create(outputDirectory),
+                List.of(new BuiltinsIntegration()));
+        var manifest = IncrementalManifest.load(context.fileManifest());
+        manifest.prepare(context, integrationSettings);
+
+        Set<String> regenerated = new TreeSet<>();
+        for (var name : ALL_PAGES) {
+            var shape = model.expectShape(ShapeId.fromParts(SERVICE.getNamespace(), name));
+            if (!manifest.reuse(context, shape)) {
+                regenerated.add(name);
+            }
+        }
+        return regenerated;
+    }
+}
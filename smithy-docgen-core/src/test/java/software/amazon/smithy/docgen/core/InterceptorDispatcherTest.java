@@ -0,0 +1,266 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.docgen.core.integrations.BuiltinsIntegration;
+import software.amazon.smithy.docgen.core.integrations.HtmlIntegration;
+import software.amazon.smithy.docgen.core.sections.ShapeDetailsSection;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.traits.DeprecatedTrait;
+import software.amazon.smithy.model.traits.SensitiveTrait;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+
+public class InterceptorDispatcherTest {
+
+    private static final ShapeId SERVICE = ShapeId.from("smithy.example#InterceptorService");
+
+    @Test
+    public void scopedDispatchMatchesUnscopedDispatch() {
+        var model = Model.assembler()
+                .addImport(getClass().getResource("interceptors.smithy"))
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+        for (var format : List.of("markdown", "html")) {
+            var settings = Node.objectNode().withMember("format", format);
+            var scoped = generate(model, settings, List.of(
+                    new BuiltinsIntegration(), new HtmlIntegration(), new NestingIntegration()));
+            var unscoped = generate(model, settings, List.of(
+                    new UnscopedIntegration(new BuiltinsIntegration()),
+                    new UnscopedIntegration(new HtmlIntegration()),
+                    new UnscopedIntegration(new NestingIntegration())));
+
+            assertEquals(unscoped.getFiles(), scoped.getFiles());
+            for (var file : unscoped.getFiles()) {
+                assertEquals(unscoped.expectFileString(file), scoped.expectFileString(file), file.toString());
+            }
+
+            // Protocol sections are only written if one of their interceptors
+            // matches, so this checks that the scoped protocol interceptors ran.
+            var getThing = scoped.expectFileString("/content/operations/GetThing" + extension(format));
+            assertTrue(getThing.contains("x-meta-"), getThing);
+
+            // The nested section is written while the dispatcher is capturing the
+            // output of an interceptor that runs before another one.
+            var operation = scoped.expectFileString("/content/operations/UploadThing" + extension(format));
+            assertTrue(operation.contains("Nested note for UploadThing (noted)"), operation);
+            assertTrue(operation.contains("Trailer for UploadThing"), operation);
+            assertFalse(scoped.expectFileString("/content/operations/ListThings" + extension(format))
+                    .contains("Nested note"));
+        }
+    }
+
+    @Test
+    public void groupsOnlySectionTypesWithScopedInterceptors() {
+        List<CodeInterceptor<? extends CodeSection, DocWriter>> interceptors = new ArrayList<>();
+        interceptors.add(new NoteInterceptor());
+        interceptors.add(new NestingInterceptor());
+        interceptors.add(new TrailerInterceptor());
+
+        var dispatched = new InterceptorDispatcher(interceptors).interceptors();
+
+        // The note interceptor isn't scoped, so it's registered as-is. The two
+        // details interceptors are replaced by a single dispatching interceptor.
+        assertEquals(2, dispatched.size());
+        assertTrue(dispatched.get(0) instanceof NoteInterceptor);
+        assertEquals(ShapeDetailsSection.class, dispatched.get(1).sectionType());
+    }
+
+    private MockManifest generate(Model model, ObjectNode settings, List<DocIntegration> integrations) {
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(settings.withMember("service", SERVICE.toString()))
+                .build();
+        new SmithyDocPlugin(() -> integrations).execute(context);
+        return manifest;
+    }
+
+    private String extension(String format) {
+        return format.equals("html") ? ".html" : ".md";
+    }
+
+    /**
+     * Applies another integration with every interceptor stripped of its scope,
+     * so that each one is consulted for every section of its type.
+     */
+    private static final class UnscopedIntegration implements DocIntegration {
+        private final DocIntegration delegate;
+
+        UnscopedIntegration(DocIntegration delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String name() {
+            return delegate.name();
+        }
+
+        @Override
+        public byte priority() {
+            return delegate.priority();
+        }
+
+        @Override
+        public List<String> runBefore() {
+            return delegate.runBefore();
+        }
+
+        @Override
+        public List<String> runAfter() {
+            return delegate.runAfter();
+        }
+
+        @Override
+        public void configure(DocSettings settings, ObjectNode integrationSettings) {
+            delegate.configure(settings, integrationSettings);
+        }
+
+        @Override
+        public List<DocFormat> docFormats(DocSettings settings) {
+            return delegate.docFormats(settings);
+        }
+
+        @Override
+        public void beforeShapeGeneration(DocGenerationContext context) {
+            delegate.beforeShapeGeneration(context);
+        }
+
+        @Override
+        public void customize(DocGenerationContext context) {
+            delegate.customize(context);
+        }
+
+        @Override
+        public List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors(
+                DocGenerationContext context
+        ) {
+            List<CodeInterceptor<? extends CodeSection, DocWriter>> result = new ArrayList<>();
+            for (var interceptor : delegate.interceptors(context)) {
+                result.add(unscoped(interceptor));
+            }
+            return result;
+        }
+
+        private static <S extends CodeSection> CodeInterceptor<S, DocWriter> unscoped(
+                CodeInterceptor<S, DocWriter> interceptor
+        ) {
+            return new CodeInterceptor<>() {
+                @Override
+                public Class<S> sectionType() {
+                    return interceptor.sectionType();
+                }
+
+                @Override
+                public boolean isIntercepted(S section) {
+                    return interceptor.isIntercepted(section);
+                }
+
+                @Override
+                public void write(DocWriter writer, String previousText, S section) {
+                    interceptor.write(writer, previousText, section);
+                }
+            };
+        }
+    }
+
+    /**
+     * Adds scoped interceptors that write a nested section of their own.
+     */
+    private static final class NestingIntegration implements DocIntegration {
+        @Override
+        public String name() {
+            return "nesting";
+        }
+
+        @Override
+        public List<? extends CodeInterceptor<? extends CodeSection, DocWriter>> interceptors(
+                DocGenerationContext context
+        ) {
+            return List.of(new NoteInterceptor(), new NestingInterceptor(), new TrailerInterceptor());
+        }
+    }
+
+    private record NoteSection(Shape shape) implements CodeSection {}
+
+    private static final class NoteInterceptor implements CodeInterceptor.Appender<NoteSection, DocWriter> {
+        @Override
+        public Class<NoteSection> sectionType() {
+            return NoteSection.class;
+        }
+
+        @Override
+        public void append(DocWriter writer, NoteSection section) {
+            writer.writeInline(" (noted)");
+        }
+    }
+
+    private static final class NestingInterceptor implements ScopedInterceptor<ShapeDetailsSection> {
+        @Override
+        public Set<ShapeId> traits() {
+            return Set.of(DeprecatedTrait.ID, SensitiveTrait.ID);
+        }
+
+        @Override
+        public Class<ShapeDetailsSection> sectionType() {
+            return ShapeDetailsSection.class;
+        }
+
+        @Override
+        public boolean isIntercepted(ShapeDetailsSection section) {
+            return section.shape().hasTrait(DeprecatedTrait.class) || section.shape().hasTrait(SensitiveTrait.class);
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, ShapeDetailsSection section) {
+            writer.writeWithNoFormatting(previousText);
+            writer.pushState(new NoteSection(section.shape()));
+            writer.writeInline("Nested note for $L", section.shape().getId().getName());
+            writer.popState();
+            writer.write("");
+        }
+    }
+
+    private static final class TrailerInterceptor implements ScopedInterceptor<ShapeDetailsSection> {
+        @Override
+        public Set<ShapeId> traits() {
+            return Set.of(DeprecatedTrait.ID);
+        }
+
+        @Override
+        public Class<ShapeDetailsSection> sectionType() {
+            return ShapeDetailsSection.class;
+        }
+
+        @Override
+        public boolean isIntercepted(ShapeDetailsSection section) {
+            return section.shape().hasTrait(DeprecatedTrait.class);
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, ShapeDetailsSection section) {
+            writer.writeWithNoFormatting(previousText);
+            writer.write("Trailer for $L", section.shape().getId().getName());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.traits.DeprecatedTrait;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+
+public class InterceptorProfilerTest {
+
+    @Test
+    public void recordsCallsThatReachEachInterceptor() {
+        var profiler = new InterceptorProfiler();
+        var wrapped = profiler.wrap(List.of(new EvenInterceptor(), new ScopedNoteInterceptor()));
+
+        var even = cast(wrapped.get(0));
+        for (var i = 0; i < 5; i++) {
+            var section = new CountSection(i);
+            if (even.isIntercepted(section)) {
+                even.write(null, "", section);
+            }
+        }
+
+        var stats = byName(profiler.toNode(), EvenInterceptor.class);
+        assertEquals(5, number(stats, "isInterceptedCalls"));
+        assertEquals(3, number(stats, "intercepted"));
+        assertEquals(3, number(stats, "writes"));
+        assertTrue(number(stats, "isInterceptedNanos") >= 0);
+        assertTrue(number(stats, "writeNanos") >= 0);
+
+        // The scoped interceptor was never consulted, but it's still reported.
+        var scoped = byName(profiler.toNode(), ScopedNoteInterceptor.class);
+        assertEquals(0, number(scoped, "isInterceptedCalls"));
+    }
+
+    @Test
+    public void keepsScopedInterceptorsScoped() {
+        var wrapped = new InterceptorProfiler().wrap(List.of(new EvenInterceptor(), new ScopedNoteInterceptor()));
+
+        assertFalse(wrapped.get(0) instanceof ScopedInterceptor);
+        assertTrue(wrapped.get(1) instanceof ScopedInterceptor<?> scoped
+                && scoped.traits().equals(Set.of(DeprecatedTrait.ID)));
+        assertEquals(CountSection.class, wrapped.get(1).sectionType());
+    }
+
+    @Test
+    public void reportsTheMostExpensiveInterceptorsFirst() {
+        var profiler = new InterceptorProfiler();
+        var wrapped = profiler.wrap(List.of(new EvenInterceptor(), new SlowInterceptor()));
+        var section = new CountSection(0);
+        cast(wrapped.get(0)).isIntercepted(section);
+        cast(wrapped.get(1)).isIntercepted(section);
+
+        var report = profiler.report(1).lines().toList();
+        assertEquals(2, report.size());
+        assertTrue(report.get(0).startsWith("Interceptor profile"));
+        assertTrue(report.get(1).endsWith(SlowInterceptor.class.getName() + " (CountSection)"), report.get(1));
+
+        var node = profiler.toNode().expectArrayNode();
+        assertEquals(2, node.size());
+        assertEquals(SlowInterceptor.class.getName() + " (CountSection)",
+                node.get(0).get().expectObjectNode().expectStringMember("interceptor").getValue());
+    }
+
+    @Test
+    public void writesProfileToMetrics() {
+        Model model = Model.assembler()
+                .addUnparsedModel("service.smithy", """
+                        $version: "2"
+                        namespace smithy.example
+
+                        service Service {
+                            operations: [GetThing]
+                        }
+
+                        @readonly
+                        operation GetThing {
+                            input := {
+                                @required
+                                @length(min: 1, max: 64)
+                                @pattern("^[a-z]+$")
+                                id: String
+                            }
+                            output := {
+                                @deprecated
+                                secret: Secret
+
+                                @range(min: 0)
+                                count: Integer
+                            }
+                        }
+
+                        @sensitive
+                        string Secret
+                        """)
+                .assemble()
+                .unwrap();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", "smithy.example#Service")
+                        .withMember("format", "markdown")
+                        .withMember("metrics", true)
+                        .withMember("profileInterceptors", true)
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        var profile = Node.parse(manifest.expectFileString("/" + DocMetrics.FILENAME)).expectObjectNode()
+                .expectObjectMember("reports")
+                .expectArrayMember("interceptors");
+        assertFalse(profile.isEmpty());
+        long writes = 0;
+        for (var entry : profile.getElementsAs(ObjectNode.class)) {
+            assertTrue(number(entry, "intercepted") <= number(entry, "isInterceptedCalls"));
+            writes += number(entry, "writes");
+        }
+        assertTrue(writes > 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CodeInterceptor<CountSection, DocWriter> cast(CodeInterceptor<? extends CodeSection, DocWriter> wrapped) {
+        return (CodeInterceptor<CountSection, DocWriter>) wrapped;
+    }
+
+    private ObjectNode byName(Node profile, Class<?> interceptor) {
+        var name = interceptor.getName() + " (CountSection)";
+        return profile.expectArrayNode().getElementsAs(ObjectNode.class).stream()
+                .filter(entry -> entry.expectStringMember("interceptor").getValue().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private long number(ObjectNode stats, String member) {
+        return stats.expectNumberMember(member).getValue().longValue();
+    }
+
+    private record CountSection(int count) implements CodeSection {}
+
+    private static final class EvenInterceptor implements CodeInterceptor<CountSection, DocWriter> {
+        @Override
+        public Class<CountSection> sectionType() {
+            return CountSection.class;
+        }
+
+        @Override
+        public boolean isIntercepted(CountSection section) {
+            return section.count() % 2 == 0;
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, CountSection section) {
+            // The profiler only measures the call.
+        }
+    }
+
+    private static final class SlowInterceptor implements CodeInterceptor<CountSection, DocWriter> {
+        @Override
+        public Class<CountSection> sectionType() {
+            return CountSection.class;
+        }
+
+        @Override
+        public boolean isIntercepted(CountSection section) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, CountSection section) {
+            // This is never intercepted.
+        }
+    }
+
+    private static final class ScopedNoteInterceptor implements ScopedInterceptor<CountSection> {
+        @Override
+        public Set<ShapeId> traits() {
+            return Set.of(DeprecatedTrait.ID);
+        }
+
+        @Override
+        public Class<CountSection> sectionType() {
+            return CountSection.class;
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, CountSection section) {
+            // This is never consulted.
+        }
+    }
+}
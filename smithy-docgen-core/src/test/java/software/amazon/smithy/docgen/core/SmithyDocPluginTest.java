@@ -7,19 +7,32 @@ package software.amazon.smithy.docgen.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.build.MockManifest;
 import software.amazon.smithy.build.PluginContext;
 import software.amazon.smithy.build.SmithyBuildPlugin;
-import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.codegen.core.CodegenException;
+import software.amazon.smithy.docgen.core.integrations.BuiltinsIntegration;
+import software.amazon.smithy.docgen.core.integrations.HtmlIntegration;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.node.StringNode;
+import software.amazon.smithy.model.shapes.ShapeId;
 import software.amazon.smithy.utils.IoUtils;
 
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Paths;
-
 public class SmithyDocPluginTest {
 
     @Test
@@ -45,6 +58,417 @@ public class SmithyDocPluginTest {
         assertServicePageContents(manifest);
     }
 
+    @Test
+    public void parallelGenerationMatchesSerialGeneration() {
+        // Recursive shapes are generated after the service, so they cover pages
+        // queued for parallel generation after the service page is written.
+        Model model = SyntheticModelGenerator.builder()
+                .operations(20)
+                .resources(3)
+                .nestingDepth(2)
+                .recursiveShapes(true)
+                .build()
+                .generate();
+        for (var format : List.of("markdown", "html", "sphinx-markdown")) {
+            var serial = generate(model, formatSettings(format));
+            var parallel = generate(model, formatSettings(format).withMember("parallel", true));
+
+            assertTrue(serial.getFiles().stream().anyMatch(file -> file.toString().contains("SyntheticTree.")));
+            assertSameFiles(serial, parallel);
+        }
+    }
+
+    @Test
+    public void integrationsCanWriteToPagesRenderedInParallel() {
+        Model model = SyntheticModelGenerator.builder().operations(5).build().generate();
+        for (var format : List.of("markdown", "html")) {
+            var page = "/content/operations/Operation0" + (format.equals("html") ? ".html" : ".md");
+            var serial = generateWithAppendingIntegration(model, formatSettings(format));
+            var parallel = generateWithAppendingIntegration(model, formatSettings(format)
+                    .withMember("parallel", true));
+
+            assertTrue(parallel.expectFileString(page).contains(AppendingIntegration.TEXT));
+            assertSameFiles(serial, parallel);
+        }
+    }
+
+    @Test
+    public void streamingGenerationMatchesBufferedGeneration() {
+        // Synthetic models include resources, errors shared by every operation,
+        // and service-wide errors, so many pages link to the same shapes.
+        Model model = SyntheticModelGenerator.builder()
+                .operations(20)
+                .resources(3)
+                .nestingDepth(2)
+                .traitDensity(0.5)
+                .recursiveShapes(true)
+                .build()
+                .generate();
+        for (var format : List.of("markdown", "html", "sphinx-markdown")) {
+            var buffered = generate(model, formatSettings(format));
+            var streamed = generate(model, formatSettings(format).withMember("streaming", true));
+            assertSameFiles(buffered, streamed);
+
+            var parallelStreamed = generate(model, formatSettings(format)
+                    .withMember("streaming", true)
+                    .withMember("parallel", true));
+            assertSameFiles(buffered, parallelStreamed);
+        }
+    }
+
+    @Test
+    public void generatesPagesForSyntheticModel() {
+        Model model = SyntheticModelGenerator.builder()
+                .operations(50)
+                .resources(5)
+                .nestingDepth(2)
+                .traitDensity(0.5)
+                .build()
+                .generate();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", SyntheticModelGenerator.SERVICE.toString())
+                        .withMember("format", "markdown")
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        for (var i = 0; i < 50; i++) {
+            assertTrue(manifest.hasFile("/content/operations/Operation" + i + ".md"));
+        }
+        for (var i = 0; i < 5; i++) {
+            assertTrue(manifest.hasFile("/content/resources/Resource" + i + ".md"));
+        }
+    }
+
+    @Test
+    public void generatesStandaloneHtmlSite() {
+        MockManifest manifest = new MockManifest();
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("sample-service.smithy"))
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", "smithy.example#SampleService")
+                        .withMember("format", "html")
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        assertTrue(manifest.hasFile("/content/_static/docgen.css"));
+        var servicePage = manifest.expectFileString("/content/index.html");
+        assertTrue(servicePage.startsWith("<!DOCTYPE html>"));
+        assertTrue(servicePage.contains("<link rel=\"stylesheet\" href=\"_static/docgen.css\">"));
+        assertFalse(servicePage.contains("```"));
+    }
+
+    @Test
+    public void generatesMultipleServicesInOnePass() {
+        MockManifest manifest = new MockManifest();
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("sample-service.smithy"))
+                .addUnparsedModel("other-service.smithy", """
+                        $version: "2.0"
+                        namespace smithy.example
+                        service OtherService {}
+                        """)
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("services", Node.fromStrings(
+                                "smithy.example#SampleService", "smithy.example#OtherService"))
+                        .withMember("format", "markdown")
+                        .withMember("parallelServices", true)
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        assertEquals(generate(false).expectFileString("/content/index.md"),
+                manifest.expectFileString("/SampleService/content/index.md"));
+        assertTrue(manifest.hasFile("/OtherService/content/index.md"));
+        var landingPage = manifest.expectFileString("/index.md");
+        assertTrue(landingPage.contains("./SampleService/content/index.md"));
+        assertTrue(landingPage.contains("./OtherService/content/index.md"));
+    }
+
+    @Test
+    public void listsOnlyEachServicesErrorsOnSharedOperations() {
+        MockManifest manifest = new MockManifest();
+        Model model = Model.assembler()
+                .addUnparsedModel("shared-operation.smithy", """
+                        $version: "2.0"
+                        namespace smithy.example
+
+                        service FirstService {
+                            operations: [SharedOperation]
+                            errors: [FirstError]
+                        }
+
+                        service SecondService {
+                            operations: [SharedOperation]
+                            errors: [SecondError]
+                        }
+
+                        operation SharedOperation {}
+
+                        @error("client")
+                        structure FirstError {}
+
+                        @error("client")
+                        structure SecondError {}
+                        """)
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("services", Node.fromStrings(
+                                "smithy.example#FirstService", "smithy.example#SecondService"))
+                        .withMember("format", "markdown")
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        var first = manifest.expectFileString("/FirstService/content/operations/SharedOperation.md");
+        assertTrue(first.contains("FirstError"));
+        assertFalse(first.contains("SecondError"));
+        var second = manifest.expectFileString("/SecondService/content/operations/SharedOperation.md");
+        assertTrue(second.contains("SecondError"));
+        assertFalse(second.contains("FirstError"));
+    }
+
+    @Test
+    public void recordsShapesReadByEachPage() {
+        Model model = SyntheticModelGenerator.builder().operations(3).build().generate();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", SyntheticModelGenerator.SERVICE.toString())
+                        .withMember("format", "markdown")
+                        .withMember("pageDependencies", true)
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        var dependencies = PageDependencies.fromNode(
+                Node.parse(manifest.expectFileString("/" + PageDependencies.FILENAME)));
+        var inputMember = ShapeId.fromParts(SyntheticModelGenerator.NAMESPACE, "Operation0Input", "member0");
+        assertTrue(dependencies.dependencies("content/operations/Operation0.md").contains(inputMember));
+
+        var affected = dependencies.affectedPages(List.of(inputMember));
+        assertTrue(affected.contains("content/operations/Operation0.md"));
+        assertFalse(affected.contains("content/operations/Operation1.md"));
+    }
+
+    @Test
+    public void recordsShapesReadThroughMemberTraits() {
+        var modelText = """
+                $version: "2"
+                namespace smithy.example
+
+                service ReferencingService {
+                    operations: [ListThings]
+                    resources: [Thing]
+                }
+
+                resource Thing {
+                    identifiers: { id: String }
+                }
+
+                operation ListThings {
+                    input := {
+                        id: String
+                        ids: ThingIds
+                    }
+                }
+
+                list ThingIds {
+                    member: String
+                }
+                """;
+        Model model = Model.assembler()
+                .addUnparsedModel("referencing-service.smithy", modelText)
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", "smithy.example#ReferencingService")
+                        .withMember("format", "markdown")
+                        .withMember("pageDependencies", true)
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        var dependencies = PageDependencies.fromNode(
+                Node.parse(manifest.expectFileString("/" + PageDependencies.FILENAME)));
+        var page = "content/operations/ListThings.md";
+        assertTrue(dependencies.dependencies(page).contains(ShapeId.from("smithy.example#ListThingsInput")));
+        assertTrue(dependencies.dependencies(page).contains(ShapeId.from("smithy.example#ThingIds")));
+
+        // The input's symbol is never needed, since its members are listed on the
+        // operation's page, but a reference added to it is shown there too.
+        Model referencing = Model.assembler()
+                .addUnparsedModel("referencing-service.smithy", modelText)
+                .addUnparsedModel("references.smithy", """
+                        $version: "2"
+                        namespace smithy.example
+
+                        apply ListThingsInput @references([{resource: Thing}])
+                        """)
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+        var affected = dependencies.affectedPages(model, referencing);
+        assertEquals(Set.of(page), affected);
+    }
+
+    @Test
+    public void writesShardedSearchIndex() {
+        Model model = SyntheticModelGenerator.builder().operations(3).build().generate();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", SyntheticModelGenerator.SERVICE.toString())
+                        .withMember("format", "markdown")
+                        .withMember("integrations", Node.objectNode()
+                                .withMember("search", Node.objectNode().withMember("enabled", true)))
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        var index = Node.parse(manifest.expectFileString("/content/_static/search/index.json")).expectObjectNode();
+        assertTrue(index.expectArrayMember("shards").getElementsAs(StringNode::getValue).contains("op"));
+
+        var shard = Node.parse(manifest.expectFileString("/content/_static/search/op.json")).expectObjectNode();
+        var matches = shard.expectObjectMember("terms").expectArrayMember("operation0");
+        var document = shard.expectArrayMember("docs")
+                .get(matches.get(0).get().expectNumberNode().getValue().intValue()).get()
+                .expectArrayNode();
+        assertEquals("operations/Operation0", document.get(2).get().expectStringNode().getValue());
+    }
+
+    @Test
+    public void mergesPagesRenderedByShards(@TempDir Path tempDir) {
+        Model model = SyntheticModelGenerator.builder().operations(10).build().generate();
+        for (var index = 0; index < 2; index++) {
+            generateShard(model, tempDir.resolve("shard-" + index),
+                    Node.objectNode().withMember("index", index).withMember("count", 2));
+        }
+
+        var shardDirectories = Node.fromStrings(
+                tempDir.resolve("shard-0").toString(), tempDir.resolve("shard-1").toString());
+        var merged = tempDir.resolve("merged");
+        generateShard(model, merged, Node.objectNode()
+                .withMember("count", 2)
+                .withMember("merge", true)
+                .withMember("directories", shardDirectories));
+        for (var i = 0; i < 10; i++) {
+            assertTrue(Files.isRegularFile(merged.resolve("content/operations/Operation" + i + ".md")));
+        }
+        assertTrue(Files.isRegularFile(merged.resolve("content/index.md")));
+
+        // A third shard was never rendered, so its pages are missing.
+        assertThrows(CodegenException.class, () -> generateShard(model, tempDir.resolve("incomplete"),
+                Node.objectNode()
+                        .withMember("count", 3)
+                        .withMember("merge", true)
+                        .withMember("directories", shardDirectories)));
+    }
+
+    private void generateShard(Model model, Path outputDirectory, Node shard) {
+        PluginContext context = PluginContext.builder()
+                .fileManifest(FileManifest.create(outputDirectory))
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", SyntheticModelGenerator.SERVICE.toString())
+                        .withMember("format", "markdown")
+                        .withMember("shard", shard)
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+    }
+
+    private MockManifest generate(Model model, ObjectNode settings) {
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(settings.withMember("service", SyntheticModelGenerator.SERVICE.toString()))
+                .build();
+        new SmithyDocPlugin().execute(context);
+        return manifest;
+    }
+
+    private MockManifest generateWithAppendingIntegration(Model model, ObjectNode settings) {
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(settings.withMember("service", SyntheticModelGenerator.SERVICE.toString()))
+                .build();
+        List<DocIntegration> integrations = List.of(
+                new BuiltinsIntegration(), new HtmlIntegration(), new AppendingIntegration());
+        new SmithyDocPlugin(() -> integrations).execute(context);
+        return manifest;
+    }
+
+    private ObjectNode formatSettings(String format) {
+        // Sphinx projects are generated, but not built.
+        return Node.objectNodeBuilder()
+                .withMember("format", format)
+                .withMember("integrations", Node.objectNode()
+                        .withMember("sphinx", Node.objectNode().withMember("autoBuild", false)))
+                .build();
+    }
+
+    private void assertSameFiles(MockManifest expected, MockManifest actual) {
+        assertEquals(expected.getFiles(), actual.getFiles());
+        for (var file : expected.getFiles()) {
+            assertEquals(expected.expectFileString(file), actual.expectFileString(file), file.toString());
+        }
+    }
+
+    private MockManifest generate(boolean parallel) {
+        MockManifest manifest = new MockManifest();
+        Model model = Model.assembler()
+                .addImport(getClass().getResource("sample-service.smithy"))
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", "smithy.example#SampleService")
+                        .withMember("format", "markdown")
+                        .withMember("parallel", parallel)
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+        return manifest;
+    }
+
     private void assertServicePageContents(MockManifest manifest) {
         var actual = manifest.expectFileString("/content/index.md");
         var expected = readExpectedPageContent("expected-outputs/index.md");
@@ -64,4 +488,18 @@ public class SmithyDocPluginTest {
         return IoUtils.readUtf8File(Paths.get(uri))
             .replace("\r\n", "\n");
     }
+
+    /**
+     * Appends to an operation page after every shape has been generated.
+     */
+    private static final class AppendingIntegration implements DocIntegration {
+        static final String TEXT = "Appended by an integration.";
+
+        @Override
+        public void customize(DocGenerationContext context) {
+            var operation = context.model().expectShape(ShapeId.fromParts(
+                    SyntheticModelGenerator.NAMESPACE, "Operation0"));
+            context.writerDelegator().useShapeWriter(operation, writer -> writer.write(TEXT));
+        }
+    }
 }
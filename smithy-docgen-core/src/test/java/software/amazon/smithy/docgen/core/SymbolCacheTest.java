@@ -0,0 +1,177 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.codegen.core.SymbolProvider;
+import software.amazon.smithy.docgen.core.DocSymbolProvider.FileExtensionDecorator;
+import software.amazon.smithy.docgen.core.DocSymbolProvider.SymbolCache;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.neighbor.Walker;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.MemberShape;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+
+public class SymbolCacheTest {
+
+    private static final ShapeId SERVICE = ShapeId.from("smithy.example#Service");
+    private static final Model MODEL = Model.assembler()
+            .addUnparsedModel("service.smithy", """
+                    $version: "2"
+                    namespace smithy.example
+
+                    service Service {
+                        version: "2024-01-01"
+                        operations: [GetThing, PutThing]
+                        resources: [Widget]
+                    }
+
+                    operation GetThing {
+                        input := {
+                            @required
+                            id: String
+                        }
+                        output := {
+                            thing: Thing
+                        }
+                        errors: [NotFound]
+                    }
+
+                    operation PutThing {
+                        input := {
+                            thing: Thing
+                        }
+                    }
+
+                    resource Widget {
+                        identifiers: {
+                            widgetId: String
+                        }
+                        read: GetWidget
+                    }
+
+                    @readonly
+                    operation GetWidget {
+                        input := {
+                            @required
+                            widgetId: String
+                        }
+                    }
+
+                    structure Thing {
+                        name: String
+                        children: Things
+                        parent: Thing
+                        kind: Kind
+                    }
+
+                    list Things {
+                        member: Thing
+                    }
+
+                    enum Kind {
+                        BIG
+                        SMALL
+                    }
+
+                    @error("client")
+                    structure NotFound {
+                        message: String
+                    }
+                    """)
+            .assemble()
+            .unwrap();
+
+    @Test
+    public void cachedSymbolsMatchUncachedSymbols() {
+        var cache = new SymbolCache(provider());
+        var uncached = provider();
+        for (var shape : closure()) {
+            assertEquals(uncached.toSymbol(shape), cache.toSymbol(shape), shape.getId().toString());
+            // The second lookup is served from the cache.
+            assertEquals(uncached.toSymbol(shape), cache.toSymbol(shape), shape.getId().toString());
+        }
+    }
+
+    @Test
+    public void createsEachSymbolOnce() {
+        var counting = new CountingProvider(provider());
+        var cache = new SymbolCache(counting);
+        var shapes = closure();
+
+        List<Symbol> first = new ArrayList<>();
+        for (var shape : shapes) {
+            first.add(cache.toSymbol(shape));
+        }
+        assertEquals(0, cache.hits());
+        assertEquals(shapes.size(), cache.misses());
+
+        for (var i = 0; i < shapes.size(); i++) {
+            assertSame(first.get(i), cache.toSymbol(shapes.get(i)));
+        }
+        assertEquals(shapes.size(), cache.hits());
+        assertEquals(shapes.size(), cache.misses());
+        for (var shape : shapes) {
+            assertEquals(1, counting.calls.get(shape.getId()).get(), shape.getId().toString());
+        }
+    }
+
+    @Test
+    public void reportsEveryLookup() {
+        List<ShapeId> lookups = new ArrayList<>();
+        var cache = new SymbolCache(provider(), lookups::add);
+        var member = closure().stream()
+                .filter(Shape::isMemberShape)
+                .map(shape -> (MemberShape) shape)
+                .findFirst()
+                .get();
+
+        cache.toSymbol(member);
+        cache.toSymbol(member);
+        cache.toMemberName(member);
+
+        assertEquals(List.of(member.getId(), member.getId(), member.getId()), lookups);
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    private SymbolProvider provider() {
+        var settings = DocSettings.fromNode(Node.objectNode()
+                .withMember("service", SERVICE.toString())
+                .withMember("format", "markdown"));
+        return new FileExtensionDecorator(new DocSymbolProvider(MODEL, settings), ".md");
+    }
+
+    private List<Shape> closure() {
+        var service = MODEL.expectShape(SERVICE);
+        return new ArrayList<>(new Walker(MODEL).walkShapes(service));
+    }
+
+    private static final class CountingProvider implements SymbolProvider {
+        private final SymbolProvider wrapped;
+        private final ConcurrentMap<ShapeId, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        CountingProvider(SymbolProvider wrapped) {
+            this.wrapped = wrapped;
+        }
+
+        @Override
+        public Symbol toSymbol(Shape shape) {
+            calls.computeIfAbsent(shape.getId(), id -> new AtomicInteger()).incrementAndGet();
+            return wrapped.toSymbol(shape);
+        }
+    }
+}
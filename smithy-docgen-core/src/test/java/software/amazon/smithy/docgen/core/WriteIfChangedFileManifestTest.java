@@ -0,0 +1,84 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.build.FileManifest;
+
+public class WriteIfChangedFileManifestTest {
+
+    private static final FileTime OLD = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    public void skipsWritesOfIdenticalContents() throws IOException {
+        var page = existingFile("content/index.md", "# Service\n");
+        var manifest = new WriteIfChangedFileManifest(FileManifest.create(baseDir));
+
+        var written = manifest.writeFile("content/index.md", "# Service\n");
+
+        assertEquals(page, written);
+        assertEquals(OLD, Files.getLastModifiedTime(page));
+        assertTrue(manifest.getFiles().contains(page));
+        assertEquals(0, manifest.written());
+        assertEquals(1, manifest.unchanged());
+    }
+
+    @Test
+    public void writesChangedContentsOfTheSameSize() throws IOException {
+        var page = existingFile("content/index.md", "# Service\n");
+        var manifest = new WriteIfChangedFileManifest(FileManifest.create(baseDir));
+
+        manifest.writeFile("content/index.md", "# Servlet\n");
+
+        assertEquals("# Servlet\n", Files.readString(page));
+        assertTrue(manifest.getFiles().contains(page));
+        assertEquals(1, manifest.written());
+        assertEquals(0, manifest.unchanged());
+    }
+
+    @Test
+    public void writesChangedContentsOfAnotherSize() throws IOException {
+        var page = existingFile("content/index.md", "# Service\n");
+        var manifest = new WriteIfChangedFileManifest(FileManifest.create(baseDir));
+
+        manifest.writeFile("content/index.md", "# Another Service\n");
+
+        assertEquals("# Another Service\n", Files.readString(page));
+        assertEquals(1, manifest.written());
+    }
+
+    @Test
+    public void writesNewFiles() throws IOException {
+        var manifest = new WriteIfChangedFileManifest(FileManifest.create(baseDir));
+
+        var written = manifest.writeFile("content/operations/GetThing.md", "# GetThing\n");
+
+        assertEquals(baseDir.resolve("content/operations/GetThing.md"), written);
+        assertEquals("# GetThing\n", Files.readString(written));
+        assertEquals(1, manifest.written());
+        assertEquals(0, manifest.unchanged());
+    }
+
+    private Path existingFile(String path, String contents) throws IOException {
+        var file = baseDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents);
+        Files.setLastModifiedTime(file, OLD);
+        return file;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.generators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.docgen.core.DocGenerationContext;
+import software.amazon.smithy.docgen.core.DocIntegration;
+import software.amazon.smithy.docgen.core.DocSettings;
+import software.amazon.smithy.docgen.core.DocSymbolProvider;
+import software.amazon.smithy.docgen.core.integrations.BuiltinsIntegration;
+import software.amazon.smithy.docgen.core.integrations.SphinxIntegration;
+import software.amazon.smithy.docgen.core.sections.ProtocolSection;
+import software.amazon.smithy.docgen.core.sections.ProtocolsSection;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.neighbor.Walker;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+import software.amazon.smithy.utils.StringUtils;
+
+public class GeneratorUtilsTest {
+
+    private static final ShapeId SERVICE = ShapeId.from("smithy.example#InterceptorService");
+
+    // A second protocol that supports none of the protocol traits, so no tab
+    // should ever be written for it.
+    private static final String QUIET_PROTOCOL = """
+            $version: "2"
+            namespace smithy.example
+
+            @protocolDefinition
+            @trait(selector: "service")
+            structure quietProtocol {}
+
+            apply InterceptorService @quietProtocol
+            """;
+
+    @Test
+    public void writesTheSameProtocolTabsAsUnwriting() {
+        var model = Model.assembler()
+                .addImport(getClass().getResource("/software/amazon/smithy/docgen/core/interceptors.smithy"))
+                .addUnparsedModel("quiet-protocol.smithy", QUIET_PROTOCOL)
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+
+        for (var format : List.of("markdown", "sphinx-markdown")) {
+            var context = context(model, format);
+            var withTabs = 0;
+            for (var shape : new Walker(model).walkShapes(model.expectShape(SERVICE))) {
+                var checked = write(context, shape, writer -> GeneratorUtils.writeProtocolsSection(
+                        context, writer, shape));
+                var unwritten = write(context, shape, writer -> writeProtocolsSectionWithUnwrite(
+                        context, writer, shape));
+
+                // Capturing and unwriting left stray blank lines behind. Unwriting
+                // an empty first tab also dropped the marker that starts a new group
+                // of sphinx tabs, which the first tab that's written now always has.
+                assertEquals(normalize(unwritten), normalize(checked), shape.getId().toString());
+                assertFalse(checked.contains("quietProtocol"), checked);
+                if (!checked.isBlank()) {
+                    withTabs++;
+                    if (format.equals("sphinx-markdown")) {
+                        assertTrue(checked.strip().startsWith(":::{tab} testProtocol\n:new-set:"), checked);
+                    }
+                }
+            }
+            assertTrue(withTabs > 0);
+        }
+    }
+
+    @Test
+    public void skipsProtocolTabsWithOnlyWhitespace() {
+        var model = Model.assembler()
+                .addImport(getClass().getResource("/software/amazon/smithy/docgen/core/interceptors.smithy"))
+                .addUnparsedModel("quiet-protocol.smithy", QUIET_PROTOCOL)
+                .discoverModels(getClass().getClassLoader())
+                .assemble()
+                .unwrap();
+
+        for (var format : List.of("markdown", "sphinx-markdown")) {
+            var context = context(model, format, List.of(new WhitespaceInterceptor()));
+            var withTabs = 0;
+            for (var shape : new Walker(model).walkShapes(model.expectShape(SERVICE))) {
+                var contents = write(context, shape, writer -> GeneratorUtils.writeProtocolsSection(
+                        context, writer, shape));
+                assertFalse(contents.contains("quietProtocol"), contents);
+                if (!contents.isBlank()) {
+                    withTabs++;
+                }
+            }
+            assertTrue(withTabs > 0);
+        }
+    }
+
+    private DocGenerationContext context(Model model, String format) {
+        return context(model, format, List.of());
+    }
+
+    private DocGenerationContext context(
+            Model model,
+            String format,
+            List<CodeInterceptor<? extends CodeSection, DocWriter>> extraInterceptors
+    ) {
+        var settings = DocSettings.fromNode(Node.objectNode()
+                .withMember("service", SERVICE.toString())
+                .withMember("format", format));
+        List<DocIntegration> integrations = List.of(new BuiltinsIntegration(), new SphinxIntegration());
+        var context = new DocGenerationContext(
+                model,
+                settings,
+                new DocSymbolProvider(model, settings),
+                new MockManifest(),
+                integrations);
+
+        // This is what the director does before any shapes are generated.
+        List<CodeInterceptor<? extends CodeSection, DocWriter>> interceptors = new ArrayList<>();
+        for (var integration : integrations) {
+            interceptors.addAll(integration.interceptors(context));
+        }
+        interceptors.addAll(extraInterceptors);
+        context.writerDelegator().setInterceptors(interceptors);
+        return context;
+    }
+
+    private String write(DocGenerationContext context, Shape shape, Consumer<DocWriter> consumer) {
+        var contents = new AtomicReference<String>();
+        var filename = shape.getId().toString().replaceAll("[^A-Za-z0-9]", "_") + "-" + System.nanoTime();
+        context.writerDelegator().useFileWriter(filename, writer -> {
+            consumer.accept(writer);
+            contents.set(writer.toString());
+        });
+        return contents.get();
+    }
+
+    private String normalize(String text) {
+        return text.lines()
+                .filter(line -> !line.isBlank() && !line.equals(":new-set:"))
+                .collect(Collectors.joining("\n"));
+    }
+
+    // This is how protocol tabs were written before interceptors could be asked
+    // whether they'd intercept a section: every tab was written and then removed
+    // again if nothing was written to it.
+    private static void writeProtocolsSectionWithUnwrite(
+            DocGenerationContext context,
+            DocWriter writer,
+            Shape shape
+    ) {
+        var protocols = context.knowledge().protocols();
+        if (protocols.isEmpty()) {
+            return;
+        }
+        writer.pushState(new ProtocolsSection(context, shape));
+
+        AtomicReference<String> tabGroupContents = new AtomicReference<>();
+        var tabGroup = capture(writer, tabGroupWriter -> {
+            tabGroupWriter.openTabGroup();
+            tabGroupContents.set(capture(tabGroupWriter, w -> {
+                for (var protocol : protocols) {
+                    writeProtocolSectionWithUnwrite(context, w, shape, protocol);
+                }
+            }));
+            tabGroupWriter.closeTabGroup();
+        });
+
+        if (StringUtils.isBlank(tabGroupContents.get())) {
+            writer.unwrite("$L\n", tabGroup);
+        }
+
+        writer.popState();
+    }
+
+    private static void writeProtocolSectionWithUnwrite(
+            DocGenerationContext context,
+            DocWriter writer,
+            Shape shape,
+            ShapeId protocol
+    ) {
+        var protocolSymbol = context.symbolProvider().toSymbol(context.model().expectShape(protocol));
+
+        AtomicReference<String> tabContents = new AtomicReference<>();
+        var tab = capture(writer, tabWriter -> {
+            tabWriter.openTab(protocolSymbol.getName());
+            tabContents.set(capture(tabWriter, w2 -> tabWriter.injectSection(
+                    new ProtocolSection(context, shape, protocol))));
+            tabWriter.closeTab();
+        });
+
+        if (StringUtils.isBlank(tabContents.get())) {
+            writer.unwrite("$L\n", tab);
+        }
+    }
+
+    private static String capture(DocWriter writer, Consumer<DocWriter> consumer) {
+        var recorder = new RecordingInterceptor();
+        writer.pushState(new CapturingSection()).onSection(recorder);
+        consumer.accept(writer);
+        writer.popState();
+        return recorder.contents;
+    }
+
+    private record CapturingSection() implements CodeSection {}
+
+    private static final class RecordingInterceptor implements CodeInterceptor<CapturingSection, DocWriter> {
+        private String contents;
+
+        @Override
+        public Class<CapturingSection> sectionType() {
+            return CapturingSection.class;
+        }
+
+        @Override
+        public void write(DocWriter writer, String previousText, CapturingSection section) {
+            contents = previousText;
+            writer.writeWithNoFormatting(previousText);
+        }
+    }
+
+    // Claims the section for the protocol that doesn't support anything, but
+    // then only writes whitespace to it.
+    private static final class WhitespaceInterceptor implements CodeInterceptor.Appender<ProtocolSection, DocWriter> {
+        @Override
+        public Class<ProtocolSection> sectionType() {
+            return ProtocolSection.class;
+        }
+
+        @Override
+        public boolean isIntercepted(ProtocolSection section) {
+            return section.protocol().getName().equals("quietProtocol");
+        }
+
+        @Override
+        public void append(DocWriter writer, ProtocolSection section) {
+            writer.write("  \n");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class PythonRequirementTest {
+
+    public static Stream<Arguments> requirements() {
+        return Stream.of(
+                Arguments.of("sphinx", "0.1", true),
+                Arguments.of("sphinx>=8.0", "8.0.0", true),
+                Arguments.of("sphinx>=8.0", "7.4.7", false),
+                Arguments.of("sphinx>=8.0,<9", "8.2.3", true),
+                Arguments.of("sphinx>=8.0,<9", "9.0.0", false),
+                Arguments.of("sphinx >= 8.0 , < 9  # pinned below 9", "8.2.3", true),
+
+                // Pre-releases and development releases are only allowed if a
+                // specifier names one.
+                Arguments.of("sphinx>=8.0", "8.1.0rc1", false),
+                Arguments.of("sphinx>=8.0", "8.1.0.dev1", false),
+                Arguments.of("sphinx>=8.1.0rc1", "8.1.0rc2", true),
+                Arguments.of("sphinx>=8.1.0rc1", "8.1.0", true),
+                Arguments.of("sphinx<9", "9.0.0rc1", false),
+                Arguments.of("sphinx<9.0rc2", "9.0rc1", true),
+                Arguments.of("sphinx!=8.1.0rc1", "8.1.0rc2", false),
+
+                // Post-releases
+                Arguments.of("pkg>=1.0", "1.0.post1", true),
+                Arguments.of("pkg>1.0", "1.0.post1", false),
+                Arguments.of("pkg>1.0.post1", "1.0.post2", true),
+                Arguments.of("pkg>1.0", "1.1", true),
+                Arguments.of("pkg>=1.0", "1.0.post1.dev2", false),
+                Arguments.of("pkg>=1.0.post1.dev1", "1.0.post1.dev2", true),
+                Arguments.of("pkg<=1.0", "1.0.post1", false),
+
+                // Exact matches and exclusions
+                Arguments.of("furo==2024.8.6", "2024.8.6", true),
+                Arguments.of("furo==2024.8.6", "2024.8.6.0", true),
+                Arguments.of("furo==2024.8.6", "2024.8.7", false),
+                Arguments.of("furo==1.0-1", "1.0.post1", true),
+                Arguments.of("furo==1.0alpha1", "1.0a1", true),
+                Arguments.of("furo==1.0", "1.0+local", true),
+                Arguments.of("furo===1.0", "1.0", true),
+                Arguments.of("furo===1.0", "1.0.0", false),
+                Arguments.of("furo!=2024.8.6", "2024.8.6", false),
+                Arguments.of("furo!=2024.8.6", "2024.8.7", true),
+
+                // Wildcards
+                Arguments.of("furo==2024.*", "2024.8.6", true),
+                Arguments.of("furo==2024.*", "2025.1.1", false),
+                Arguments.of("furo==2024.8.*", "2024.8", true),
+                Arguments.of("furo!=2024.*", "2024.1", false),
+                Arguments.of("furo!=2024.*", "2023.9", true),
+
+                // Compatible releases
+                Arguments.of("myst-parser~=4.0", "4.1.0", true),
+                Arguments.of("myst-parser~=4.0", "4.0", true),
+                Arguments.of("myst-parser~=4.0", "5.0", false),
+                Arguments.of("myst-parser~=4.0.1", "4.0.5", true),
+                Arguments.of("myst-parser~=4.0.1", "4.0.0", false),
+                Arguments.of("myst-parser~=4.0.1", "4.1.0", false),
+                Arguments.of("myst-parser~=4", "4.0", false),
+
+                Arguments.of("sphinx>=8.0", "not a version", false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("requirements")
+    public void checksInstalledVersions(String line, String installed, boolean satisfied) {
+        var requirement = PythonRequirement.parse(line).orElseThrow();
+
+        assertEquals(satisfied, requirement.isSatisfiedBy(installed), line + " with " + installed);
+    }
+
+    @Test
+    public void ordersVersionsByReleaseThenPreThenPostThenDev() {
+        var ordered = List.of(
+                "not a version",
+                "0.9",
+                "1.0.dev1",
+                "1.0.dev5",
+                "1.0a1.dev1",
+                "1.0a1",
+                "1.0b1",
+                "1.0rc1.dev1",
+                "1.0rc1",
+                "1.0",
+                "1.0.post1.dev2",
+                "1.0.post1",
+                "1.0.post2",
+                "1.0.1.dev1",
+                "1.0.1",
+                "1.10");
+        for (var i = 0; i < ordered.size(); i++) {
+            for (var j = 0; j < ordered.size(); j++) {
+                var left = ordered.get(i);
+                var right = ordered.get(j);
+                assertEquals(Integer.signum(Integer.compare(i, j)),
+                        Integer.signum(PythonRequirement.compare(left, right)),
+                        left + " compared to " + right);
+            }
+        }
+    }
+
+    @Test
+    public void treatsEquivalentSpellingsAsEqual() {
+        assertEquals(0, PythonRequirement.compare("1.0", "1.0.0"));
+        assertEquals(0, PythonRequirement.compare("1.0-1", "1.0.post1"));
+        assertEquals(0, PythonRequirement.compare("1.0c1", "1.0rc1"));
+        assertEquals(0, PythonRequirement.compare("1.0.ALPHA.1", "1.0a1"));
+        assertEquals(0, PythonRequirement.compare("v1.0", "1.0+ubuntu1"));
+    }
+
+    @Test
+    public void normalizesNames() {
+        var requirement = PythonRequirement.parse("Sphinx_Inline.Tabs>=2023").orElseThrow();
+
+        assertEquals("sphinx-inline-tabs", requirement.name());
+    }
+
+    @Test
+    public void doesNotParseRequirementsThatNeedPip() {
+        assertTrue(PythonRequirement.parse("sphinx[extras]>=8").isEmpty());
+        assertTrue(PythonRequirement.parse("sphinx>=8; python_version < '3.9'").isEmpty());
+        assertTrue(PythonRequirement.parse("sphinx @ https://example.com/sphinx.whl").isEmpty());
+        assertTrue(PythonRequirement.parse("sphinx>=").isEmpty());
+    }
+}
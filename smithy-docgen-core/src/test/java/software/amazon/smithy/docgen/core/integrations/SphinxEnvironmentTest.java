@@ -0,0 +1,71 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.docgen.core.integrations.SphinxIntegration.SphinxSettings;
+import software.amazon.smithy.model.node.Node;
+
+// Environments are created with python3's venv module, which needs a POSIX layout.
+@DisabledOnOs(OS.WINDOWS)
+public class SphinxEnvironmentTest {
+
+    // A requirements file without any requirements, so nothing has to be downloaded.
+    private static final List<String> REQUIREMENTS = List.of("# no requirements");
+
+    @TempDir
+    Path baseDir;
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    public void preparesSharedEnvironmentsConcurrently() throws Exception {
+        var settings = SphinxSettings.fromNode(Node.objectNode()
+                .withMember("venvCache", cacheDir.toString()));
+        var threads = 4;
+        var barrier = new CyclicBarrier(threads);
+        List<CompletableFuture<SphinxEnvironment>> results = new ArrayList<>();
+        for (var i = 0; i < threads; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    barrier.await(30, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return SphinxEnvironment.prepare(baseDir, REQUIREMENTS, settings);
+            }));
+        }
+
+        List<SphinxEnvironment> environments = new ArrayList<>();
+        for (var result : results) {
+            environments.add(result.get(5, TimeUnit.MINUTES));
+        }
+
+        // Only one of the builds creates the environment, the rest wait for it
+        // and then reuse it.
+        assertEquals(1, environments.stream().filter(environment -> !environment.reused()).count());
+        var directory = environments.get(0).directory().orElseThrow();
+        for (var environment : environments) {
+            assertEquals(directory, environment.directory().orElseThrow());
+            assertTrue(environment.satisfies(REQUIREMENTS));
+        }
+        assertTrue(Files.isExecutable(directory.resolve("bin/pip")));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.build.MockManifest;
+import software.amazon.smithy.build.PluginContext;
+import software.amazon.smithy.docgen.core.SmithyDocPlugin;
+import software.amazon.smithy.docgen.core.SyntheticModelGenerator;
+import software.amazon.smithy.docgen.core.integrations.SphinxIndexTree.Page;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+
+public class SphinxIndexTreeTest {
+
+    private static final Pattern TOCTREE_ENTRY = Pattern.compile("(?m)^(\\S+)$");
+
+    @Test
+    public void listsEverythingOnTheRootPageIfItFits() {
+        var files = List.of("Alpha.md", "Beta.md");
+
+        assertEquals(List.of(new Page("index", "", "", files)), SphinxIndexTree.build(files, 2, true));
+        assertEquals(List.of(new Page("index", "", "", files)), SphinxIndexTree.build(files, 0, false));
+    }
+
+    @Test
+    public void splitsIntoFixedSizeChunks() {
+        var files = files(25);
+
+        var pages = SphinxIndexTree.build(files, 10, false);
+
+        assertEquals(List.of("index", "index-0-1", "index-0-2", "index-0-3"), names(pages));
+        assertEquals(List.of("index-0-1", "index-0-2", "index-0-3"), pages.get(0).entries());
+        assertEquals(List.of(10, 10, 5), sizes(pages.subList(1, pages.size())));
+        assertEquals("File00 - File09", pages.get(1).title());
+        assertTree(pages, files, 10);
+    }
+
+    @Test
+    public void nestsPagesUntilTheRootFits() {
+        var files = files(250);
+
+        var pages = SphinxIndexTree.build(files, 5, false);
+
+        // 50 leaf pages are grouped into 10 pages, and then into 2 more.
+        assertEquals(List.of("index-2-1", "index-2-2"), pages.get(0).entries());
+        assertEquals(50, pages.stream().filter(page -> page.name().startsWith("index-0-")).count());
+        assertEquals(10, pages.stream().filter(page -> page.name().startsWith("index-1-")).count());
+        assertEquals(2, pages.stream().filter(page -> page.name().startsWith("index-2-")).count());
+        assertEquals("File000 - File124", pages.stream()
+                .filter(page -> page.name().equals("index-2-1"))
+                .findFirst()
+                .get()
+                .title());
+        assertTree(pages, files, 5);
+    }
+
+    @Test
+    public void splitsAlphabeticallyByTheShortestPrefixThatFits() {
+        var files = List.of("Alpha.md", "Amber.md", "Apple.md", "Beta.md", "Bravo.md", "Charlie.md");
+
+        var pages = SphinxIndexTree.build(files, 2, true);
+
+        // The A bucket is too big, so it's split by two letters and the neighbors
+        // that fit together are packed onto one page.
+        assertEquals(List.of(
+                new Page("index", "", "", List.of("index-1-1", "index-1-2")),
+                new Page("index-al", "Al", "Am", List.of("Alpha.md", "Amber.md")),
+                new Page("index-ap", "Ap", "Ap", List.of("Apple.md")),
+                new Page("index-b", "B", "B", List.of("Beta.md", "Bravo.md")),
+                new Page("index-c", "C", "C", List.of("Charlie.md")),
+                new Page("index-1-1", "Al", "Ap", List.of("index-al", "index-ap")),
+                new Page("index-1-2", "B", "C", List.of("index-b", "index-c"))), pages);
+        assertEquals("Al - Am", pages.get(1).title());
+        assertEquals("Ap", pages.get(2).title());
+        assertTree(pages, files, 2);
+    }
+
+    @Test
+    public void chunksNamesThatOnlyDifferByCase() {
+        var files = List.of("THING.md", "Thing.md", "thing.md");
+
+        var pages = SphinxIndexTree.build(files, 2, true);
+
+        assertEquals(List.of("index", "index-thing-1", "index-thing-2"), names(pages));
+        assertTree(pages, files, 2);
+    }
+
+    @Test
+    public void writesNestedToctrees() {
+        Model model = SyntheticModelGenerator.builder().operations(30).build().generate();
+        MockManifest manifest = new MockManifest();
+        PluginContext context = PluginContext.builder()
+                .fileManifest(manifest)
+                .model(model)
+                .settings(Node.objectNodeBuilder()
+                        .withMember("service", SyntheticModelGenerator.SERVICE.toString())
+                        .withMember("format", "sphinx-markdown")
+                        .withMember("integrations", Node.objectNode()
+                                .withMember("sphinx", Node.objectNode()
+                                        .withMember("autoBuild", false)
+                                        .withMember("maxIndexEntries", 4)
+                                        .withMember("indexSharding", "fixed")))
+                        .build())
+                .build();
+        new SmithyDocPlugin().execute(context);
+
+        // Every operation is reachable from the directory's index through the
+        // toctrees, and no toctree lists more than the maximum.
+        Set<String> reached = new HashSet<>();
+        List<String> pending = new ArrayList<>(List.of("index"));
+        while (!pending.isEmpty()) {
+            var page = manifest.expectFileString("/content/operations/" + pending.remove(0) + ".md");
+            var toctree = page.substring(page.indexOf(":::{toctree}") + 12, page.lastIndexOf(":::"));
+            var entries = TOCTREE_ENTRY.matcher(toctree).results().map(match -> match.group(1)).toList();
+            assertTrue(entries.size() <= 4, page);
+            for (var entry : entries) {
+                if (entry.endsWith(".md")) {
+                    reached.add(entry);
+                } else {
+                    pending.add(entry);
+                }
+            }
+        }
+        Set<String> operations = new HashSet<>();
+        for (var i = 0; i < 30; i++) {
+            operations.add("Operation" + i + ".md");
+        }
+        assertEquals(operations, reached);
+    }
+
+    private List<String> files(int count) {
+        var width = String.valueOf(count - 1).length();
+        List<String> files = new ArrayList<>();
+        for (var i = 0; i < count; i++) {
+            files.add(String.format("File%0" + width + "d.md", i));
+        }
+        return files;
+    }
+
+    private List<String> names(List<Page> pages) {
+        return pages.stream().map(Page::name).toList();
+    }
+
+    private List<Integer> sizes(List<Page> pages) {
+        return pages.stream().map(page -> page.entries().size()).toList();
+    }
+
+    // Walks the tree from the root, checking that every page is listed exactly
+    // once and fits, and that the source files are listed in order.
+    private void assertTree(List<Page> pages, List<String> sourceFiles, int maxEntries) {
+        Map<String, Page> byName = new HashMap<>();
+        for (var page : pages) {
+            assertTrue(page.entries().size() <= maxEntries, page.toString());
+            assertNull(byName.put(page.name(), page), page.name());
+        }
+        List<String> listed = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        walk(byName, "index", listed, visited);
+        assertEquals(sourceFiles, listed);
+        assertEquals(byName.keySet(), visited);
+    }
+
+    private void walk(Map<String, Page> pages, String name, List<String> listed, Set<String> visited) {
+        assertTrue(visited.add(name), name);
+        for (var entry : pages.get(name).entries()) {
+            if (pages.containsKey(entry)) {
+                walk(pages, entry, listed, visited);
+            } else {
+                listed.add(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.integrations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.build.FileManifest;
+import software.amazon.smithy.docgen.core.DocGenerationContext;
+import software.amazon.smithy.docgen.core.DocIntegration;
+import software.amazon.smithy.docgen.core.DocSettings;
+import software.amazon.smithy.docgen.core.DocSymbolProvider;
+import software.amazon.smithy.docgen.core.integrations.SphinxIntegration.SphinxSettings;
+import software.amazon.smithy.docgen.core.sections.sphinx.RequirementsSection;
+import software.amazon.smithy.docgen.core.writers.DocWriter;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.utils.CodeInterceptor;
+import software.amazon.smithy.utils.CodeSection;
+
+public class SphinxIntegrationTest {
+
+    private static final List<String> SPHINX_BUILD = List.of("python3", "-m", "sphinx");
+
+    @Test
+    public void buildsASingleFormatWithMake() {
+        var settings = SphinxSettings.fromNode(Node.objectNode().withMember("jobs", 4));
+
+        assertEquals(
+                Map.of("html", List.of("python3", "-m", "sphinx", "-M", "html", "content", "build", "-j", "4")),
+                SphinxIntegration.sphinxBuildCommands(SPHINX_BUILD, settings));
+    }
+
+    @Test
+    public void omitsJobsForSerialBuilds() {
+        var settings = SphinxSettings.fromNode(Node.objectNode());
+
+        assertEquals(
+                Map.of("html", List.of("python3", "-m", "sphinx", "-M", "html", "content", "build")),
+                SphinxIntegration.sphinxBuildCommands(SPHINX_BUILD, settings));
+    }
+
+    @Test
+    public void buildsExtraFormatsIntoTheirOwnDirectories() {
+        var settings = SphinxSettings.fromNode(Node.objectNode()
+                .withMember("format", "dirhtml")
+                .withMember("extraFormats", Node.fromStrings("epub", "dirhtml", "latex"))
+                .withMember("jobs", 7));
+
+        var commands = SphinxIntegration.sphinxBuildCommands(SPHINX_BUILD, settings);
+
+        // The primary format is built first, and listing it again is ignored. The
+        // seven jobs are split evenly between the three builds.
+        assertEquals(List.of("dirhtml", "epub", "latex"), List.copyOf(commands.keySet()));
+        assertEquals(List.of("python3", "-m", "sphinx", "-b", "epub", "-d", "build/doctrees-epub",
+                "content", "build/epub", "-j", "2"), commands.get("epub"));
+        assertEquals(List.of("python3", "-m", "sphinx", "-b", "dirhtml", "-d", "build/doctrees-dirhtml",
+                "content", "build/dirhtml", "-j", "2"), commands.get("dirhtml"));
+    }
+
+    @Test
+    public void omitsJobsIfThereAreTooFewToSplit() {
+        var settings = SphinxSettings.fromNode(Node.objectNode()
+                .withMember("extraFormats", Node.fromStrings("epub"))
+                .withMember("jobs", 3));
+
+        var commands = SphinxIntegration.sphinxBuildCommands(List.of("/venv/bin/sphinx-build"), settings);
+
+        assertEquals(List.of("/venv/bin/sphinx-build", "-b", "html", "-d", "build/doctrees-html",
+                "content", "build/html"), commands.get("html"));
+        assertEquals(List.of("/venv/bin/sphinx-build", "-b", "epub", "-d", "build/doctrees-epub",
+                "content", "build/epub"), commands.get("epub"));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void reusesTheEnvironmentPreparedDuringGeneration(@TempDir Path baseDir, @TempDir Path venv)
+            throws IOException {
+        List<List<String>> prepared = new CopyOnWriteArrayList<>();
+        generate(baseDir, venv, prepared, List.of());
+
+        assertEquals(1, prepared.size());
+        assertEquals(Files.readAllLines(baseDir.resolve("requirements.txt")), prepared.get(0));
+        assertEquals(List.of("-M html content build"), Files.readAllLines(venv.resolve("builds.txt")));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void preparesTheEnvironmentAgainIfRequirementsChange(@TempDir Path baseDir, @TempDir Path venv)
+            throws IOException {
+        List<List<String>> prepared = new CopyOnWriteArrayList<>();
+        CodeInterceptor.Appender<RequirementsSection, DocWriter> extraRequirement = new CodeInterceptor.Appender<>() {
+            @Override
+            public Class<RequirementsSection> sectionType() {
+                return RequirementsSection.class;
+            }
+
+            @Override
+            public void append(DocWriter writer, RequirementsSection section) {
+                writer.write("extra-requirement==1.0");
+            }
+        };
+        generate(baseDir, venv, prepared, List.of(extraRequirement));
+
+        // The environment is prepared in the background before the interceptor
+        // changes the requirements, so it's prepared again once they're written.
+        assertEquals(2, prepared.size());
+        assertFalse(prepared.get(0).contains("extra-requirement==1.0"));
+        assertTrue(prepared.get(1).contains("extra-requirement==1.0"));
+        assertEquals(Files.readAllLines(baseDir.resolve("requirements.txt")), prepared.get(1));
+        assertEquals(List.of("-M html content build"), Files.readAllLines(venv.resolve("builds.txt")));
+    }
+
+    // Runs the sphinx integration the way the director does, with an environment
+    // whose sphinx-build only records how it was run.
+    private void generate(
+            Path baseDir,
+            Path venv,
+            List<List<String>> prepared,
+            List<CodeInterceptor<? extends CodeSection, DocWriter>> interceptors
+    ) throws IOException {
+        var sphinxBuild = Files.createDirectories(venv.resolve("bin")).resolve("sphinx-build");
+        Files.writeString(sphinxBuild, "#!/bin/sh\necho \"$@\" >> \"$(dirname \"$0\")/../builds.txt\"\n");
+        Files.setPosixFilePermissions(sphinxBuild, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        var model = Model.assembler()
+                .addUnparsedModel("service.smithy", """
+                        $version: "2"
+                        namespace smithy.example
+                        service Service {}
+                        """)
+                .assemble()
+                .unwrap();
+        var settings = DocSettings.fromNode(Node.objectNode()
+                .withMember("service", "smithy.example#Service")
+                .withMember("format", "sphinx-markdown"));
+        var integration = new SphinxIntegration((directory, requirements) -> {
+            prepared.add(requirements);
+            return Optional.of(SphinxEnvironment.existing(venv, requirements));
+        });
+        integration.configure(settings, Node.objectNode());
+        List<DocIntegration> integrations = List.of(integration);
+        var context = new DocGenerationContext(
+                model,
+                settings,
+                new DocSymbolProvider(model, settings),
+                FileManifest.create(baseDir),
+                integrations);
+        context.writerDelegator().setInterceptors(interceptors);
+
+        integration.beforeShapeGeneration(context);
+        integration.customize(context);
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.writers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class CommonMarkRendererTest {
+
+    @Test
+    public void rendersHeadings() {
+        assertEquals("""
+                <h1>Title</h1>
+                <h2>Sub <em>heading</em></h2>
+                <h6>Deep</h6>
+                <p>####### Not a heading</p>
+                """, CommonMarkRenderer.render("""
+                # Title
+
+                ## Sub *heading* ##
+                ###### Deep
+
+                ####### Not a heading
+                """));
+    }
+
+    @Test
+    public void rendersNestedLists() {
+        assertEquals("""
+                <ul>
+                <li>one</li>
+                <li>two
+                <ul>
+                <li>nested</li>
+                <li>nested <code>two</code></li>
+                </ul></li>
+                <li>three</li>
+                </ul>
+                """, CommonMarkRenderer.render("""
+                - one
+                - two
+                  - nested
+                  - nested `two`
+                - three
+                """));
+    }
+
+    @Test
+    public void rendersOrderedLists() {
+        assertEquals("""
+                <ol>
+                <li><p>first</p></li>
+                <li><p>second</p>
+                <ol>
+                <li>inner</li>
+                </ol></li>
+                <li><p>third</p></li>
+                </ol>
+                <ol start="3">
+                <li>three</li>
+                <li>four</li>
+                </ol>
+                """, CommonMarkRenderer.render("""
+                1. first
+                2. second
+                   1. inner
+
+                3. third
+
+                3) three
+                4) four
+                """));
+    }
+
+    @Test
+    public void rendersFencedCode() {
+        assertEquals("""
+                <pre><code class="language-java">if (a &lt; b &amp;&amp; c &gt; &quot;d&quot;) {
+                    *notEmphasis*();
+                }
+                </code></pre>
+                <pre><code>~~~ plain
+                ```
+                </code></pre>
+                """, CommonMarkRenderer.render("""
+                ```java
+                if (a < b && c > "d") {
+                    *notEmphasis*();
+                }
+                ```
+
+                ~~~~
+                ~~~ plain
+                ```
+                ~~~~
+                """));
+    }
+
+    @Test
+    public void rendersIndentedLinesAsParagraphText() {
+        // Indented code blocks aren't supported, so indented lines are ordinary text.
+        assertEquals("""
+                <p>Text</p>
+                <p>indented a &lt; b
+                more</p>
+                """, CommonMarkRenderer.render("""
+                Text
+
+                    indented a < b
+                    more
+                """));
+    }
+
+    @Test
+    public void rendersCodeSpansWithHtmlCharacters() {
+        assertEquals(
+                "<p>Use <code>a &lt; b &amp;&amp; &quot;c&quot;</code>, <code>code with ` tick</code>,"
+                        + " and <code>&lt;br&gt;</code>.</p>\n",
+                CommonMarkRenderer.render("Use `a < b && \"c\"`, ``code with ` tick``, and ` <br> `."));
+    }
+
+    @Test
+    public void escapesHtmlCharacters() {
+        assertEquals(
+                "<p>1 &lt; 2 &amp; 3 &gt; 2 &quot;quoted&quot; &amp; &copy; &#60; &lt;br&gt; &amp;nope</p>\n",
+                CommonMarkRenderer.render("1 < 2 & 3 > 2 \"quoted\" &amp; &copy; &#60; \\<br> &nope"));
+        assertEquals("a&lt;b&gt;&amp;&quot;c&quot;'", CommonMarkRenderer.escape("a<b>&\"c\"'"));
+    }
+
+    @Test
+    public void rendersLinks() {
+        assertEquals("""
+                <p><a href="https://example.com/?a=1&amp;b=&quot;2&quot;" title="A &lt;title&gt;">a <em>link</em></a>,\
+                 <a href="https://example.com">https://example.com</a>,\
+                 <img src="a.png" alt="an &lt;image&gt;" title="t" />,\
+                 <a href="#anchor">anchor</a>, and [not a link]</p>
+                """, CommonMarkRenderer.render("""
+                [a *link*](https://example.com/?a=1&b="2" "A <title>"), <https://example.com>, \
+                ![an <image>](a.png 't'), [anchor](<#anchor>), and [not a link]
+                """));
+    }
+
+    @Test
+    public void passesHtmlThrough() {
+        assertEquals("""
+                <div class="note">
+                raw *html*
+                </div>
+                <p>after <em>em</em> <span title="x">inline</span></p>
+                """, CommonMarkRenderer.render("""
+                <div class="note">
+                raw *html*
+                </div>
+
+                after *em* <span title="x">inline</span>
+                """));
+    }
+
+    @Test
+    public void passesHtmlTablesThrough() {
+        assertEquals("""
+                <table>
+                <tr><th>Name</th></tr>
+                <tr><td>a &amp; b</td></tr>
+                </table>
+                """, CommonMarkRenderer.render("""
+                <table>
+                <tr><th>Name</th></tr>
+                <tr><td>a &amp; b</td></tr>
+                </table>
+                """));
+    }
+
+    @Test
+    public void rendersPipeTablesAsParagraphText() {
+        // Pipe tables are a GitHub extension rather than part of CommonMark.
+        assertEquals("""
+                <p>| a | b |
+                | --- | --- |
+                | 1 | 2 |</p>
+                """, CommonMarkRenderer.render("""
+                | a | b |
+                | --- | --- |
+                | 1 | 2 |
+                """));
+    }
+
+    @Test
+    public void rendersBlockQuotesBreaksAndLineBreaks() {
+        assertEquals("""
+                <blockquote>
+                <p>quote
+                continued</p>
+                </blockquote>
+                <hr />
+                <p>line<br />
+                break and<br />
+                backslash<br />
+                break</p>
+                """, CommonMarkRenderer.render("""
+                > quote
+                continued
+
+                ***
+
+                line \s
+                break and \s
+                backslash\\
+                break
+                """));
+    }
+}
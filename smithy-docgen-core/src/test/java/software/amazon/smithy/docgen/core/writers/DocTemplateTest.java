@@ -0,0 +1,145 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.writers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.smithy.utils.Pair;
+
+public class DocTemplateTest {
+
+    public static Stream<Object[]> templates() {
+        return Stream.of(
+                new Object[] {"plain $$text", new Object[0]},
+                new Object[] {"$L and $B and $`", new Object[] {"a", "b", "c"}},
+                new Object[] {"$2L then $1L then $2B", new Object[] {"a", "b"}},
+                new Object[] {"${L} ${B}", new Object[] {"a", "b"}},
+                new Object[] {"${2L} ${1B}", new Object[] {"a", "b"}},
+                new Object[] {"$R", new Object[] {Pair.of("text", "https://example.com")}},
+                new Object[] {"${name:L} is ${missing:L}.", new Object[0]},
+                new Object[] {"a\n${?flag}\nb\n${/flag}\nc", new Object[0]},
+                new Object[] {"a\n  ${?flag}\nb\n  ${/flag}\nc", new Object[0]},
+                new Object[] {"a\n${^flag}\nb\n${/flag}\nc", new Object[0]},
+                new Object[] {"a ${?flag}\nb\n${/flag} c", new Object[0]},
+                new Object[] {"a\n\t ${?flag}   \nb\n${/flag}", new Object[0]},
+                new Object[] {"a\r\n${?flag}\r\nb\r\n${/flag}\r\nc", new Object[0]},
+                new Object[] {"${?empty}E${/empty}${?optional}O${/optional}${?zero}Z${/zero}", new Object[0]},
+                new Object[] {"${?absent}$L${/absent}$L", new Object[] {"skipped", "written"}},
+                new Object[] {"""
+                        ${#list}
+                        ${key:L}: ${value:L}${?key.first} (first)${/key.first}${?key.last} (last)${/key.last}
+                        ${/list}
+                        """, new Object[0]},
+                new Object[] {"${#map}${key:L}=${value:`};${/map}${#optional}never${/optional}", new Object[0]},
+                new Object[] {"${#list}${#map}${key:L}${/map}${/list}", new Object[0]});
+    }
+
+    @ParameterizedTest
+    @MethodSource("templates")
+    public void writesTheSameAsTheWritersParser(String template, Object[] args) {
+        var cached = writer();
+        cached.write(template, args);
+        cached.write(template, args);
+
+        var parsed = writer();
+        parsed.writeWithNoFormatting(parsed.format(template, args));
+        parsed.writeWithNoFormatting(parsed.format(template, args));
+
+        assertEquals(parsed.toString(), cached.toString());
+    }
+
+    @Test
+    public void usesFormattersRegisteredBySubclasses() {
+        var writer = new ShoutingWriter();
+        writer.write("${?flag}$L ${name:L}${/flag}", "literal");
+
+        assertEquals("LITERAL NAME\n", writer.toString());
+    }
+
+    @Test
+    public void leavesUnsupportedSyntaxToTheWriter() {
+        var writer = writer();
+        writer.onSection("section", text -> writer.writeInlineWithNoFormatting(text + "!"));
+        writer.write("${L@section} ${#list as k, v}${k:L}${/list}", "text");
+
+        assertEquals("text! 012\n", writer.toString());
+    }
+
+    @Test
+    public void leavesArgumentErrorsToTheWriter() {
+        var tooMany = assertThrows(RuntimeException.class, () -> writer().write("$L", "a", "b"));
+        assertTrue(tooMany.getMessage().contains("unused relative format arguments"), tooMany.getMessage());
+
+        var unused = assertThrows(RuntimeException.class, () -> writer().write("$2L", "a", "b"));
+        assertTrue(unused.getMessage().contains("unused positional format arguments"), unused.getMessage());
+    }
+
+    @Test
+    public void parsesTemplatesOncePerWriterClass() {
+        var template = "${?flag}$L${/flag}";
+
+        assertSame(DocTemplate.of(MarkdownWriter.class, template), DocTemplate.of(MarkdownWriter.class, template));
+        assertNotSame(DocTemplate.of(MarkdownWriter.class, template),
+                DocTemplate.of(SphinxMarkdownWriter.class, template));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedTemplates() {
+        // No other test writes with this class, so its cache starts out empty.
+        var first = DocTemplate.of(EvictionWriter.class, "$L 0");
+        var recent = DocTemplate.of(EvictionWriter.class, "$L 1");
+        for (var i = 2; i <= DocTemplate.MAX_TEMPLATES; i++) {
+            DocTemplate.of(EvictionWriter.class, "$L " + i);
+            assertSame(recent, DocTemplate.of(EvictionWriter.class, "$L 1"));
+        }
+
+        assertSame(recent, DocTemplate.of(EvictionWriter.class, "$L 1"));
+        assertNotSame(first, DocTemplate.of(EvictionWriter.class, "$L 0"));
+    }
+
+    private DocWriter writer() {
+        var writer = new MarkdownWriter("test");
+        writer.putContext("flag", true);
+        writer.putContext("name", "value");
+        writer.putContext("empty", "");
+        writer.putContext("optional", Optional.of("present"));
+        writer.putContext("zero", 0);
+        writer.putContext("list", Arrays.asList("a", null, "c"));
+        Map<String, String> map = new LinkedHashMap<>();
+        map.put("one", "1");
+        map.put("two", "2");
+        writer.putContext("map", map);
+        return writer;
+    }
+
+    private static final class ShoutingWriter extends MarkdownWriter {
+        ShoutingWriter() {
+            super("test");
+            putFormatter('L', (value, indent) -> String.valueOf(value).toUpperCase());
+            putContext("flag", List.of(true));
+            putContext("name", "name");
+        }
+    }
+
+    private static final class EvictionWriter extends MarkdownWriter {
+        EvictionWriter() {
+            super("test");
+        }
+    }
+}
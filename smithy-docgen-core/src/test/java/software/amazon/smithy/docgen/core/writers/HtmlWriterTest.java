@@ -0,0 +1,205 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core.writers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.codegen.core.Symbol;
+import software.amazon.smithy.docgen.core.writers.DocWriter.ListType;
+import software.amazon.smithy.docgen.core.writers.DocWriter.NoticeType;
+import software.amazon.smithy.utils.Pair;
+
+public class HtmlWriterTest {
+
+    @Test
+    public void writesHeadingsWithAnchors() {
+        var writer = new HtmlWriter("content/operations/GetThing.html");
+        writer.openHeading("Get <Thing> & \"more\"", "get-thing");
+        writer.writeCommonMark("Some *docs* with `a < b`.");
+        writer.openHeading("Members");
+        writer.write("Text");
+        writer.closeHeading();
+        writer.closeHeading();
+
+        assertEquals("""
+                <!DOCTYPE html>
+                <html lang="en">
+                <head>
+                <meta charset="utf-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1">
+                <title>Get &lt;Thing&gt; &amp; &quot;more&quot;</title>
+                <link rel="stylesheet" href="../_static/docgen.css">
+                </head>
+                <body>
+                <main>
+                <div id="get-thing" class="anchor"></div>
+                <h1>Get &lt;Thing&gt; &amp; &quot;more&quot;</h1>
+                <p>Some <em>docs</em> with <code>a &lt; b</code>.</p>
+                <h2>Members</h2>
+                <p>Text</p>
+                </main>
+                </body>
+                </html>
+                """, writer.toString());
+    }
+
+    @Test
+    public void writesNestedLists() {
+        var writer = new HtmlWriter("content/index.html");
+        writer.openList(ListType.UNORDERED);
+        writer.openListItem(ListType.UNORDERED);
+        writer.write("one");
+        writer.openList(ListType.ORDERED);
+        writer.openListItem(ListType.ORDERED);
+        writer.write("inner");
+        writer.closeListItem(ListType.ORDERED);
+        writer.closeList(ListType.ORDERED);
+        writer.closeListItem(ListType.UNORDERED);
+        writer.openListItem(ListType.UNORDERED);
+        writer.writeCommonMark("two *em*");
+        writer.closeListItem(ListType.UNORDERED);
+        writer.closeList(ListType.UNORDERED);
+
+        assertEquals("""
+                <ul>
+                <li>
+                <p>one</p>
+                <ol>
+                <li>
+                <p>inner</p>
+                </li>
+                </ol>
+                </li>
+                <li>
+                <p>two <em>em</em></p>
+                </li>
+                </ul>
+                """, body(writer));
+    }
+
+    @Test
+    public void writesCodeAndEscapesFormattedValues() {
+        var writer = new HtmlWriter("content/index.html");
+        writer.openCodeBlock("java");
+        writer.write("if (a < b && \"c\") {}");
+        writer.closeCodeBlock();
+        writer.write("$` and $B and $R.", "a<b&\"c\"", "x*y_z", Pair.of("a <b>", "https://example.com/?a=1&b=2"));
+        writer.write("Plain $R.", Symbol.builder().name("[Thing]").build());
+
+        assertEquals("""
+                <pre><code class="language-java">if (a &lt; b &amp;&amp; &quot;c&quot;) {}
+                </code></pre>
+                <p><code>a&lt;b&amp;&quot;c&quot;</code> and <strong>x&#42;y&#95;z</strong> and \
+                <a href="https://example.com/?a=1&amp;b=2">a &lt;b&gt;</a>.
+                Plain &#91;Thing&#93;.</p>
+                """, body(writer));
+    }
+
+    @Test
+    public void writesAdmonitionsAndBadges() {
+        var writer = new HtmlWriter("content/index.html");
+        writer.openAdmonition(NoticeType.WARNING);
+        writer.writeCommonMark("Be *careful* & quick.");
+        writer.closeAdmonition();
+        writer.openAdmonition(NoticeType.INFO);
+        writer.write("See this.");
+        writer.closeAdmonition();
+        writer.openAdmonition(NoticeType.NOTE, titleWriter -> titleWriter.writeInline("$B", "Custom"));
+        writer.write("Body");
+        writer.closeAdmonition();
+        writer.write("Badge: ");
+        writer.writeBadge(NoticeType.IMPORTANT, "Beta <1>");
+
+        assertEquals("""
+                <div class="admonition warning">
+                <p class="admonition-title">Warning</p>
+                <p>Be <em>careful</em> &amp; quick.</p>
+                </div>
+                <div class="admonition seealso">
+                <p class="admonition-title">See Also</p>
+                <p>See this.</p>
+                </div>
+                <div class="admonition note">
+                <p class="admonition-title"><strong>Custom</strong></p>
+                <p>Body</p>
+                </div>
+                <p>Badge:
+                <span class="badge badge-important">Beta &lt;1&gt;</span></p>
+                """, body(writer));
+    }
+
+    @Test
+    public void writesTabGroups() {
+        var writer = new HtmlWriter("content/index.html");
+        writer.openTabGroup();
+        writer.openTab("First <1>");
+        writer.write("one");
+        writer.closeTab();
+        writer.openTab("Second");
+        writer.writeCommonMark("two *em*");
+        writer.closeTab();
+        writer.closeTabGroup();
+        writer.openTabGroup();
+        writer.openTab("Again");
+        writer.write("three");
+        writer.closeTab();
+        writer.closeTabGroup();
+
+        // Only the first tab of each group starts expanded.
+        assertEquals("""
+                <div class="tab-set">
+                <details class="tab" open>
+                <summary>First &lt;1&gt;</summary>
+                <p>one</p>
+                </details>
+                <details class="tab">
+                <summary>Second</summary>
+                <p>two <em>em</em></p>
+                </details>
+                </div>
+                <div class="tab-set">
+                <details class="tab" open>
+                <summary>Again</summary>
+                <p>three</p>
+                </details>
+                </div>
+                """, body(writer));
+    }
+
+    @Test
+    public void writesDefinitionListsAndTables() {
+        var writer = new HtmlWriter("content/index.html");
+        writer.openDefinitionList();
+        writer.openDefinitionListItem(titleWriter -> titleWriter.writeInline("$B", "term"));
+        writer.write("definition");
+        writer.closeDefinitionListItem();
+        writer.closeDefinitionList();
+        writer.writeCommonMark("""
+                <table>
+                <tr><th>Name</th></tr>
+                <tr><td>a &amp; b</td></tr>
+                </table>""");
+
+        assertEquals("""
+                <dl>
+                <dt><strong>term</strong></dt>
+                <dd>
+                <p>definition</p>
+                </dd>
+                </dl>
+                <table>
+                <tr><th>Name</th></tr>
+                <tr><td>a &amp; b</td></tr>
+                </table>
+                """, body(writer));
+    }
+
+    private String body(DocWriter writer) {
+        var page = writer.toString();
+        return page.substring(page.indexOf("<main>\n") + "<main>\n".length(), page.indexOf("</main>"));
+    }
+}
@@ -0,0 +1,543 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package software.amazon.smithy.docgen.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.utils.SimpleCodeWriter;
+import software.amazon.smithy.utils.SmithyBuilder;
+import software.amazon.smithy.utils.ToSmithyBuilder;
+
+/**
+ * Generates large, deterministic Smithy models for scale testing.
+ *
+ * <p>The generated service has the configured number of operations, spread
+ * evenly between the service itself and its resources. Each operation has an
+ * inline input and output with the configured number of members, one of which
+ * is a chain of nested structures as deep as the configured nesting depth.
+ * Members cycle through strings, numbers, timestamps, lists, maps, and enums.
+ * Outputs can optionally also reference a recursive structure, which the code
+ * generation director generates after the service rather than before it.
+ *
+ * <p>Optional traits like constraints, deprecation, and pagination are applied
+ * with a probability equal to the configured trait density. They're chosen with
+ * a seeded random number generator, so the same settings always produce the
+ * same model.
+ *
+ * <p>Models can be written to disk to use with smithy-build by running this
+ * class with {@code key=value} arguments naming builder properties, plus an
+ * {@code output} path. For example:
+ * {@code operations=1000 resources=50 output=build/synthetic.smithy}.
+ */
+public final class SyntheticModelGenerator implements ToSmithyBuilder<SyntheticModelGenerator> {
+    /**
+     * The namespace that generated shapes are defined in.
+     */
+    public static final String NAMESPACE = "com.example.synthetic";
+
+    /**
+     * The id of the generated service.
+     */
+    public static final ShapeId SERVICE = ShapeId.fromParts(NAMESPACE, "SyntheticService");
+
+    private static final int MAX_ITEMS = 10;
+
+    private final int operations;
+    private final int resources;
+    private final int nestingDepth;
+    private final int membersPerStructure;
+    private final List<ShapeId> protocols;
+    private final double traitDensity;
+    private final boolean recursiveShapes;
+    private final long seed;
+
+    private SyntheticModelGenerator(Builder builder) {
+        this.operations = builder.operations;
+        this.resources = builder.resources;
+        this.nestingDepth = builder.nestingDepth;
+        this.membersPerStructure = builder.membersPerStructure;
+        this.protocols = List.copyOf(builder.protocols);
+        this.traitDensity = builder.traitDensity;
+        this.recursiveShapes = builder.recursiveShapes;
+        this.seed = builder.seed;
+    }
+
+    /**
+     * @return returns a builder with the default settings.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Builder toBuilder() {
+        return builder()
+                .operations(operations)
+                .resources(resources)
+                .nestingDepth(nestingDepth)
+                .membersPerStructure(membersPerStructure)
+                .protocols(protocols)
+                .traitDensity(traitDensity)
+                .recursiveShapes(recursiveShapes)
+                .seed(seed);
+    }
+
+    /**
+     * Generates the model and assembles it.
+     *
+     * <p>Protocol traits are resolved from the class path, so the packages that
+     * define them must be available.
+     *
+     * @return returns the assembled model.
+     */
+    public Model generate() {
+        return Model.assembler(SyntheticModelGenerator.class.getClassLoader())
+                .discoverModels(SyntheticModelGenerator.class.getClassLoader())
+                .addUnparsedModel("synthetic.smithy", generateIdl())
+                .assemble()
+                .unwrap();
+    }
+
+    /**
+     * Generates the model as Smithy IDL.
+     *
+     * @return returns the generated model's IDL.
+     */
+    public String generateIdl() {
+        var random = new Random(seed);
+        var writer = new SimpleCodeWriter();
+        writer.writeWithNoFormatting("$version: \"2.0\"");
+        writer.write("");
+
+        // Readonly operations are generated with POST bindings so that their
+        // members can all be in the body.
+        writer.openBlock("metadata suppressions = [", "]", () -> {
+            writer.write("{ id: \"HttpMethodSemantics\", namespace: $S }", NAMESPACE);
+        });
+        writer.write("");
+        writer.write("namespace $L", NAMESPACE);
+        writer.write("");
+
+        List<List<String>> resourceOperations = new ArrayList<>();
+        for (var i = 0; i < resources; i++) {
+            resourceOperations.add(new ArrayList<>());
+        }
+        List<String> serviceOperations = new ArrayList<>();
+        for (var i = 0; i < operations; i++) {
+            var owner = i % (resources + 1);
+            if (owner < resources) {
+                resourceOperations.get(owner).add(operationName(i));
+            } else {
+                serviceOperations.add(operationName(i));
+            }
+        }
+
+        writer.write("/// A synthetic service with $L operations and $L resources.", operations, resources);
+        writer.write("@title(\"Synthetic Service\")");
+        for (var protocol : protocols) {
+            writer.write("@$L", protocol);
+        }
+        writer.write("@httpBearerAuth");
+        writer.write("@httpApiKeyAuth(name: \"x-api-key\", in: \"header\")");
+        writer.openBlock("service $L {", "}", SERVICE.getName(), () -> {
+            writer.write("version: \"2024-01-01\"");
+            writer.write("operations: [$L]", String.join(", ", serviceOperations));
+            var resourceNames = new ArrayList<String>();
+            for (var i = 0; i < resources; i++) {
+                resourceNames.add(resourceName(i));
+            }
+            writer.write("resources: [$L]", String.join(", ", resourceNames));
+            writer.write("errors: [InternalError]");
+        });
+        writer.write("");
+
+        for (var i = 0; i < resources; i++) {
+            writeResource(writer, i, resourceOperations.get(i));
+        }
+        for (var i = 0; i < operations; i++) {
+            var owner = i % (resources + 1);
+            writeOperation(writer, random, i, owner < resources ? owner : -1);
+        }
+        writeSharedShapes(writer);
+        return writer.toString();
+    }
+
+    private void writeResource(SimpleCodeWriter writer, int index, List<String> resourceOperations) {
+        writer.write("/// Documentation for $L.", resourceName(index));
+        writer.openBlock("resource $L {", "}", resourceName(index), () -> {
+            writer.write("identifiers: { $L: String }", identifierName(index));
+            writer.write("operations: [$L]", String.join(", ", resourceOperations));
+        });
+        writer.write("");
+    }
+
+    private void writeOperation(SimpleCodeWriter writer, Random random, int index, int resource) {
+        var name = operationName(index);
+        var uri = resource < 0
+                ? "/" + name
+                : String.format("/%s/{%s}/%s", resourceName(resource), identifierName(resource), name);
+        var readonly = random.nextDouble() < traitDensity;
+        var paginated = readonly && random.nextDouble() < traitDensity;
+
+        writer.write("/// Documentation for $L, which has **some** `CommonMark` in it.", name);
+        writer.write("@http(method: \"POST\", uri: $S, code: 200)", uri);
+        if (readonly) {
+            writer.write("@readonly");
+        } else if (random.nextDouble() < traitDensity) {
+            writer.write("@idempotent");
+        }
+        if (paginated) {
+            writer.write("@paginated(inputToken: \"nextToken\", outputToken: \"nextToken\", "
+                    + "pageSize: \"maxResults\", items: \"items\")");
+        }
+        if (random.nextDouble() < traitDensity) {
+            writer.write("@deprecated(since: \"2020-01-01\", message: \"Use something else.\")");
+        }
+        if (random.nextDouble() < traitDensity) {
+            writer.write("@externalDocumentation(\"Guide\": \"https://example.com/guide\")");
+        }
+        writer.openBlock("operation $L {", "}", name, () -> {
+            writer.openBlock("input := {", "}", () -> {
+                if (resource >= 0) {
+                    writer.write("@required");
+                    writer.write("@httpLabel");
+                    writer.write("$L: String", identifierName(resource));
+                    writer.write("");
+                }
+                if (paginated) {
+                    writer.write("nextToken: String");
+                    writer.write("maxResults: Integer");
+                    writer.write("");
+                }
+                writeMembers(writer, random, name + "Input", 0);
+            });
+            writer.openBlock("output := {", "}", () -> {
+                if (paginated) {
+                    writer.write("nextToken: String");
+                    writer.write("items: StringList");
+                    writer.write("");
+                }
+                if (recursiveShapes) {
+                    writer.write("tree: SyntheticTree");
+                    writer.write("");
+                }
+                writeMembers(writer, random, name + "Output", 0);
+            });
+            var errors = random.nextDouble() < traitDensity ? "ValidationError, ThrottlingError" : "ValidationError";
+            writer.write("errors: [$L]", errors);
+        });
+        writer.write("");
+
+        writeNested(writer, random, name + "Input");
+        writeNested(writer, random, name + "Output");
+    }
+
+    private void writeNested(SimpleCodeWriter writer, Random random, String base) {
+        for (var depth = 1; depth <= nestingDepth && membersPerStructure > MemberType.NESTED.ordinal(); depth++) {
+            var name = nestedName(base, depth);
+            var nestedDepth = depth;
+            writer.write("/// A structure nested $L levels deep.", depth);
+            writer.openBlock("structure $L {", "}", name, () -> writeMembers(writer, random, base, nestedDepth));
+            writer.write("");
+        }
+    }
+
+    private void writeMembers(SimpleCodeWriter writer, Random random, String base, int depth) {
+        for (var i = 0; i < membersPerStructure; i++) {
+            var type = MemberType.values()[i % MemberType.values().length];
+            // Only one member per structure continues the chain of nesting, so the
+            // size of the model grows linearly with the nesting depth.
+            if (type == MemberType.NESTED && (i >= MemberType.values().length || depth >= nestingDepth)) {
+                type = MemberType.LONG;
+            }
+            var memberName = "member" + i;
+
+            writer.write("/// Documentation for $L.", memberName);
+            if (random.nextDouble() < traitDensity) {
+                writer.write("@required");
+            }
+            if (random.nextDouble() < traitDensity) {
+                writer.write("@deprecated");
+            }
+            switch (type) {
+                case STRING -> {
+                    if (random.nextDouble() < traitDensity) {
+                        writer.write("@length(min: 1, max: 256)");
+                    }
+                    if (random.nextDouble() < traitDensity) {
+                        writer.write("@pattern($S)", "^[a-zA-Z0-9]+$");
+                    }
+                    if (random.nextDouble() < traitDensity) {
+                        writer.write("@jsonName($S)", memberName + "_json");
+                    }
+                }
+                case INTEGER, LONG -> {
+                    if (random.nextDouble() < traitDensity) {
+                        writer.write("@range(min: 0, max: 1000)");
+                    }
+                }
+                case TIMESTAMP -> {
+                    if (random.nextDouble() < traitDensity) {
+                        writer.write("@timestampFormat(\"epoch-seconds\")");
+                    }
+                }
+                case LIST -> {
+                    if (random.nextDouble() < traitDensity) {
+                        writer.write("@length(min: 0, max: $L)", MAX_ITEMS);
+                    }
+                }
+                default -> {
+                }
+            }
+            var target = type == MemberType.NESTED ? nestedName(base, depth + 1) : type.target;
+            writer.write("$L: $L", memberName, target);
+            writer.write("");
+        }
+    }
+
+    private void writeSharedShapes(SimpleCodeWriter writer) {
+        writer.write("""
+                /// A list of strings.
+                list StringList {
+                    member: String
+                }
+
+                /// A map of strings.
+                map StringMap {
+                    key: String
+                    value: String
+                }
+
+                /// An enum shared by every operation.
+                enum SyntheticEnum {
+                    FIRST
+                    SECOND
+                    THIRD
+                }
+
+                /// The input was invalid.
+                @error("client")
+                @httpError(400)
+                structure ValidationError {
+                    message: String
+                }
+
+                /// Too many requests were made.
+                @error("client")
+                @retryable(throttling: true)
+                @httpError(429)
+                structure ThrottlingError {
+                    message: String
+                }
+
+                /// The service encountered an error.
+                @error("server")
+                @httpError(500)
+                structure InternalError {
+                    message: String
+                }""");
+        if (recursiveShapes) {
+            writer.write("""
+
+                    /// A recursive structure, such as a node in a tree.
+                    structure SyntheticTree {
+                        value: String
+                        children: SyntheticTreeList
+                    }
+
+                    /// A list of trees.
+                    list SyntheticTreeList {
+                        member: SyntheticTree
+                    }""");
+        }
+    }
+
+    private static String operationName(int index) {
+        return "Operation" + index;
+    }
+
+    private static String resourceName(int index) {
+        return "Resource" + index;
+    }
+
+    private static String identifierName(int index) {
+        return "resource" + index + "Id";
+    }
+
+    private static String nestedName(String base, int depth) {
+        return base + "Nested" + depth;
+    }
+
+    /**
+     * Writes a generated model to disk.
+     *
+     * @param args Builder properties as {@code key=value} pairs, plus {@code output}.
+     */
+    public static void main(String[] args) {
+        var builder = builder();
+        Path output = Path.of("synthetic.smithy");
+        for (var arg : args) {
+            var parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected a key=value argument, but found " + arg);
+            }
+            switch (parts[0]) {
+                case "operations" -> builder.operations(Integer.parseInt(parts[1]));
+                case "resources" -> builder.resources(Integer.parseInt(parts[1]));
+                case "nestingDepth" -> builder.nestingDepth(Integer.parseInt(parts[1]));
+                case "membersPerStructure" -> builder.membersPerStructure(Integer.parseInt(parts[1]));
+                case "protocols" -> builder.protocols(Stream.of(parts[1].split(",")).map(ShapeId::from).toList());
+                case "traitDensity" -> builder.traitDensity(Double.parseDouble(parts[1]));
+                case "recursiveShapes" -> builder.recursiveShapes(Boolean.parseBoolean(parts[1]));
+                case "seed" -> builder.seed(Long.parseLong(parts[1]));
+                case "output" -> output = Path.of(parts[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + parts[0]);
+            }
+        }
+        try {
+            if (output.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(output.toAbsolutePath().getParent());
+            }
+            Files.writeString(output, builder.build().generateIdl());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private enum MemberType {
+        STRING("String"),
+        INTEGER("Integer"),
+        BOOLEAN("Boolean"),
+        TIMESTAMP("Timestamp"),
+        LIST("StringList"),
+        ENUM("SyntheticEnum"),
+        MAP("StringMap"),
+        NESTED(null),
+        LONG("Long");
+
+        private final String target;
+
+        MemberType(String target) {
+            this.target = target;
+        }
+    }
+
+    /**
+     * Builds a synthetic model generator.
+     */
+    public static final class Builder implements SmithyBuilder<SyntheticModelGenerator> {
+        private int operations = 10;
+        private int resources = 0;
+        private int nestingDepth = 1;
+        private int membersPerStructure = 8;
+        private List<ShapeId> protocols = List.of(ShapeId.from("aws.protocols#restJson1"));
+        private double traitDensity = 0.25;
+        private boolean recursiveShapes = false;
+        private long seed = 0;
+
+        private Builder() {}
+
+        @Override
+        public SyntheticModelGenerator build() {
+            return new SyntheticModelGenerator(this);
+        }
+
+        /**
+         * @param operations The number of operations to generate. Defaults to 10.
+         * @return returns the builder.
+         */
+        public Builder operations(int operations) {
+            this.operations = requireNonNegative("operations", operations);
+            return this;
+        }
+
+        /**
+         * @param resources The number of resources to bind operations to. Defaults to 0.
+         * @return returns the builder.
+         */
+        public Builder resources(int resources) {
+            this.resources = requireNonNegative("resources", resources);
+            return this;
+        }
+
+        /**
+         * @param nestingDepth How many levels of nested structures each input and
+         *   output has. Defaults to 1.
+         * @return returns the builder.
+         */
+        public Builder nestingDepth(int nestingDepth) {
+            this.nestingDepth = requireNonNegative("nestingDepth", nestingDepth);
+            return this;
+        }
+
+        /**
+         * @param membersPerStructure The number of members in each generated structure.
+         *   Nesting only happens when there are at least 8 members. Defaults to 8.
+         * @return returns the builder.
+         */
+        public Builder membersPerStructure(int membersPerStructure) {
+            this.membersPerStructure = requireNonNegative("membersPerStructure", membersPerStructure);
+            return this;
+        }
+
+        /**
+         * @param protocols The protocol traits to apply to the service. Defaults to
+         *   {@code aws.protocols#restJson1}.
+         * @return returns the builder.
+         */
+        public Builder protocols(List<ShapeId> protocols) {
+            this.protocols = List.copyOf(protocols);
+            return this;
+        }
+
+        /**
+         * @param traitDensity The probability, from 0 to 1, of applying each optional
+         *   trait. Defaults to 0.25.
+         * @return returns the builder.
+         */
+        public Builder traitDensity(double traitDensity) {
+            if (traitDensity < 0 || traitDensity > 1) {
+                throw new IllegalArgumentException("traitDensity must be between 0 and 1, but was " + traitDensity);
+            }
+            this.traitDensity = traitDensity;
+            return this;
+        }
+
+        /**
+         * @param recursiveShapes Whether each operation's output references a
+         *   recursive structure. Defaults to false.
+         * @return returns the builder.
+         */
+        public Builder recursiveShapes(boolean recursiveShapes) {
+            this.recursiveShapes = recursiveShapes;
+            return this;
+        }
+
+        /**
+         * @param seed The seed used to choose optional traits. Defaults to 0.
+         * @return returns the builder.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        private static int requireNonNegative(String name, int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException(name + " must not be negative, but was " + value);
+            }
+            return value;
+        }
+    }
+}